@@ -0,0 +1,466 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the provided Sequence interface with a growable
+ * array.  Elements are stored contiguously, so positional access does not
+ * have to chase node references the way {@code LinkedList} does.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class ArraySequence<T> implements Sequence<T> {
+
+	/**
+	 * Holds the capacity used by a newly constructed sequence.
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * This class defines a fail-fast iterator over the sequence.
+	 *
+	 * @author Megan Bird
+	 */
+	class ArrayIterator implements Iterator<T> {
+		private int next = 0;
+		private int expectedModCount = modCount;
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		/**
+		 * Returns the next element of the sequence.
+		 *
+		 * @return the next element of the sequence
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the sequence was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			return elementAt(next++);
+		}
+	}
+
+	/**
+	 * This class defines a late-binding, fail-fast spliterator over a range
+	 * of indices, in the manner of {@code ArrayList}'s.  The spliterator
+	 * binds to the size and modification count of the sequence when it is
+	 * first traversed, split or sized rather than when it is created, and
+	 * reports a concurrent modification once traversal is done.
+	 *
+	 * @author Megan Bird
+	 */
+	class ArraySpliterator implements Spliterator<T> {
+		private int index;
+		private int fence;
+		private int expectedModCount;
+
+		/**
+		 * Creates a spliterator over the indices from origin up to fence.
+		 *
+		 * @param origin first index to visit
+		 * @param fence one past the last index to visit, or -1 to bind to
+		 * 		the size of the sequence on first use
+		 * @param expectedModCount modification count the sequence must keep
+		 */
+		ArraySpliterator(int origin, int fence, int expectedModCount) {
+			this.index = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		/**
+		 * Returns the end of the range, binding it to the size of the
+		 * sequence on first use.
+		 *
+		 * @return one past the last index to visit
+		 */
+		private int getFence() {
+			if (fence < 0) {
+				expectedModCount = modCount;
+				fence = size;
+			}
+			return fence;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int hi = getFence();
+			int lo = index;
+			int mid = (lo + hi) >>> 1;
+			if (lo >= mid) {
+				return null;
+			}
+			index = mid;
+			return new ArraySpliterator(lo, mid, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence();
+			if (index >= hi) {
+				return false;
+			}
+			T obj = elementAt(index++);
+			action.accept(obj);
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence();
+			Object[] elements = data;
+			if (hi > elements.length) {
+				throw new ConcurrentModificationException();
+			}
+			for (; index < hi; index++) {
+				@SuppressWarnings("unchecked")
+				T obj = (T) elements[index];
+				action.accept(obj);
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	/**
+	 * Holds the elements of the sequence in positions 0 to size - 1.
+	 */
+	private Object[] data;
+
+	/**
+	 * Holds the number of elements in the sequence.
+	 */
+	private int size;
+
+	/**
+	 * Holds the number of structural modifications made to the sequence so
+	 * that iterators can detect concurrent modification.
+	 */
+	private int modCount;
+
+	/**
+	 * Constructs an empty sequence.
+	 */
+	public ArraySequence() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty sequence able to hold the given number of
+	 * elements before it has to grow.
+	 *
+	 * @param capacity initial capacity of the sequence
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	public ArraySequence(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		data = new Object[capacity];
+		size = 0;
+	}
+
+	/**
+	 * Makes sure the backing array can hold at least the given number of
+	 * elements.  The array grows by half its length each time so that a
+	 * series of appends is amortized O(1).
+	 *
+	 * @param minCapacity number of elements that must fit
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > data.length) {
+			int capacity = data.length + (data.length >> 1) + 1;
+			if (capacity < minCapacity || capacity < 0) {
+				capacity = minCapacity;
+			}
+			Object[] tmp = new Object[capacity];
+			System.arraycopy(data, 0, tmp, 0, size);
+			data = tmp;
+		}
+	}
+
+	/**
+	 * Returns the element stored at the given position without checking
+	 * the index.
+	 *
+	 * @param idx position of the element
+	 * @return the element at the position
+	 */
+	@SuppressWarnings("unchecked")
+	private T elementAt(int idx) {
+		return (T) data[idx];
+	}
+
+	/**
+	 * Return a {@code String} representation of the sequence.
+	 *
+	 * O(n):  Iterates through entire array.
+	 *
+	 * @return a {@code String} representation of the sequence.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("[");
+
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				repr.append(", ");
+			}
+			repr.append(data[i]);
+		}
+
+		repr.append("]");
+
+		return repr.toString();
+	}
+
+	/**
+     * Adds the specified object to the end of the sequence.
+     *
+     * O(1):  Amortized, the array only has to be copied when it grows.
+     *
+     * @param obj Object to be appended to this sequence
+     */
+	@Override
+	public void add(T obj) {
+		ensureCapacity(size + 1);
+		data[size++] = obj;
+		modCount++;
+	}
+
+	/**
+     * Adds the specified object at the given position in the sequence.
+     *
+     * O(n):  Elements after the index are shifted by one position.
+     *
+     * @param idx index at which the specified object is to be inserted
+     * @param obj object to be appended to this sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index > size())
+     */
+	@Override
+	public void add(int idx, T obj) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(data, idx, data, idx + 1, size - idx);
+		data[idx] = obj;
+		size++;
+		modCount++;
+	}
+
+	/**
+     * Removes all of the elements from the sequence.
+     *
+     * O(n):  References are cleared so the elements can be collected.
+     */
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			data[i] = null;
+		}
+		size = 0;
+		modCount++;
+	}
+
+	/**
+     * Returns the object at the specified position in the sequence.
+     *
+     * O(1):  Indexes directly into the array.
+     *
+     * @param idx index of the element to return
+     * @return the object at the specified position in the sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	public T get(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return elementAt(idx);
+	}
+
+	/**
+     * Returns {@code true} if the sequence contains the specified object and
+     * {@code false} otherwise.
+     *
+     * O(n):  {@code indexOf()} scans the array.
+     *
+     * @param obj the object to find in the sequence
+     * @return {@code true} if the sequence contains the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean contains(T obj) {
+		return indexOf(obj) != -1;
+	}
+
+	/**
+     * Returns the index of the first occurrence of the specified object in
+     * this sequence, or -1 if object is not present.
+     *
+     * O(n):  Scans the array until object found.
+     *
+     * @param obj the object to find in the sequence
+     * @return the index of the first occurrence of the specified object in
+     *         this sequence, or -1 if object is not present
+     */
+	@Override
+	public int indexOf(T obj) {
+		for (int i = 0; i < size; i++) {
+			if (data[i] == obj) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+     * Returns {@code true} if the sequence is empty and {@code false}
+     * otherwise.
+     *
+     * O(1):  Not dependent on sequence size.
+     *
+     * @return {@code true} if the sequence is empty and {@code false}
+     *         otherwise
+     */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+     * Removes the object at the specified position in the sequence.
+     *
+     * O(n):  Elements after the index are shifted back by one position.
+     *
+     * @param idx index of the element to remove
+     * @return the object previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	public T remove(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		T removed = elementAt(idx);
+		System.arraycopy(data, idx + 1, data, idx, size - idx - 1);
+		data[--size] = null;
+		modCount++;
+		return removed;
+	}
+
+	/**
+     * Remove the first occurrence of the specified object from the sequence,
+     * if it is present.
+     *
+     * O(n):  Scans the array and shifts the elements after the object.
+     *
+     * @param obj the object to remove
+     * @return {@code true} if the sequence contained the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean remove(T obj) {
+		int idx = indexOf(obj);
+		if (idx == -1) {
+			return false;
+		}
+		remove(idx);
+		return true;
+	}
+
+	/**
+     * Returns the number of elements in the sequence.
+     *
+     * O(1):  Not dependent on sequence size.
+     *
+     * @return the number of elements in the sequence
+     */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+     * Returns an array containing all of the elements in the sequence in the
+     * proper order (from first to last).
+     *
+     * O(n):  Copies the used part of the backing array.
+     *
+     * @return an array containing the elements of the sequence
+     */
+	@Override
+	public Object[] toArray() {
+		Object[] copy = new Object[size];
+		System.arraycopy(data, 0, copy, 0, size);
+		return copy;
+	}
+
+	/**
+	 * Returns a fail-fast iterator over the elements of the sequence in
+	 * order.
+	 *
+	 * O(1):  Each step reads a single array slot.
+	 *
+	 * @return an iterator over the elements of the sequence
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new ArrayIterator();
+	}
+
+	/**
+	 * Returns a late-binding, fail-fast spliterator over the elements of
+	 * the sequence that splits the index range in half.
+	 *
+	 * @return a spliterator over the elements of the sequence
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new ArraySpliterator(0, -1, 0);
+	}
+
+}
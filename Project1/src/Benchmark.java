@@ -0,0 +1,247 @@
+import java.util.Random;
+
+/**
+ * This class times the Sequence and Set implementations on inputs large
+ * enough to expose their asymptotic behaviour.  Each {@code bench*} method
+ * covers one operation and prints one line per input size so the per
+ * operation cost can be compared across sizes.
+ *
+ * The timings are wall clock measurements taken with {@code System.nanoTime}
+ * after a short warm up pass, so they are only meant to show trends rather
+ * than precise figures.
+ *
+ * @author Megan Bird
+ */
+public class Benchmark {
+
+	/**
+	 * Accumulates values read during a benchmark so the reads cannot be
+	 * optimized away.
+	 */
+	private static long sink;
+
+	public static void main(String[] args) {
+
+		// LinkedList benchmarks
+		benchLLappend();
+		benchLLscan();
+
+		// ArraySequence benchmarks
+		benchASappend();
+		benchASget();
+
+		// LinkedList against UnrolledLinkedList and TreeSequence
+		benchSequenceGet(new LinkedList<Integer>());
+		benchSequenceGet(new UnrolledLinkedList<Integer>());
+		benchSequenceGet(new TreeSequence<Integer>());
+		benchSequenceInsert(new LinkedList<Integer>());
+		benchSequenceInsert(new UnrolledLinkedList<Integer>());
+		benchSequenceInsert(new TreeSequence<Integer>());
+		benchSequenceRemove(new LinkedList<Integer>());
+		benchSequenceRemove(new UnrolledLinkedList<Integer>());
+		benchSequenceRemove(new TreeSequence<Integer>());
+
+		// IntSequence against ArraySequence<Integer>
+		benchINTSEQ();
+
+	}
+
+	private static void report(String method, int n, int ops, long nanos) {
+		System.out.printf("%-40s n=%-10d %10.2f ms %10.2f ns/op\n",
+				method, n, nanos / 1e6, (double) nanos / ops);
+	}
+
+	private static void benchLLappend() {
+
+		// warm up
+		for (int i = 0; i < 10; i++) {
+			LinkedList<Integer> warmList = new LinkedList<Integer>();
+			for (int j = 0; j < 100000; j++) {
+				warmList.add(j);
+			}
+		}
+
+		for (int n = 1000; n <= 10000000; n *= 10) {
+			LinkedList<Integer> testList = new LinkedList<Integer>();
+
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				testList.add(i);
+			}
+			long elapsed = System.nanoTime() - start;
+
+			report("LinkedList add(T obj)", n, n, elapsed);
+		}
+	}
+
+	private static void benchLLscan() {
+
+		for (int n = 1000; n <= 1000000; n *= 10) {
+			LinkedList<Integer> testList = new LinkedList<Integer>();
+			for (int i = 0; i < n; i++) {
+				testList.add(i);
+			}
+
+			long sum = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				sum += testList.get(i);
+			}
+			long elapsed = System.nanoTime() - start;
+			sink += sum;
+
+			report("LinkedList get(int idx) ascending", n, n, elapsed);
+		}
+	}
+
+	private static void benchASappend() {
+
+		for (int n = 1000; n <= 10000000; n *= 10) {
+			ArraySequence<Integer> testList = new ArraySequence<Integer>();
+
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				testList.add(i);
+			}
+			long elapsed = System.nanoTime() - start;
+
+			report("ArraySequence add(T obj)", n, n, elapsed);
+		}
+	}
+
+	private static void benchASget() {
+
+		for (int n = 1000; n <= 10000000; n *= 10) {
+			ArraySequence<Integer> testList = new ArraySequence<Integer>();
+			for (int i = 0; i < n; i++) {
+				testList.add(i);
+			}
+
+			long sum = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				sum += testList.get(i);
+			}
+			long elapsed = System.nanoTime() - start;
+
+			sink += sum;
+
+			report("ArraySequence get(int idx)", n, n, elapsed);
+		}
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static void benchINTSEQ() {
+
+		int n = 1000000;
+		Random random = new Random(n);
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = random.nextInt();
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long before = usedMemory();
+			long start = System.nanoTime();
+			IntSequence primitive = new IntSequence();
+			for (int i = 0; i < n; i++) {
+				primitive.add(values[i]);
+			}
+			long sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += primitive.get(i);
+			}
+			long elapsed = System.nanoTime() - start;
+			long bytes = usedMemory() - before;
+			sink += sum + primitive.size();
+
+			report("IntSequence add(int) + get(int)", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "IntSequence", (double) bytes / n);
+
+			before = usedMemory();
+			start = System.nanoTime();
+			ArraySequence<Integer> boxed = new ArraySequence<Integer>();
+			for (int i = 0; i < n; i++) {
+				boxed.add(values[i]);
+			}
+			sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += boxed.get(i);
+			}
+			elapsed = System.nanoTime() - start;
+			bytes = usedMemory() - before;
+			sink += sum + boxed.size();
+
+			report("ArraySequence<Integer> add + get", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "ArraySequence<Integer>", (double) bytes / n);
+		}
+	}
+
+	private static String name(Object testObject) {
+		return testObject.getClass().getSimpleName();
+	}
+
+	private static void fill(Sequence<Integer> testList, int n) {
+		testList.clear();
+		for (int i = 0; i < n; i++) {
+			testList.add(i);
+		}
+	}
+
+	private static void benchSequenceGet(Sequence<Integer> testList) {
+
+		for (int n = 1000; n <= 100000; n *= 10) {
+			fill(testList, n);
+			Random random = new Random(n);
+
+			long sum = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < 10000; i++) {
+				sum += testList.get(random.nextInt(n));
+			}
+			long elapsed = System.nanoTime() - start;
+			sink += sum;
+
+			report(name(testList) + " get(int idx)", n, 10000, elapsed);
+		}
+	}
+
+	private static void benchSequenceInsert(Sequence<Integer> testList) {
+
+		for (int n = 1000; n <= 100000; n *= 10) {
+			fill(testList, n);
+			Random random = new Random(n);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < 10000; i++) {
+				testList.add(random.nextInt(testList.size() + 1), i);
+			}
+			long elapsed = System.nanoTime() - start;
+
+			report(name(testList) + " add(int idx, T obj)", n, 10000, elapsed);
+		}
+	}
+
+	private static void benchSequenceRemove(Sequence<Integer> testList) {
+
+		for (int n = 1000; n <= 100000; n *= 10) {
+			fill(testList, n + 10000);
+			Random random = new Random(n);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < 10000; i++) {
+				testList.remove(random.nextInt(testList.size()));
+			}
+			long elapsed = System.nanoTime() - start;
+
+			report(name(testList) + " remove(int idx)", n, 10000, elapsed);
+		}
+	}
+}
@@ -1,3 +1,13 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 /**
  * This class implements the provided Set interface.
  * 
@@ -34,69 +44,76 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	 * 
 	 * @author Megan Bird
 	 */
-	class Iterator {
+	class NodeIterator {
 		
 		/**
 		 * This class defines a stack for TreeNode objects,
-		 * implemented as a linked list.
+		 * implemented as an array that doubles when it fills,
+		 * so pushing does not allocate once it is big enough.
 		 * 
 		 * @author Megan Bird
 		 */
 		class Stack {
 			/**
-			 * This class defines a stack element, which is
-			 * the node of the stack linked list.
-			 * 
-			 * @author Megan Bird
+			 * Stores the elements of the stack, the top at
+			 * index {@code count - 1}.
 			 */
-			class StackElement {
-				TreeNode datum;
-				StackElement next;
-				
-				/**
-				 * Constructs an empty stack element (list node)
-				 * 
-				 * @param datum
-				 */
-				StackElement(TreeNode datum) {
-					this.datum = datum;
-					this.next = null;
-				}
-			}
+			private Object[] data;
 			
 			/**
-			 * Stores the top of the stack (head of linked list).
+			 * Stores the number of elements on the stack.
 			 */
-			private StackElement head;
+			private int count;
 			
 			/**
-			 * Constructs an empty stack (empty linked list).
+			 * Constructs an empty stack.
 			 */
 			public Stack() {
-				head = null;
+				data = new Object[16];
+				count = 0;
+			}
+			
+			/**
+			 * Returns {@code true} if the stack is empty.
+			 * 
+			 * @return {@code true} if the stack is empty
+			 */
+			public boolean isEmpty() {
+				return count == 0;
 			}
 			
 			/**
-			 * Performs a stack push operation by prepending a node
-			 * to the head of the underlying linked list.
+			 * Performs a stack push operation by storing the node
+			 * after the current top, growing the array if needed.
 			 * 
 			 * @param node
 			 */
 			public void push(TreeNode node) {
-				StackElement tmp = new StackElement(node);
-				tmp.next = head;
-				head = tmp;
+				if (count == data.length) {
+					data = Arrays.copyOf(data, 2 * count);
+				}
+				data[count++] = node;
+			}
+			
+			/**
+			 * Returns the top of the stack without removing it.
+			 * 
+			 * @return
+			 */
+			@SuppressWarnings("unchecked")
+			public TreeNode peek() {
+				return (TreeNode) data[count - 1];
 			}
 			
 			/**
 			 * Performs a stack pop operation by removing and returning
-			 * the head of the underlying linked list.
+			 * the top of the stack.
 			 * 
 			 * @return
 			 */
 			public TreeNode pop() {
-				TreeNode tmp = head.datum;
-				head = head.next;
+				TreeNode tmp = peek();
+				data[--count] = null;
 				return tmp;
 			}
 		}
@@ -108,9 +125,18 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 		 * 
 		 * @param root
 		 */
-		public Iterator(TreeNode root) {
+		public NodeIterator(TreeNode root) {
 			pushLeft(root);
 		}
+		
+		/**
+		 * Returns {@code true} if there are nodes left to visit.
+		 * 
+		 * @return {@code true} if there are nodes left to visit
+		 */
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
 
 		/**
 		 * Returns the next node of the BST using the stack.
@@ -138,6 +164,137 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 		}
 	}
 	
+	/**
+	 * This class defines a fail-fast iterator over the elements of the
+	 * BST in order.
+	 * 
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private NodeIterator nodes = new NodeIterator(root);
+		private int expectedModCount = modCount;
+		
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 * 
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return nodes.hasNext();
+		}
+		
+		/**
+		 * Returns the next element of the BST.
+		 * 
+		 * @return the next element of the BST
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the BST was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!nodes.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return nodes.next().datum;
+		}
+	}
+	
+	/**
+	 * This class defines a spliterator over a subtree followed by an optional
+	 * single node.  Splitting hands the left subtree and the root to a new
+	 * spliterator and keeps the right subtree, so the work divides along
+	 * subtree boundaries.
+	 * 
+	 * @author Megan Bird
+	 */
+	class TreeSpliterator implements Spliterator<T> {
+		private TreeNode subtree;
+		private TreeNode after;
+		private NodeIterator nodes;
+		private long est;
+		private int characteristics;
+		private int expectedModCount;
+		
+		/**
+		 * Creates a spliterator over a subtree followed by a single node.
+		 * 
+		 * @param subtree subtree to visit first
+		 * @param after node to visit last, or {@code null}
+		 * @param est estimated number of elements
+		 * @param characteristics characteristics of the spliterator
+		 * @param expectedModCount modification count the BST must keep
+		 */
+		TreeSpliterator(TreeNode subtree, TreeNode after, long est,
+				int characteristics, int expectedModCount) {
+			this.subtree = subtree;
+			this.after = after;
+			this.est = est;
+			this.characteristics = characteristics;
+			this.expectedModCount = expectedModCount;
+		}
+		
+		@Override
+		public Spliterator<T> trySplit() {
+			if (nodes != null || subtree == null) {
+				return null;
+			}
+			TreeNode split = subtree;
+			subtree = split.right;
+			est >>>= 1;
+			characteristics &= ~Spliterator.SIZED;
+			return new TreeSpliterator(split.left, split, est, characteristics, expectedModCount);
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nodes == null) {
+				nodes = new NodeIterator(subtree);
+			}
+			TreeNode tmp;
+			if (nodes.hasNext()) {
+				tmp = nodes.next();
+			}
+			else if (after != null) {
+				tmp = after;
+				after = null;
+			}
+			else {
+				return false;
+			}
+			if (est > 0) {
+				est--;
+			}
+			action.accept(tmp.datum);
+			return true;
+		}
+		
+		@Override
+		public long estimateSize() {
+			return est;
+		}
+		
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+		
+		@Override
+		public Comparator<? super T> getComparator() {
+			return null;
+		}
+	}
+	
 	/**
 	 * Holds the node designated as the root of the BST;
 	 */
@@ -148,6 +305,12 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	 */
 	private int size;
 	
+	/**
+	 * Holds the number of structural modifications made to the BST so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+	
 	/**
 	 * Constructs and empty BST;
 	 */
@@ -156,6 +319,96 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 		size = 0;
 	}
 	
+	/**
+	 * Builds a BST from elements that are already in strictly ascending
+	 * order.  Adding sorted input one element at a time would leave the BST
+	 * as a single right branch, so instead the middle element of each range
+	 * becomes the root of its subtree and the BST comes out perfectly
+	 * balanced.
+	 * 
+	 * O(n):  One pass to check the order and one node created per element.
+	 * 
+	 * @param sorted elements in strictly ascending order
+	 * @return a BST holding the elements
+	 * @throws IllegalArgumentException if an element is {@code null} or the
+	 * 		elements are not in strictly ascending order
+	 */
+	public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(T[] sorted) {
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] == null) {
+				throw new IllegalArgumentException("elements must not be null");
+			}
+			if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= 0) {
+				throw new IllegalArgumentException("elements must be in strictly ascending order");
+			}
+		}
+		BinarySearchTree<T> tree = new BinarySearchTree<T>();
+		tree.root = tree.build(sorted, 0, sorted.length);
+		tree.size = sorted.length;
+		return tree;
+	}
+	
+	/**
+	 * Recursively builds a balanced BST from the sorted range [lo, hi) of
+	 * an array.
+	 * 
+	 * @param data elements in strictly ascending order
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @return root of the BST
+	 */
+	@SuppressWarnings("unchecked")
+	private TreeNode build(Object[] data, int lo, int hi) {
+		if (lo >= hi) {
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		TreeNode current = new TreeNode((T) data[mid]);
+		current.left = build(data, lo, mid);
+		current.right = build(data, mid + 1, hi);
+		return current;
+	}
+	
+	/**
+	 * Adds every element of the array to the set.  The array may be in any
+	 * order and may hold duplicates.  A copy of it is sorted, in parallel
+	 * when it is large, merged with the elements already in the BST and the
+	 * BST is rebuilt balanced from the result.
+	 * 
+	 * O(n + m log m):  For a batch of m elements, the sort followed by a
+	 * 		linear merge and rebuild.
+	 * 
+	 * @param objs elements to add to the set
+	 */
+	@SuppressWarnings("unchecked")
+	public void addAll(T[] objs) {
+		T[] added = Arrays.copyOf(objs, objs.length);
+		Arrays.parallelSort(added);
+		
+		Object[] existing = toArray();
+		Object[] merged = new Object[existing.length + added.length];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+		while (i < existing.length || j < added.length) {
+			T obj;
+			if (j == added.length || (i < existing.length && ((T) existing[i]).compareTo(added[j]) <= 0)) {
+				obj = (T) existing[i++];
+			}
+			else {
+				obj = added[j++];
+			}
+			// an equal element is already in place, the one from the set first
+			if (count == 0 || ((T) merged[count - 1]).compareTo(obj) < 0) {
+				merged[count++] = obj;
+			}
+		}
+		
+		root = build(merged, 0, count);
+		size = count;
+		modCount++;
+	}
+	
 	/**
 	 * Prints the datum of the BST out in order in the console.
 	 * 
@@ -176,34 +429,52 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	 */
 	public String toString() {
 		StringBuilder repr = new StringBuilder();
-	    repr.append("{");
-
-	    TreeNode tmp = root;
-	    if (root != null) {
-	    	repr.append(toString(tmp).substring(2));
-	    }
-
-	    repr.append("}");
-
-	    return repr.toString();
+		try {
+			appendTo(repr, Integer.MAX_VALUE);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return repr.toString();
 	}
 	
 	/**
-	 * Return a string of the BST contents.
+	 * Writes the elements of the set in order to the given
+	 * {@code Appendable}, as in {@code {1, 2, 3}}.  After {@code limit}
+	 * elements it stops and notes how many were left out, as in
+	 * {@code {1, 2, 3, ... (997 more)}}.  The tree is walked with its
+	 * iterator rather than by recursion and every element goes straight to
+	 * out, so no intermediate strings are built.
+	 * 
+	 * O(log n + limit):  To start the iterator, then one step per element
+	 * 		written.
 	 * 
-	 * @param current
-	 * @return a {@code String} representation of the BST contents.
+	 * @param out destination of the text
+	 * @param limit greatest number of elements to write
+	 * @throws IOException if out throws one
+	 * @throws IllegalArgumentException if limit is negative
 	 */
-	private String toString(TreeNode current) {
-		StringBuilder repr = new StringBuilder();
-		
-	    if (current != null) {
-	    	repr.append(toString(current.left));
-	    	repr.append(", ").append(current.datum);
-	    	repr.append(toString(current.right));
-	    }
-	    
-	    return repr.toString();
+	public void appendTo(Appendable out, int limit) throws IOException {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit is negative");
+		}
+		out.append('{');
+		int count = 0;
+		Iterator<T> iter = iterator();
+		while (count < limit && iter.hasNext()) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append(String.valueOf(iter.next()));
+			count++;
+		}
+		if (count < size) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append("... (").append(Integer.toString(size - count)).append(" more)");
+		}
+		out.append('}');
 	}
 	
 	/**
@@ -228,6 +499,7 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	private TreeNode add(TreeNode current, T obj) {
 		if (current == null) {
 			size++;
+			modCount++;
 			return new TreeNode(obj);
 		}
 		else if (current.datum == obj) {
@@ -257,6 +529,7 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	public void clear() {
 		root = null;
 		size = 0;
+		modCount++;
 	}
 
 	/**
@@ -366,14 +639,17 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 			if(isLeaf(current)) {
 				current = null;
 				size--;
+				modCount++;
 			}
 			else if (current.left != null && current.right == null) {
 				current = current.left;
 				size--;
+				modCount++;
 			}
 			else if (current.left == null && current.right != null) {
 				current = current.right;
 				size--;
+				modCount++;
 			}
 			else {
 				TreeNode max = maximum(current.left);
@@ -442,12 +718,8 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
      */
 	@Override
 	public Object[] toArray() {
-		if (isEmpty()) {
-	        return null;
-	    }
-
 		Object[] data = new Object[size];
-		Iterator iTree = new Iterator(root);
+		NodeIterator iTree = new NodeIterator(root);
 
 	    for (int i = 0; i < size; i++) {
 	        data[i] = iTree.next().datum;
@@ -462,4 +734,30 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T> {
 	    return data;
 	}
 
+	/**
+	 * Returns a fail-fast iterator over the elements of the BST from
+	 * least to greatest.
+	 * 
+	 * O(1):  Amortized per step, the path to the next node is kept on a
+	 * 		stack.
+	 * 
+	 * @return an iterator over the elements of the BST
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the BST that splits at
+	 * subtree boundaries.
+	 * 
+	 * @return a spliterator over the elements of the BST
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(root, null, size, Spliterator.SIZED | Spliterator.ORDERED
+				| Spliterator.SORTED | Spliterator.DISTINCT, modCount);
+	}
+
 }
@@ -0,0 +1,259 @@
+import java.util.Arrays;
+
+/**
+ * This class is a sequence of {@code int} values backed by a growable
+ * {@code int[]}.  It mirrors the Sequence interface for primitive values so
+ * that storing or reading an element never boxes it into an
+ * {@code Integer}.
+ *
+ * Because an element and an index are both {@code int}, removing by
+ * position is {@code remove(int idx)} and removing by value is
+ * {@code removeValue(int value)}.
+ *
+ * @author Megan Bird
+ */
+public class IntSequence {
+
+	/**
+	 * Holds the capacity used by a newly constructed sequence.
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * Holds the elements of the sequence in positions 0 to size - 1.
+	 */
+	private int[] data;
+
+	/**
+	 * Holds the number of elements in the sequence.
+	 */
+	private int size;
+
+	/**
+	 * Constructs an empty sequence.
+	 */
+	public IntSequence() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty sequence able to hold the given number of
+	 * elements before it has to grow.
+	 *
+	 * @param capacity initial capacity of the sequence
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	public IntSequence(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		data = new int[capacity];
+		size = 0;
+	}
+
+	/**
+	 * Makes sure the backing array can hold at least the given number of
+	 * elements, growing it by half its length when it cannot.
+	 *
+	 * @param minCapacity number of elements that must fit
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > data.length) {
+			int capacity = data.length + (data.length >> 1) + 1;
+			if (capacity < minCapacity || capacity < 0) {
+				capacity = minCapacity;
+			}
+			data = Arrays.copyOf(data, capacity);
+		}
+	}
+
+	/**
+	 * Return a {@code String} representation of the sequence.
+	 *
+	 * O(n):  Iterates through entire array.
+	 *
+	 * @return a {@code String} representation of the sequence.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("[");
+
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				repr.append(", ");
+			}
+			repr.append(data[i]);
+		}
+
+		repr.append("]");
+
+		return repr.toString();
+	}
+
+	/**
+	 * Adds the specified value to the end of the sequence.
+	 *
+	 * O(1):  Amortized, the array only has to be copied when it grows.
+	 *
+	 * @param value value to be appended to this sequence
+	 */
+	public void add(int value) {
+		ensureCapacity(size + 1);
+		data[size++] = value;
+	}
+
+	/**
+	 * Adds the specified value at the given position in the sequence.
+	 *
+	 * O(n):  Elements after the index are shifted by one position.
+	 *
+	 * @param idx index at which the specified value is to be inserted
+	 * @param value value to be inserted
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         (index < 0 || index > size())
+	 */
+	public void add(int idx, int value) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(data, idx, data, idx + 1, size - idx);
+		data[idx] = value;
+		size++;
+	}
+
+	/**
+	 * Removes all of the elements from the sequence.
+	 *
+	 * O(1):  Not dependent on sequence size.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns the value at the specified position in the sequence.
+	 *
+	 * O(1):  Indexes directly into the array.
+	 *
+	 * @param idx index of the element to return
+	 * @return the value at the specified position in the sequence
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         (index < 0 || index >= size())
+	 */
+	public int get(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return data[idx];
+	}
+
+	/**
+	 * Returns {@code true} if the sequence contains the specified value and
+	 * {@code false} otherwise.
+	 *
+	 * O(n):  {@code indexOf()} scans the array.
+	 *
+	 * @param value the value to find in the sequence
+	 * @return {@code true} if the sequence contains the specified value and
+	 *         {@code false} otherwise
+	 */
+	public boolean contains(int value) {
+		return indexOf(value) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified value in
+	 * this sequence, or -1 if value is not present.
+	 *
+	 * O(n):  Scans the array until value found.
+	 *
+	 * @param value the value to find in the sequence
+	 * @return the index of the first occurrence of the specified value in
+	 *         this sequence, or -1 if value is not present
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (data[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns {@code true} if the sequence is empty and {@code false}
+	 * otherwise.
+	 *
+	 * O(1):  Not dependent on sequence size.
+	 *
+	 * @return {@code true} if the sequence is empty and {@code false}
+	 *         otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes the value at the specified position in the sequence.
+	 *
+	 * O(n):  Elements after the index are shifted back by one position.
+	 *
+	 * @param idx index of the element to remove
+	 * @return the value previously at the specified position
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         (index < 0 || index >= size())
+	 */
+	public int remove(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		int removed = data[idx];
+		System.arraycopy(data, idx + 1, data, idx, size - idx - 1);
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Remove the first occurrence of the specified value from the sequence,
+	 * if it is present.
+	 *
+	 * O(n):  Scans the array and shifts the elements after the value.
+	 *
+	 * @param value the value to remove
+	 * @return {@code true} if the sequence contained the specified value and
+	 *         {@code false} otherwise
+	 */
+	public boolean removeValue(int value) {
+		int idx = indexOf(value);
+		if (idx == -1) {
+			return false;
+		}
+		remove(idx);
+		return true;
+	}
+
+	/**
+	 * Returns the number of elements in the sequence.
+	 *
+	 * O(1):  Not dependent on sequence size.
+	 *
+	 * @return the number of elements in the sequence
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an array containing all of the values in the sequence in the
+	 * proper order (from first to last).
+	 *
+	 * O(n):  Copies the used part of the backing array.
+	 *
+	 * @return an array containing the values of the sequence
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+}
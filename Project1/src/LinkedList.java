@@ -1,3 +1,11 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
 /**
  * This class implements the provided Sequence interface.
  * 
@@ -27,22 +35,118 @@ public class LinkedList<T> implements Sequence<T> {
 		}
 	}
 	
+	/**
+	 * This class defines a fail-fast iterator over the linked list.
+	 * 
+	 * @author Megan Bird
+	 */
+	class ListIterator implements Iterator<T> {
+		private ListNode next = head;
+		private int expectedModCount = modCount;
+		
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 * 
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		/**
+		 * Returns the next element of the list.
+		 * 
+		 * @return the next element of the list
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the list was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			T datum = next.datum;
+			next = next.next;
+			return datum;
+		}
+	}
+	
 	/**
 	 * Holds the node designated as the head of the linked list.
 	 */
 	private ListNode head;
 	
+	/**
+	 * Holds the node designated as the tail of the linked list so that
+	 * appends do not have to walk the list.
+	 */
+	private ListNode tail;
+	
 	/**
 	 * Holds the number of elements in the list.
 	 */
 	private int size;
 	
+	/**
+	 * Holds the most recently reached node by position, or {@code null}
+	 * when no position is remembered.  Positional operations at or after
+	 * {@code cursorIndex} walk from this node instead of from the head.
+	 */
+	private ListNode cursor;
+	
+	/**
+	 * Holds the position of {@code cursor} in the list.
+	 */
+	private int cursorIndex;
+	
+	/**
+	 * Holds the number of structural modifications made to the list so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+	
 	/**
 	 * Constructs and empty linked list.
 	 */
 	public LinkedList() {
 		head = null;
+		tail = null;
 		size = 0;
+		cursor = null;
+		cursorIndex = 0;
+	}
+	
+	/**
+	 * Returns the node at the given position and remembers it as the
+	 * cursor.  The walk starts at the cursor when it is not past the
+	 * position and at the head otherwise.
+	 * 
+	 * O(n):  In the worst case, but O(1) when the position is just after
+	 * 		the previous one.
+	 * 
+	 * @param idx position of the node, 0 <= idx < size
+	 * @return the node at the position
+	 */
+	private ListNode node(int idx) {
+		ListNode current = head;
+		int n = 0;
+		
+		if (cursor != null && cursorIndex <= idx) {
+			current = cursor;
+			n = cursorIndex;
+		}
+		while (n < idx) {
+			current = current.next;
+			n++;
+		}
+		cursor = current;
+		cursorIndex = idx;
+		return current;
 	}
 	
 	/**
@@ -63,60 +167,81 @@ public class LinkedList<T> implements Sequence<T> {
 	 * @author Provided via Canvas
 	 */
 	public String toString() {
-	    StringBuilder repr = new StringBuilder();
-	    repr.append("[");
-
-	    ListNode tmp = head;
-	    if (tmp != null) {
-	        repr.append(tmp.datum);
-	        do {
-	            tmp = tmp.next;
-	            if (tmp != null) {
-	                repr.append(", ").append(tmp.datum);
-	            }
-	        } while (tmp != null);
-	    }
-
-	    repr.append("]");
-
-	    return repr.toString();
+		StringBuilder repr = new StringBuilder();
+		try {
+			appendTo(repr, Integer.MAX_VALUE);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return repr.toString();
+	}
+	
+	/**
+	 * Writes the elements of the linked list to the given
+	 * {@code Appendable}, as in {@code [1, 2, 3]}.  After {@code limit}
+	 * elements it stops and notes how many were left out, as in
+	 * {@code [1, 2, 3, ... (997 more)]}.  Every element goes straight to
+	 * out, so no intermediate strings are built.
+	 * 
+	 * O(limit):  One node per element written.
+	 * 
+	 * @param out destination of the text
+	 * @param limit greatest number of elements to write
+	 * @throws IOException if out throws one
+	 * @throws IllegalArgumentException if limit is negative
+	 */
+	public void appendTo(Appendable out, int limit) throws IOException {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit is negative");
+		}
+		out.append('[');
+		int count = 0;
+		ListNode tmp = head;
+		while (count < limit && tmp != null) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append(String.valueOf(tmp.datum));
+			tmp = tmp.next;
+			count++;
+		}
+		if (count < size) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append("... (").append(Integer.toString(size - count)).append(" more)");
+		}
+		out.append(']');
 	}
 	
 	/**
      * Adds the specified object to the end of the sequence.
      * 
-     * O(n):  {@code private add()} iterates
-     * 		through the entire linked list.
+     * O(1):  The tail node is linked to directly.
      *
      * @param obj Object to be appended to this sequence
      */
 	@Override
 	public void add(T obj) {
-		head = add(head, obj);
-	}
-
-	/**
-	 * Recursively implements the public add to end operation
-	 * 
-	 * @param head Linked list to be added to
-	 * @param datum Data to be added to the list
-	 * @return Returns the resulting list
-	 */
-	private ListNode add(ListNode current, T datum) {
-		if (current == null) {
-			size++;
-			return new ListNode(datum);
+		ListNode tmp = new ListNode(obj);
+		
+		if (tail == null) {
+			head = tmp;
 		}
 		else {
-			current.next = add(current.next, datum);
-			return current;
+			tail.next = tmp;
 		}
+		tail = tmp;
+		size++;
+		modCount++;
 	}
 	
 	/**
      * Adds the specified object at the given position in the sequence.
      * 
-     * O(n):  Iterates through linked list until index.
+     * O(n):  Iterates through linked list until index, starting from the
+     * 		cursor when the index is at or after it.
      *
      * @param idx index at which the specified object is to be inserted
      * @param obj object to be appended to this sequence
@@ -125,32 +250,30 @@ public class LinkedList<T> implements Sequence<T> {
      */
 	@Override
 	public void add(int idx, T obj) throws IndexOutOfBoundsException {
-		boolean found = false;
-		int n = 0;
-		ListNode tmp = new ListNode(obj);
-		ListNode current = head;
+		ListNode tmp;
+		ListNode current;
 		
 		if (idx < 0 || idx > size()) {
 			throw new IndexOutOfBoundsException();
 		}
+		else if (idx == size) {
+			add(obj);
+		}
 		else if (idx == 0) {
+			tmp = new ListNode(obj);
 			tmp.next = head;
 			head = tmp;
+			cursorIndex++;
 			size++;
+			modCount++;
 		}
 		else {
-			while (!found) {
-				if (n == idx - 1) {
-					tmp.next = current.next;
-					current.next = tmp;
-					found = true;
-					size++;
-				}
-				else {
-					current = current.next;
-					n++;
-				}
-			}
+			current = node(idx - 1);
+			tmp = new ListNode(obj);
+			tmp.next = current.next;
+			current.next = tmp;
+			size++;
+			modCount++;
 		}
 	}
 
@@ -162,49 +285,37 @@ public class LinkedList<T> implements Sequence<T> {
 	@Override
 	public void clear() {
 		head = null;
+		tail = null;
+		cursor = null;
 		size = 0;
+		modCount++;
 	}
 
 	/**
      * Returns the object at the specified position in the sequence.
      * 
-     * O(n):  Iterates through linked list until index.
+     * O(n):  Iterates through linked list until index, starting from the
+     * 		cursor when the index is at or after it.  Reading the elements
+     * 		in ascending order is therefore O(1) per element.
      *
      * @param idx index of the element to return
      * @return the object at the specified position in the sequence
      * @throws IndexOutOfBoundsException if the index is out of range
-     *         (index < 0 || index > size())
+     *         (index < 0 || index >= size())
      */
 	@Override
 	public T get(int idx) throws IndexOutOfBoundsException {
-		boolean found = false;
-		int n = 0;
-		ListNode current = head;
-		
-		if (idx < 0 || idx > size()) {
+		if (idx < 0 || idx >= size()) {
 			throw new IndexOutOfBoundsException();
 		}
-		else {
-			while (!found) {
-				if (n == idx) {
-					found = true;
-					return current.datum;
-				}
-				else {
-					current = current.next;
-					n++;
-				}
-			}
-		}
-		return null; // Due to index checking, this should never be reached.
+		return node(idx).datum;
 	}
 
 	/**
      * Returns {@code true} if the sequence contains the specified object and
      * {@code false} otherwise.
      * 
-     * O(n):  {@code private contains()} iterates
-     * 		through the linked list.
+     * O(n):  Iterates through the linked list until object found.
      *
      * @param obj the object to find in the sequence
      * @return {@code true} if the sequence contains the specified object and
@@ -212,27 +323,15 @@ public class LinkedList<T> implements Sequence<T> {
      */
 	@Override
 	public boolean contains(T obj) {
-		return contains(head, obj);
-	}
-	
-	/**
-	 * Recursively implements the public contains function. 
-	 * 
-	 * @param head The head of the linked list to look in
-	 * @param datum The data to look for
-	 * @return {@code true} if the linked list contains the data
-     *         {@code false} otherwise
-	 */
-	private boolean contains(ListNode current, T datum) {
-		if (current == null) {
-			return false;
-		}
-		else if (current.datum == datum) {
-			return true;
-		}
-		else {
-			return contains(current.next, datum);
+		ListNode current = head;
+		
+		while (current != null) {
+			if (current.datum == obj) {
+				return true;
+			}
+			current = current.next;
 		}
+		return false;
 	}
 
 	/**
@@ -284,41 +383,44 @@ public class LinkedList<T> implements Sequence<T> {
 	/**
      * Removes the object at the specified position in the sequence.
      * 
-     * O(n):  Iterates through list until index.
+     * O(n):  Iterates through list until index, starting from the cursor
+     * 		when the index is after it.
      *
      * @param idx index of the element to remove
      * @return the object previously at the specified position
      * @throws IndexOutOfBoundsException if the index is out of range
-     *         (index < 0 || index > size())
+     *         (index < 0 || index >= size())
      */
 	@Override
 	public T remove(int idx) throws IndexOutOfBoundsException {
-		int n = 0;
-		boolean found = false;
-		ListNode current = head;
-		ListNode retNode = null;
+		ListNode current;
+		ListNode retNode;
 		
-		if (idx < 0 || idx > size()) {
+		if (idx < 0 || idx >= size()) {
 			throw new IndexOutOfBoundsException();
 		}
 		else if (idx == 0) {
-			retNode = current;
-			head = current.next;
+			retNode = head;
+			head = retNode.next;
+			if (head == null) {
+				tail = null;
+			}
+			if (cursor == retNode) {
+				cursor = null;
+			}
+			cursorIndex--;
 			size--;
+			modCount++;
 		}
 		else {
-			while (!found) {
-				if (n == idx - 1) {
-					retNode = current.next;
-					current.next = current.next.next;
-					found = true;
-					size--;
-				}
-				else {
-					current = current.next;
-					n++;
-				}
+			current = node(idx - 1);
+			retNode = current.next;
+			current.next = retNode.next;
+			if (retNode == tail) {
+				tail = current;
 			}
+			size--;
+			modCount++;
 		}
 		return retNode.datum;
 	}
@@ -335,34 +437,36 @@ public class LinkedList<T> implements Sequence<T> {
      */
 	@Override
 	public boolean remove(T obj) {
-		int startSize = size;
-		head = remove(head, obj);
-		if (size != startSize) {
-			return true;
-		}
-		else {
-			return false;
-		}
-	}
-	
-	/**
-	 * Recursively implements the public remove function. 
-	 * 
-	 * @param head The head of the linked list to look in
-	 * @param datum The data to look for
-	 * @return Resulting list after removal.
-	 */
-	private ListNode remove(ListNode current, T datum) {
-		if (current != null) {
-			if (current.datum == datum) {
-				current = current.next;
+		ListNode previous = null;
+		ListNode current = head;
+		int n = 0;
+		
+		while (current != null) {
+			if (current.datum == obj) {
+				if (cursor == current) {
+					cursor = null;
+				}
+				else if (cursorIndex > n) {
+					cursorIndex--;
+				}
+				if (previous == null) {
+					head = current.next;
+				}
+				else {
+					previous.next = current.next;
+				}
+				if (current == tail) {
+					tail = previous;
+				}
 				size--;
+				modCount++;
+				return true;
 			}
-			else {
-				current.next = remove(current.next, datum);
-			}
+			previous = current;
+			current = current.next;
+			n++;
 		}
-		return current;
+		return false;
 	}
 
 	/**
@@ -387,10 +491,6 @@ public class LinkedList<T> implements Sequence<T> {
      */
 	@Override
 	public Object[] toArray() {
-		if (isEmpty()) {
-	        return null;
-	    }
-
 		Object[] data = new Object[size()];
 
 	    ListNode tmp = head;
@@ -402,4 +502,28 @@ public class LinkedList<T> implements Sequence<T> {
 	    return data;		
 	}
 
+	/**
+	 * Returns a fail-fast iterator over the elements of the list in order.
+	 * 
+	 * O(1):  Each step follows a single reference.
+	 * 
+	 * @return an iterator over the elements of the list
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new ListIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the list.  A linked list
+	 * cannot be split in the middle cheaply, so splitting hands out
+	 * batches of elements copied from the front of the list.
+	 * 
+	 * @return a spliterator over the elements of the list
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+	}
+
 }
@@ -1,4 +1,4 @@
-public interface Sequence<T> {
+public interface Sequence<T> extends Iterable<T> {
  
     /**
      * Adds the specified object to the end of the sequence.
@@ -1,3 +1,11 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
 /**
  * This class tests each of the Set and Sequence interface methods.
  * While the tests cover the basic cases, the exception throwing cases
@@ -18,18 +26,29 @@ public class Testing {
 	
 	public static void main(String[] args) {
 
+		// Sequence testing
+		testSequence(LinkedList::new);
+		testSequence(ArraySequence::new);
+		testSequence(UnrolledLinkedList::new);
+		testSequence(() -> new UnrolledLinkedList<Integer>(2));
+		testSequence(TreeSequence::new);
+		
+		// ArraySequence testing
+		testASspliterator();
+		
 		// LinkedList testing
-		testLLadd1();
-		testLLadd2();
-		testLLclear();
-		testLLget();
-		testLLcontains();
-		testLLindexOf();
-		testLLisEmpty();
-		testLLremove1();
-		testLLremove2();
-		testLLsize();
-		testLLtoArray();
+		testLLtail();
+		testLLcursor();
+		testLLappendTo();
+		
+		// UnrolledLinkedList testing
+		testULLchunks();
+		
+		// TreeSequence testing
+		testTSsplitConcat();
+		
+		// IntSequence testing
+		testINTSEQ();
 		
 		// BinarySearchTree testing
 		testBSTadd();
@@ -39,9 +58,34 @@ public class Testing {
 		testBSTremove();
 		testBSTsize();
 		testBSTtoArray();
+		testBSTiterator();
+		testBSTbulk();
+		testBSTappendTo();
 		
 	}
 	
+	private static void testSequence(Supplier<Sequence<Integer>> factory) {
+		
+		testSEQadd1(factory.get());
+		testSEQadd2(factory.get());
+		testSEQclear(factory.get());
+		testSEQget(factory.get());
+		testSEQcontains(factory.get());
+		testSEQindexOf(factory.get());
+		testSEQisEmpty(factory.get());
+		testSEQremove1(factory.get());
+		testSEQremove2(factory.get());
+		testSEQsize(factory.get());
+		testSEQtoArray(factory.get());
+		testSEQiterator(factory.get());
+		testSEQspliterator(factory.get());
+	}
+	
+	private static String name(Object testObject) {
+		
+		return testObject.getClass().getSimpleName();
+	}
+	
 	private static String compare(String result, String expected) {
 		
 		int cmp = expected.compareTo(result);
@@ -65,20 +109,16 @@ public class Testing {
 		
 	}
 	
-	private static void testLLadd1() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQadd1(Sequence<Integer> testList) {
 		
 		for (int i = 0; i < 10; i++) {
 			testList.add(i);
 		}
 		
-		result("LinkedList add(T obj)",compare(testList.toString(),"[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]"));
+		result(name(testList) + " add(T obj)",compare(testList.toString(),"[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]"));
 	}
 	
-	private static void testLLadd2() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQadd2(Sequence<Integer> testList) {
 		
 		try {
 			testList.add(1,0);
@@ -91,12 +131,10 @@ public class Testing {
 		testList.add(2,3);
 		testList.add(2,2);
 		
-		result("LinkedList add(int idx, T obj)",compare(testList.toString(),"[0, 1, 2, 3]"));
+		result(name(testList) + " add(int idx, T obj)",compare(testList.toString(),"[0, 1, 2, 3]"));
 	}
 	
-	private static void testLLclear() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQclear(Sequence<Integer> testList) {
 		
 		for (int i = 0; i < 10; i++) {
 			testList.add(i);
@@ -104,13 +142,11 @@ public class Testing {
 		
 		testList.clear();
 		
-		result("LinkedList clear()",compare(testList.toString(),"[]"));
+		result(name(testList) + " clear()",compare(testList.toString(),"[]"));
 		
 	}
 
-	private static void testLLget() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQget(Sequence<Integer> testList) {
 		
 		String result;
 		
@@ -125,13 +161,12 @@ public class Testing {
 			result = "failed";
 		}
 		
-		result("LinkedList get()",result);
+		result(name(testList) + " get()",result);
 		
 	}
 	
-	private static void testLLcontains() {
+	private static void testSEQcontains(Sequence<Integer> testList) {
 
-		LinkedList<Integer> testList = new LinkedList<Integer>();
 		
 		String result;
 		
@@ -146,12 +181,10 @@ public class Testing {
 			result = "failed";
 		}
 		
-		result("LinkedList contains(T obj)",result);
+		result(name(testList) + " contains(T obj)",result);
 	}
 	
-	private static void testLLindexOf() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQindexOf(Sequence<Integer> testList) {
 		
 		String result;
 		
@@ -166,12 +199,10 @@ public class Testing {
 			result = "failed";
 		}
 		
-		result("LinkedList indexOf(T obj)",result);
+		result(name(testList) + " indexOf(T obj)",result);
 	}
 	
-	private static void testLLisEmpty() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQisEmpty(Sequence<Integer> testList) {
 		
 		String result;
 		boolean firstTest = testList.isEmpty();
@@ -187,12 +218,10 @@ public class Testing {
 			result = "failed";
 		}
 		
-		result("LinkedList isEmpty()",result);
+		result(name(testList) + " isEmpty()",result);
 	}
 	
-	private static void testLLremove1() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQremove1(Sequence<Integer> testList) {
 		
 		for (int i = 0; i < 10; i++) {
 			testList.add(i);
@@ -201,12 +230,11 @@ public class Testing {
 		testList.remove(0);
 		testList.remove(1);
 		
-		result("LinkedList remove(int idx)",compare(testList.toString(),"[1, 3, 4, 5, 6, 7, 8, 9]"));
+		result(name(testList) + " remove(int idx)",compare(testList.toString(),"[1, 3, 4, 5, 6, 7, 8, 9]"));
 	}
 	
-	private static void testLLremove2() {
+	private static void testSEQremove2(Sequence<Integer> testList) {
 
-		LinkedList<Integer> testList = new LinkedList<Integer>();
 		
 		for (int i = 0; i < 10; i++) {
 			testList.add(i);
@@ -215,12 +243,10 @@ public class Testing {
 		testList.remove(Integer.valueOf(0));
 		testList.remove(Integer.valueOf(2));
 		
-		result("LinkedList remove(T obj)",compare(testList.toString(),"[1, 3, 4, 5, 6, 7, 8, 9]"));
+		result(name(testList) + " remove(T obj)",compare(testList.toString(),"[1, 3, 4, 5, 6, 7, 8, 9]"));
 	}
 	
-	private static void testLLsize() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQsize(Sequence<Integer> testList) {
 		
 		String result;
 		boolean firstTest;
@@ -243,12 +269,10 @@ public class Testing {
 			result = "failed";
 		}
 		
-		result("LinkedList size()",result);
+		result(name(testList) + " size()",result);
 	}
 	
-	private static void testLLtoArray() {
-		
-		LinkedList<Integer> testList = new LinkedList<Integer>();
+	private static void testSEQtoArray(Sequence<Integer> testList) {
 		
 		String result = "passed";
 		
@@ -266,7 +290,314 @@ public class Testing {
 			}
 		}
 		
-		result("LinkedList toArray()",result);		
+		result(name(testList) + " toArray()",result);		
+	}
+
+	private static void testSEQiterator(Sequence<Integer> testList) {
+		
+		String result = "passed";
+		int expected = 0;
+		
+		for (int i = 0; i < 100; i++) {
+			testList.add(i);
+		}
+		
+		for (int value : testList) {
+			if (value != expected++) {
+				result = "failed";
+			}
+		}
+		
+		try {
+			for (int value : testList) {
+				if (value == 50) {
+					testList.add(value);
+				}
+			}
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+			// planned, the list was modified during iteration
+		}
+		
+		if (expected != 100 || testList.size() != 101) {
+			result = "failed";
+		}
+		
+		result(name(testList) + " iterator()",result);
+	}
+	
+	private static void testSEQspliterator(Sequence<Integer> testList) {
+		
+		String result;
+		
+		for (int i = 0; i < 10000; i++) {
+			testList.add(i);
+		}
+		
+		long sum = StreamSupport.stream(testList.spliterator(), true).mapToLong(Integer::longValue).sum();
+		Object[] ordered = StreamSupport.stream(testList.spliterator(), true).toArray();
+		
+		if (sum == 49995000L && Arrays.equals(ordered, testList.toArray())
+				&& testList.spliterator().hasCharacteristics(Spliterator.ORDERED)) {
+			result = "passed";
+		}
+		else {
+			result = "failed";
+		}
+		
+		result(name(testList) + " spliterator()",result);
+	}
+	
+	private static void testASspliterator() {
+		
+		ArraySequence<Integer> testList = new ArraySequence<Integer>(2);
+		
+		String result = "passed";
+		
+		// the spliterator binds to the sequence when first used, so elements
+		// added after it is created, even ones that grow the array, are seen
+		Spliterator<Integer> late = testList.spliterator();
+		for (int i = 0; i < 100; i++) {
+			testList.add(i);
+		}
+		long[] sum = new long[1];
+		late.forEachRemaining(obj -> sum[0] += obj);
+		if (sum[0] != 4950L) {
+			result = "failed";
+		}
+		
+		Spliterator<Integer> stale = testList.spliterator();
+		if (stale.estimateSize() != 100) {
+			result = "failed";
+		}
+		testList.add(100);
+		try {
+			stale.forEachRemaining(obj -> { });
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+			// expected
+		}
+		
+		try {
+			testList.spliterator().tryAdvance(obj -> testList.remove(0));
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+			// expected
+		}
+		
+		result("ArraySequence spliterator() late binding",result);
+	}
+	
+	private static void testLLtail() {
+		
+		LinkedList<Integer> testList = new LinkedList<Integer>();
+		
+		String result;
+		
+		for (int i = 0; i < 100000; i++) {
+			testList.add(i);
+		}
+		testList.clear();
+		
+		for (int i = 0; i < 5; i++) {
+			testList.add(i);
+		}
+		
+		testList.remove(4);
+		testList.add(5);
+		testList.remove(Integer.valueOf(5));
+		testList.add(testList.size(), 6);
+		testList.remove(Integer.valueOf(0));
+		testList.add(7);
+		
+		if (testList.toString().equals("[1, 2, 3, 6, 7]") && testList.size() == 5) {
+			result = "passed";
+		}
+		else {
+			result = "failed";
+		}
+		
+		result("LinkedList tail",result);
+	}
+
+	private static void testLLappendTo() {
+		
+		LinkedList<Integer> testList = new LinkedList<Integer>();
+		
+		String result = "passed";
+		
+		for (int i = 1; i <= 1000; i++) {
+			testList.add(i);
+		}
+		
+		try {
+			StringBuilder limited = new StringBuilder();
+			testList.appendTo(limited, 3);
+			StringBuilder none = new StringBuilder();
+			testList.appendTo(none, 0);
+			StringBuilder all = new StringBuilder();
+			testList.appendTo(all, 1000);
+			if (!limited.toString().equals("[1, 2, 3, ... (997 more)]") || !none.toString().equals("[... (1000 more)]")
+					|| !all.toString().equals(testList.toString()) || all.toString().contains("more")) {
+				result = "failed";
+			}
+			testList.clear();
+			StringBuilder empty = new StringBuilder();
+			testList.appendTo(empty, 3);
+			if (!empty.toString().equals("[]")) {
+				result = "failed";
+			}
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		result("LinkedList appendTo(Appendable out, int limit)",result);
+	}
+
+	private static void testLLcursor() {
+		
+		LinkedList<Integer> testList = new LinkedList<Integer>();
+		ArraySequence<Integer> expected = new ArraySequence<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		int idx = 0;
+		
+		for (int i = 0; i < 20000 && result == "passed"; i++) {
+			Integer obj = i;
+			idx = Math.max(0, Math.min(expected.size(), idx + random.nextInt(7) - 3));
+			switch (random.nextInt(5)) {
+			case 0:
+				testList.add(idx, obj);
+				expected.add(idx, obj);
+				break;
+			case 1:
+				if (idx < expected.size()) {
+					testList.remove(idx);
+					expected.remove(idx);
+				}
+				break;
+			case 2:
+				if (!expected.isEmpty()) {
+					obj = expected.get(random.nextInt(expected.size()));
+					testList.remove(obj);
+					expected.remove(obj);
+				}
+				break;
+			default:
+				if (idx < expected.size() && !testList.get(idx).equals(expected.get(idx))) {
+					result = "failed";
+				}
+			}
+		}
+		
+		if (!testList.toString().equals(expected.toString())) {
+			result = "failed";
+		}
+		
+		result("LinkedList cursor",result);
+	}
+
+	private static void testULLchunks() {
+		
+		UnrolledLinkedList<Integer> testList = new UnrolledLinkedList<Integer>(4);
+		ArraySequence<Integer> expected = new ArraySequence<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 20000; i++) {
+			int op = random.nextInt(3);
+			if (op < 2 || expected.isEmpty()) {
+				int idx = random.nextInt(expected.size() + 1);
+				testList.add(idx, i);
+				expected.add(idx, i);
+			}
+			else {
+				int idx = random.nextInt(expected.size());
+				if (!testList.remove(idx).equals(expected.remove(idx))) {
+					result = "failed";
+					break;
+				}
+			}
+		}
+		
+		if (!testList.toString().equals(expected.toString()) || testList.size() != expected.size()) {
+			result = "failed";
+		}
+		
+		for (int i = 0; i < expected.size() && result == "passed"; i++) {
+			if (!testList.get(i).equals(expected.get(i))) {
+				result = "failed";
+			}
+		}
+		
+		result("UnrolledLinkedList split and merge",result);
+	}
+
+	private static void testTSsplitConcat() {
+		
+		TreeSequence<Integer> testList = new TreeSequence<Integer>();
+		ArraySequence<Integer> expected = new ArraySequence<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 1000; i++) {
+			testList.add(i);
+			expected.add(i);
+		}
+		
+		for (int i = 0; i < 200; i++) {
+			int idx = random.nextInt(testList.size() + 1);
+			TreeSequence<Integer> tail = testList.split(idx);
+			if (testList.size() != idx || tail.size() != expected.size() - idx) {
+				result = "failed";
+				break;
+			}
+			tail.add(0, -i);
+			expected.add(idx, -i);
+			testList.concat(tail);
+			if (!tail.isEmpty()) {
+				result = "failed";
+				break;
+			}
+		}
+		
+		if (!testList.toString().equals(expected.toString())) {
+			result = "failed";
+		}
+		
+		result("TreeSequence split(int idx) and concat()",result);
+	}
+
+	private static void testINTSEQ() {
+		
+		IntSequence testList = new IntSequence(1);
+		
+		String result;
+		
+		for (int i = 0; i < 10; i++) {
+			testList.add(i);
+		}
+		testList.add(0, -1);
+		testList.remove(5);
+		testList.removeValue(9);
+		
+		if (testList.toString().equals("[-1, 0, 1, 2, 3, 5, 6, 7, 8]") && testList.get(5) == 5
+				&& testList.contains(8) && !testList.contains(4) && testList.indexOf(0) == 1
+				&& testList.size() == 9 && testList.toArray().length == 9) {
+			result = "passed";
+		}
+		else {
+			result = "failed";
+		}
+		
+		result("IntSequence",result);
 	}
 
 	private static void testBSTadd() {
@@ -424,4 +755,103 @@ public class Testing {
 		
 		result("BinarySearchTree toArray()",result);	
 	}
+	
+	private static void testBSTbulk() {
+		
+		String result = "passed";
+		
+		// sorted input that add() would turn into a single branch
+		Integer[] sorted = new Integer[100000];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = 2 * i;
+		}
+		BinarySearchTree<Integer> testSet = BinarySearchTree.fromSorted(sorted);
+		
+		if (testSet.size() != sorted.length || !Arrays.equals(testSet.toArray(), sorted)
+				|| !testSet.contains(0) || !testSet.contains(199998) || testSet.contains(7)) {
+			result = "failed";
+		}
+		
+		try {
+			BinarySearchTree.fromSorted(new Integer[] {1, 3, 2});
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		Integer[] batch = {5, 1, 200000, 3, 1, 4, 0};
+		testSet.addAll(batch);
+		
+		Object[] merged = testSet.toArray();
+		
+		if (testSet.size() != sorted.length + 4 || !testSet.contains(200000)
+				|| !Arrays.equals(Arrays.copyOf(merged, 8), new Object[] {0, 1, 2, 3, 4, 5, 6, 8})) {
+			result = "failed";
+		}
+		
+		result("BinarySearchTree fromSorted(T[] sorted) and addAll(T[] objs)",result);
+	}
+	
+	private static void testBSTappendTo() {
+		
+		BinarySearchTree<Integer> testSet = new BinarySearchTree<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 1000; i++) {
+			testSet.add(random.nextInt(100000));
+		}
+		Object[] data = testSet.toArray();
+		
+		try {
+			StringBuilder limited = new StringBuilder();
+			testSet.appendTo(limited, 2);
+			String expected = "{" + data[0] + ", " + data[1] + ", ... (" + (data.length - 2) + " more)}";
+			if (!limited.toString().equals(expected)
+					|| !testSet.toString().equals(Arrays.toString(data).replace('[', '{').replace(']', '}'))) {
+				result = "failed";
+			}
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		try {
+			testSet.appendTo(new StringBuilder(), -1);
+			result = "failed";
+		}
+		catch (IllegalArgumentException | IOException e) {
+		}
+		
+		result("BinarySearchTree appendTo(Appendable out, int limit)",result);
+	}
+	
+	private static void testBSTiterator() {
+		
+		BinarySearchTree<Integer> testSet = new BinarySearchTree<Integer>();
+		
+		String result = "passed";
+		int expected = 0;
+		
+		for (int i = 0; i < 10; i++) {
+			testSet.add((i * 7) % 10);
+		}
+		
+		for (int value : testSet) {
+			if (value != expected++) {
+				result = "failed";
+			}
+		}
+		
+		Object[] ordered = StreamSupport.stream(testSet.spliterator(), true).toArray();
+		
+		if (expected != 10 || !Arrays.equals(ordered, testSet.toArray())
+				|| new BinarySearchTree<Integer>().toArray().length != 0) {
+			result = "failed";
+		}
+		
+		result("BinarySearchTree iterator()",result);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,795 @@
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the provided Sequence interface with an AVL tree
+ * whose nodes are ordered by position rather than by value.  Every node
+ * keeps the size of its subtree, so the position of a node is the size of
+ * everything to its left and positional operations only follow a single
+ * root to leaf path.
+ *
+ * Besides the Sequence operations the tree can be split at a position and
+ * two sequences can be concatenated, both without copying elements.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class TreeSequence<T> implements Sequence<T> {
+
+	/**
+	 * This class defines a node of the tree.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeNode {
+		T datum;
+		int height;
+		int size;
+		TreeNode left;
+		TreeNode right;
+
+		/**
+		 * Constructs a new TreeNode
+		 *
+		 * @param datum
+		 */
+		TreeNode(T datum) {
+			this.datum = datum;
+			this.height = 0;
+			this.size = 1;
+			this.left = null;
+			this.right = null;
+		}
+	}
+
+	/**
+	 * This class holds the two trees that result from splitting a tree.
+	 *
+	 * @author Megan Bird
+	 */
+	class Split {
+		TreeNode left;
+		TreeNode right;
+
+		/**
+		 * Constructs the result of a split.
+		 *
+		 * @param left tree of the elements before the split position
+		 * @param right tree of the elements from the split position on
+		 */
+		Split(TreeNode left, TreeNode right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * This class defines a fail-fast in order iterator over a subtree.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeIterator implements Iterator<T> {
+		private ArrayDeque<TreeNode> stack = new ArrayDeque<TreeNode>();
+		private int expectedModCount = modCount;
+
+		/**
+		 * Creates an iterator over the subtree with the given root.
+		 *
+		 * @param root root of the subtree
+		 */
+		TreeIterator(TreeNode root) {
+			pushLeft(root);
+		}
+
+		/**
+		 * Pushes the left most path of the subtree onto the stack.
+		 *
+		 * @param tmp subtree to use
+		 */
+		private void pushLeft(TreeNode tmp) {
+			while (tmp != null) {
+				stack.push(tmp);
+				tmp = tmp.left;
+			}
+		}
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		/**
+		 * Returns the next element of the sequence.
+		 *
+		 * @return the next element of the sequence
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the sequence was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (stack.isEmpty()) {
+				throw new NoSuchElementException();
+			}
+			TreeNode tmp = stack.pop();
+			pushLeft(tmp.right);
+			return tmp.datum;
+		}
+	}
+
+	/**
+	 * This class defines a spliterator over a subtree followed by an optional
+	 * single node.  Splitting hands the left subtree and the root to a new
+	 * spliterator and keeps the right subtree, so the work divides along
+	 * subtree boundaries.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeSpliterator implements Spliterator<T> {
+		private TreeNode subtree;
+		private TreeNode after;
+		private TreeIterator nodes;
+		private int remaining;
+		private int expectedModCount;
+
+		/**
+		 * Creates a spliterator over a subtree followed by a single node.
+		 *
+		 * @param subtree subtree to visit first
+		 * @param after node to visit last, or {@code null}
+		 * @param expectedModCount modification count the tree must keep
+		 */
+		TreeSpliterator(TreeNode subtree, TreeNode after, int expectedModCount) {
+			this.subtree = subtree;
+			this.after = after;
+			this.remaining = size(subtree) + (after != null ? 1 : 0);
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (nodes != null || subtree == null) {
+				return null;
+			}
+			TreeNode split = subtree;
+			subtree = split.right;
+			remaining -= size(split.left) + 1;
+			return new TreeSpliterator(split.left, split, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nodes == null) {
+				nodes = new TreeIterator(subtree);
+			}
+			if (nodes.hasNext()) {
+				remaining--;
+				action.accept(nodes.next());
+				return true;
+			}
+			else if (after != null) {
+				T datum = after.datum;
+				after = null;
+				remaining--;
+				action.accept(datum);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	/**
+	 * Holds the node designated as the root of the tree;
+	 */
+	private TreeNode root;
+
+	/**
+	 * Holds the number of structural modifications made to the sequence so
+	 * that iterators can detect concurrent modification.
+	 */
+	private int modCount;
+
+	/**
+	 * Constructs an empty sequence.
+	 */
+	public TreeSequence() {
+		root = null;
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for a null node.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+
+	/**
+	 * Returns the number of nodes in a subtree, or 0 for a null node.
+	 *
+	 * @param node root of the subtree
+	 * @return size of the subtree
+	 */
+	private int size(TreeNode node) {
+		if (node == null) {
+			return 0;
+		}
+		else {
+			return node.size;
+		}
+	}
+
+	/**
+	 * Updates the height and size of the given node from its children.
+	 * The children must already be up to date.
+	 *
+	 * @param current Node to update
+	 * @return the updated node
+	 */
+	private TreeNode update(TreeNode current) {
+		current.height = 1 + Math.max(height(current.left), height(current.right));
+		current.size = 1 + size(current.left) + size(current.right);
+		return current;
+	}
+
+	/**
+	 * Balances the tree from the perspective of the given node, whose
+	 * children must differ in height by at most two.
+	 *
+	 * @param current node to balance at
+	 * @return balanced tree
+	 */
+	private TreeNode balance(TreeNode current) {
+		if (height(current.left) - height(current.right) > 1) {
+			if (height(current.left.left) < height(current.left.right)) {
+				current.left = leftRotation(current.left);
+			}
+			current = rightRotation(current);
+		}
+		else if (height(current.right) - height(current.left) > 1) {
+			if (height(current.right.right) < height(current.right.left)) {
+				current.right = rightRotation(current.right);
+			}
+			current = leftRotation(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Performs a right rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode rightRotation(TreeNode current) {
+		TreeNode rt = current.left;
+		current.left = rt.right;
+		rt.right = update(current);
+		return update(rt);
+	}
+
+	/**
+	 * Performs a left rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode leftRotation(TreeNode current) {
+		TreeNode rt = current.right;
+		current.right = rt.left;
+		rt.left = update(current);
+		return update(rt);
+	}
+
+	/**
+	 * Joins two trees around a middle node.  Every element of {@code left}
+	 * comes before {@code middle} and every element of {@code right} comes
+	 * after it.
+	 *
+	 * O(log n):  Descends the taller tree until the heights match.
+	 *
+	 * @param left tree of the elements before the middle node
+	 * @param middle node to place between the trees
+	 * @param right tree of the elements after the middle node
+	 * @return the joined tree
+	 */
+	private TreeNode join(TreeNode left, TreeNode middle, TreeNode right) {
+		if (height(left) > height(right) + 1) {
+			left.right = join(left.right, middle, right);
+			return balance(update(left));
+		}
+		else if (height(right) > height(left) + 1) {
+			right.left = join(left, middle, right.left);
+			return balance(update(right));
+		}
+		else {
+			middle.left = left;
+			middle.right = right;
+			return update(middle);
+		}
+	}
+
+	/**
+	 * Joins two trees without a middle node by borrowing the first node of
+	 * the right tree.
+	 *
+	 * O(log n):  One removal and one join.
+	 *
+	 * @param left tree of the earlier elements
+	 * @param right tree of the later elements
+	 * @return the joined tree
+	 */
+	private TreeNode join(TreeNode left, TreeNode right) {
+		if (right == null) {
+			return left;
+		}
+		else if (left == null) {
+			return right;
+		}
+		TreeNode first = right;
+		while (first.left != null) {
+			first = first.left;
+		}
+		right = remove(right, 0);
+		return join(left, first, right);
+	}
+
+	/**
+	 * Splits a tree so that the first {@code idx} elements end up in the
+	 * left tree and the rest in the right tree.
+	 *
+	 * O(log n):  Joins at most one subtree per level of the tree.
+	 *
+	 * @param current tree to split
+	 * @param idx number of elements that go to the left tree
+	 * @return the two trees
+	 */
+	private Split split(TreeNode current, int idx) {
+		if (current == null) {
+			return new Split(null, null);
+		}
+		TreeNode left = current.left;
+		TreeNode right = current.right;
+		int leftSize = size(left);
+
+		if (idx <= leftSize) {
+			Split parts = split(left, idx);
+			parts.right = join(parts.right, current, right);
+			return parts;
+		}
+		else {
+			Split parts = split(right, idx - leftSize - 1);
+			parts.left = join(left, current, parts.left);
+			return parts;
+		}
+	}
+
+	/**
+	 * Returns the node at the given position.
+	 *
+	 * @param idx position of the node, 0 <= idx < size()
+	 * @return the node at the position
+	 */
+	private TreeNode node(int idx) {
+		TreeNode current = root;
+		while (true) {
+			int leftSize = size(current.left);
+			if (idx < leftSize) {
+				current = current.left;
+			}
+			else if (idx > leftSize) {
+				idx -= leftSize + 1;
+				current = current.right;
+			}
+			else {
+				return current;
+			}
+		}
+	}
+
+	/**
+	 * Return a {@code String} representation of the sequence.
+	 *
+	 * O(n):  Iterates through entire tree.
+	 *
+	 * @return a {@code String} representation of the sequence.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("[");
+		toString(root, repr);
+		repr.append("]");
+		return repr.toString();
+	}
+
+	/**
+	 * Appends the contents of a subtree to the representation.
+	 *
+	 * @param current subtree to append
+	 * @param repr representation being built
+	 */
+	private void toString(TreeNode current, StringBuilder repr) {
+		if (current != null) {
+			toString(current.left, repr);
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(current.datum);
+			toString(current.right, repr);
+		}
+	}
+
+	/**
+     * Adds the specified object to the end of the sequence.
+     *
+     * O(log n):  Follows the rightmost path of the tree.
+     *
+     * @param obj Object to be appended to this sequence
+     */
+	@Override
+	public void add(T obj) {
+		root = add(root, size(root), obj);
+		modCount++;
+	}
+
+	/**
+     * Adds the specified object at the given position in the sequence.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param idx index at which the specified object is to be inserted
+     * @param obj object to be appended to this sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index > size())
+     */
+	@Override
+	public void add(int idx, T obj) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx > size(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+		root = add(root, idx, obj);
+		modCount++;
+	}
+
+	/**
+	 * Recursively implements the public add operations.
+	 *
+	 * @param current tree to be added to
+	 * @param idx position within the tree to insert at
+	 * @param obj object to add to tree
+	 * @return tree resulting from the add
+	 */
+	private TreeNode add(TreeNode current, int idx, T obj) {
+		if (current == null) {
+			return new TreeNode(obj);
+		}
+		int leftSize = size(current.left);
+		if (idx <= leftSize) {
+			current.left = add(current.left, idx, obj);
+		}
+		else {
+			current.right = add(current.right, idx - leftSize - 1, obj);
+		}
+		return balance(update(current));
+	}
+
+	/**
+     * Removes all of the elements from the sequence.
+     *
+     * O(1):  Complexity not dependent on tree size.
+     */
+	@Override
+	public void clear() {
+		root = null;
+		modCount++;
+	}
+
+	/**
+     * Returns the object at the specified position in the sequence.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param idx index of the element to return
+     * @return the object at the specified position in the sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	public T get(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+		return node(idx).datum;
+	}
+
+	/**
+     * Returns {@code true} if the sequence contains the specified object and
+     * {@code false} otherwise.
+     *
+     * O(n):  {@code indexOf()} visits the tree in order.
+     *
+     * @param obj the object to find in the sequence
+     * @return {@code true} if the sequence contains the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean contains(T obj) {
+		return indexOf(obj) != -1;
+	}
+
+	/**
+     * Returns the index of the first occurrence of the specified object in
+     * this sequence, or -1 if object is not present.
+     *
+     * O(n):  Visits the tree in order until object found.
+     *
+     * @param obj the object to find in the sequence
+     * @return the index of the first occurrence of the specified object in
+     *         this sequence, or -1 if object is not present
+     */
+	@Override
+	public int indexOf(T obj) {
+		return indexOf(root, obj, 0);
+	}
+
+	/**
+	 * Recursively implements the public indexOf function.
+	 *
+	 * @param current subtree to look in
+	 * @param obj the object to look for
+	 * @param offset position of the first element of the subtree
+	 * @return the position of the object, or -1 if not present
+	 */
+	private int indexOf(TreeNode current, T obj, int offset) {
+		if (current == null) {
+			return -1;
+		}
+		int idx = indexOf(current.left, obj, offset);
+		if (idx != -1) {
+			return idx;
+		}
+		offset += size(current.left);
+		if (current.datum == obj) {
+			return offset;
+		}
+		return indexOf(current.right, obj, offset + 1);
+	}
+
+	/**
+     * Returns {@code true} if the sequence is empty and {@code false}
+     * otherwise.
+     *
+     * O(1):  Complexity not dependent on tree size.
+     *
+     * @return {@code true} if the sequence is empty and {@code false}
+     *         otherwise
+     */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+     * Removes the object at the specified position in the sequence.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param idx index of the element to remove
+     * @return the object previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	public T remove(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+		T removed = node(idx).datum;
+		root = remove(root, idx);
+		modCount++;
+		return removed;
+	}
+
+	/**
+	 * Recursively implements the public remove operations.  A node with
+	 * two children is replaced by the first node of its right subtree.
+	 *
+	 * @param current tree to remove from
+	 * @param idx position within the tree of the node to remove
+	 * @return tree resulting from the removal
+	 */
+	private TreeNode remove(TreeNode current, int idx) {
+		int leftSize = size(current.left);
+		if (idx < leftSize) {
+			current.left = remove(current.left, idx);
+		}
+		else if (idx > leftSize) {
+			current.right = remove(current.right, idx - leftSize - 1);
+		}
+		else if (current.left == null) {
+			return current.right;
+		}
+		else if (current.right == null) {
+			return current.left;
+		}
+		else {
+			TreeNode next = current.right;
+			while (next.left != null) {
+				next = next.left;
+			}
+			next.right = remove(current.right, 0);
+			next.left = current.left;
+			current = next;
+		}
+		return balance(update(current));
+	}
+
+	/**
+     * Remove the first occurrence of the specified object from the sequence,
+     * if it is present.
+     *
+     * O(n):  {@code indexOf()} visits the tree in order.
+     *
+     * @param obj the object to remove
+     * @return {@code true} if the sequence contained the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean remove(T obj) {
+		int idx = indexOf(obj);
+		if (idx == -1) {
+			return false;
+		}
+		root = remove(root, idx);
+		modCount++;
+		return true;
+	}
+
+	/**
+     * Returns the number of elements in the sequence.
+     *
+     * O(1):  Kept in the root node.
+     *
+     * @return the number of elements in the sequence
+     */
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	/**
+     * Returns an array containing all of the elements in the sequence in the
+     * proper order (from first to last).
+     *
+     * O(n):  Visits the entire tree.
+     *
+     * @return an array containing the elements of the sequence
+     */
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size(root)];
+		toArray(root, data, 0);
+		return data;
+	}
+
+	/**
+	 * Copies a subtree into the array in order.
+	 *
+	 * @param current subtree to copy
+	 * @param data array to fill
+	 * @param idx position of the first element of the subtree
+	 * @return position after the last element of the subtree
+	 */
+	private int toArray(TreeNode current, Object[] data, int idx) {
+		if (current == null) {
+			return idx;
+		}
+		idx = toArray(current.left, data, idx);
+		data[idx++] = current.datum;
+		return toArray(current.right, data, idx);
+	}
+
+	/**
+	 * Removes the elements from the given position on and returns them as a
+	 * new sequence.  This sequence keeps the first {@code idx} elements.
+	 *
+	 * O(log n):  No elements are copied.
+	 *
+	 * @param idx position of the first element to move to the new sequence
+	 * @return a sequence of the elements from the position on
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         (index < 0 || index > size())
+	 */
+	public TreeSequence<T> split(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx > size(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+		Split parts = split(root, idx);
+		TreeSequence<T> tail = new TreeSequence<T>();
+		root = parts.left;
+		tail.root = parts.right;
+		modCount++;
+		return tail;
+	}
+
+	/**
+	 * Appends the elements of the other sequence to the end of this
+	 * sequence.  The other sequence is left empty.
+	 *
+	 * O(log n):  No elements are copied.
+	 *
+	 * @param other sequence whose elements are appended
+	 * @throws IllegalArgumentException if other is this sequence
+	 */
+	public void concat(TreeSequence<T> other) {
+		if (other == this) {
+			throw new IllegalArgumentException("cannot concatenate a sequence with itself");
+		}
+		root = join(root, other.root);
+		other.root = null;
+		modCount++;
+		other.modCount++;
+	}
+
+	/**
+	 * Returns a fail-fast iterator over the elements of the sequence in
+	 * order.
+	 *
+	 * O(1):  Amortized per step, the path to the next node is kept on a
+	 * 		stack.
+	 *
+	 * @return an iterator over the elements of the sequence
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new TreeIterator(root);
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the sequence that splits
+	 * at subtree boundaries.
+	 *
+	 * @return a spliterator over the elements of the sequence
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(root, null, modCount);
+	}
+
+}
@@ -0,0 +1,545 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * This class implements the provided Sequence interface with an unrolled
+ * linked list.  Each node of the list holds a small array (chunk) of
+ * elements rather than a single element, which keeps insertion and removal
+ * cheap while cutting the number of nodes that have to be followed.
+ *
+ * A chunk that overflows is split into two half full chunks and a chunk
+ * that drops below half full borrows from, or is merged with, the chunk
+ * after it.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class UnrolledLinkedList<T> implements Sequence<T> {
+
+	/**
+	 * Holds the chunk capacity used by the default constructor.
+	 */
+	private static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+	/**
+	 * This class defines a chunk of the unrolled linked list.
+	 *
+	 * @author Megan Bird
+	 */
+	class Chunk {
+		Object[] items;
+		int count;
+		Chunk prev;
+		Chunk next;
+
+		/**
+		 * Constructs an empty chunk.
+		 */
+		Chunk() {
+			this.items = new Object[chunkCapacity];
+			this.count = 0;
+			this.prev = null;
+			this.next = null;
+		}
+	}
+
+	/**
+	 * This class defines a fail-fast iterator over the list.
+	 *
+	 * @author Megan Bird
+	 */
+	class ChunkIterator implements Iterator<T> {
+		private Chunk chunk = head;
+		private int offset = 0;
+		private int expectedModCount = modCount;
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return chunk != null;
+		}
+
+		/**
+		 * Returns the next element of the list.
+		 *
+		 * @return the next element of the list
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the list was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (chunk == null) {
+				throw new NoSuchElementException();
+			}
+			T datum = (T) chunk.items[offset++];
+			if (offset == chunk.count) {
+				chunk = chunk.next;
+				offset = 0;
+			}
+			return datum;
+		}
+	}
+
+	/**
+	 * Holds the number of elements a single chunk can hold.
+	 */
+	private final int chunkCapacity;
+
+	/**
+	 * Holds the first chunk of the list.
+	 */
+	private Chunk head;
+
+	/**
+	 * Holds the last chunk of the list.
+	 */
+	private Chunk tail;
+
+	/**
+	 * Holds the number of elements in the list.
+	 */
+	private int size;
+
+	/**
+	 * Holds the number of structural modifications made to the list so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+
+	/**
+	 * Holds the chunk found by the most recent call to {@code locate()}.
+	 */
+	private Chunk found;
+
+	/**
+	 * Holds the offset within {@code found} of the most recently located
+	 * element.
+	 */
+	private int foundOffset;
+
+	/**
+	 * Constructs an empty list using the default chunk capacity.
+	 */
+	public UnrolledLinkedList() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty list whose chunks hold the given number of
+	 * elements.
+	 *
+	 * @param chunkCapacity number of elements per chunk
+	 * @throws IllegalArgumentException if the capacity is less than 2
+	 */
+	public UnrolledLinkedList(int chunkCapacity) {
+		if (chunkCapacity < 2) {
+			throw new IllegalArgumentException("chunk capacity must be at least 2");
+		}
+		this.chunkCapacity = chunkCapacity;
+		head = null;
+		tail = null;
+		size = 0;
+	}
+
+	/**
+	 * Finds the chunk holding the element at the given index and stores it
+	 * in {@code found} along with the element offset in {@code foundOffset}.
+	 * The walk starts from whichever end of the list is closer.
+	 *
+	 * @param idx index of the element, 0 <= idx < size
+	 */
+	private void locate(int idx) {
+		if (idx < size / 2) {
+			Chunk current = head;
+			while (idx >= current.count) {
+				idx -= current.count;
+				current = current.next;
+			}
+			found = current;
+			foundOffset = idx;
+		}
+		else {
+			Chunk current = tail;
+			int start = size - current.count;
+			while (idx < start) {
+				current = current.prev;
+				start -= current.count;
+			}
+			found = current;
+			foundOffset = idx - start;
+		}
+	}
+
+	/**
+	 * Links a new chunk into the list after the given chunk.
+	 *
+	 * @param chunk chunk to link after, or {@code null} for an empty list
+	 * @return the new chunk
+	 */
+	private Chunk insertChunkAfter(Chunk chunk) {
+		Chunk tmp = new Chunk();
+		if (chunk == null) {
+			head = tmp;
+			tail = tmp;
+		}
+		else {
+			tmp.prev = chunk;
+			tmp.next = chunk.next;
+			if (chunk.next == null) {
+				tail = tmp;
+			}
+			else {
+				chunk.next.prev = tmp;
+			}
+			chunk.next = tmp;
+		}
+		return tmp;
+	}
+
+	/**
+	 * Unlinks the given chunk from the list.
+	 *
+	 * @param chunk chunk to remove
+	 */
+	private void removeChunk(Chunk chunk) {
+		if (chunk.prev == null) {
+			head = chunk.next;
+		}
+		else {
+			chunk.prev.next = chunk.next;
+		}
+		if (chunk.next == null) {
+			tail = chunk.prev;
+		}
+		else {
+			chunk.next.prev = chunk.prev;
+		}
+	}
+
+	/**
+	 * Removes the element at the given offset of a chunk and repairs the
+	 * chunk if it has become less than half full.
+	 *
+	 * @param chunk chunk holding the element
+	 * @param offset offset of the element within the chunk
+	 * @return the removed element
+	 */
+	@SuppressWarnings("unchecked")
+	private T removeAt(Chunk chunk, int offset) {
+		T removed = (T) chunk.items[offset];
+		System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+		chunk.items[--chunk.count] = null;
+		size--;
+		modCount++;
+
+		if (chunk.count < chunkCapacity / 2) {
+			Chunk next = chunk.next;
+			if (next != null && chunk.count + next.count <= chunkCapacity) { // merge
+				System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+				chunk.count += next.count;
+				removeChunk(next);
+			}
+			else if (next != null) { // borrow from the next chunk
+				int moved = (next.count - chunk.count) / 2;
+				System.arraycopy(next.items, 0, chunk.items, chunk.count, moved);
+				System.arraycopy(next.items, moved, next.items, 0, next.count - moved);
+				for (int i = next.count - moved; i < next.count; i++) {
+					next.items[i] = null;
+				}
+				chunk.count += moved;
+				next.count -= moved;
+			}
+			else if (chunk.count == 0) {
+				removeChunk(chunk);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Return a {@code String} representation of the list.
+	 *
+	 * O(n):  Iterates through entire list.
+	 *
+	 * @return a {@code String} representation of the list.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("[");
+
+		for (Chunk current = head; current != null; current = current.next) {
+			for (int i = 0; i < current.count; i++) {
+				if (current != head || i > 0) {
+					repr.append(", ");
+				}
+				repr.append(current.items[i]);
+			}
+		}
+
+		repr.append("]");
+
+		return repr.toString();
+	}
+
+	/**
+     * Adds the specified object to the end of the sequence.
+     *
+     * O(1):  The tail chunk is appended to directly.
+     *
+     * @param obj Object to be appended to this sequence
+     */
+	@Override
+	public void add(T obj) {
+		if (tail == null || tail.count == chunkCapacity) {
+			insertChunkAfter(tail);
+		}
+		tail.items[tail.count++] = obj;
+		size++;
+		modCount++;
+	}
+
+	/**
+     * Adds the specified object at the given position in the sequence.
+     *
+     * O(n):  Walks n / c chunks to the index and shifts at most c elements,
+     * 		where c is the chunk capacity.
+     *
+     * @param idx index at which the specified object is to be inserted
+     * @param obj object to be appended to this sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index > size())
+     */
+	@Override
+	public void add(int idx, T obj) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		else if (idx == size) {
+			add(obj);
+			return;
+		}
+
+		locate(idx);
+		Chunk chunk = found;
+		int offset = foundOffset;
+
+		if (chunk.count == chunkCapacity) { // split the full chunk in half
+			Chunk tmp = insertChunkAfter(chunk);
+			int half = chunkCapacity / 2;
+			tmp.count = chunk.count - half;
+			System.arraycopy(chunk.items, half, tmp.items, 0, tmp.count);
+			for (int i = half; i < chunk.count; i++) {
+				chunk.items[i] = null;
+			}
+			chunk.count = half;
+			if (offset > half) {
+				chunk = tmp;
+				offset -= half;
+			}
+		}
+
+		System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+		chunk.items[offset] = obj;
+		chunk.count++;
+		size++;
+		modCount++;
+	}
+
+	/**
+     * Removes all of the elements from the sequence.
+     *
+     * O(1):  Not dependent on list size.
+     */
+	@Override
+	public void clear() {
+		head = null;
+		tail = null;
+		found = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+     * Returns the object at the specified position in the sequence.
+     *
+     * O(n):  Walks n / c chunks to the index, where c is the chunk capacity.
+     *
+     * @param idx index of the element to return
+     * @return the object at the specified position in the sequence
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		locate(idx);
+		return (T) found.items[foundOffset];
+	}
+
+	/**
+     * Returns {@code true} if the sequence contains the specified object and
+     * {@code false} otherwise.
+     *
+     * O(n):  {@code indexOf()} scans the chunks.
+     *
+     * @param obj the object to find in the sequence
+     * @return {@code true} if the sequence contains the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean contains(T obj) {
+		return indexOf(obj) != -1;
+	}
+
+	/**
+     * Returns the index of the first occurrence of the specified object in
+     * this sequence, or -1 if object is not present.
+     *
+     * O(n):  Scans the chunks until object found.
+     *
+     * @param obj the object to find in the sequence
+     * @return the index of the first occurrence of the specified object in
+     *         this sequence, or -1 if object is not present
+     */
+	@Override
+	public int indexOf(T obj) {
+		int start = 0;
+		for (Chunk current = head; current != null; current = current.next) {
+			for (int i = 0; i < current.count; i++) {
+				if (current.items[i] == obj) {
+					return start + i;
+				}
+			}
+			start += current.count;
+		}
+		return -1;
+	}
+
+	/**
+     * Returns {@code true} if the sequence is empty and {@code false}
+     * otherwise.
+     *
+     * O(1):  Not dependent on list size.
+     *
+     * @return {@code true} if the sequence is empty and {@code false}
+     *         otherwise
+     */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+     * Removes the object at the specified position in the sequence.
+     *
+     * O(n):  Walks n / c chunks to the index and shifts at most 2c elements,
+     * 		where c is the chunk capacity.
+     *
+     * @param idx index of the element to remove
+     * @return the object previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (index < 0 || index >= size())
+     */
+	@Override
+	public T remove(int idx) throws IndexOutOfBoundsException {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		locate(idx);
+		return removeAt(found, foundOffset);
+	}
+
+	/**
+     * Remove the first occurrence of the specified object from the sequence,
+     * if it is present.
+     *
+     * O(n):  Scans the chunks until object found.
+     *
+     * @param obj the object to remove
+     * @return {@code true} if the sequence contained the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean remove(T obj) {
+		for (Chunk current = head; current != null; current = current.next) {
+			for (int i = 0; i < current.count; i++) {
+				if (current.items[i] == obj) {
+					removeAt(current, i);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+     * Returns the number of elements in the sequence.
+     *
+     * O(1):  Not dependent on list size.
+     *
+     * @return the number of elements in the sequence
+     */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+     * Returns an array containing all of the elements in the sequence in the
+     * proper order (from first to last).
+     *
+     * O(n):  Copies every chunk into the array.
+     *
+     * @return an array containing the elements of the sequence
+     */
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size];
+		int start = 0;
+		for (Chunk current = head; current != null; current = current.next) {
+			System.arraycopy(current.items, 0, data, start, current.count);
+			start += current.count;
+		}
+		return data;
+	}
+
+	/**
+	 * Returns a fail-fast iterator over the elements of the list in order.
+	 *
+	 * O(1):  Each step reads a single chunk slot.
+	 *
+	 * @return an iterator over the elements of the list
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new ChunkIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the list.  Splitting hands
+	 * out batches of elements copied from the front of the list.
+	 *
+	 * @return a spliterator over the elements of the list
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+	}
+
+}
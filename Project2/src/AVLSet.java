@@ -1,3 +1,17 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
 /**
  * This class implements the provided Set interface with AVL trees.
  * 
@@ -5,7 +19,7 @@
  *
  * @param <T>
  */
-public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteable {
+public class AVLSet<T extends Comparable<T>> implements OrderedSet<T>, GraphVizWriteable {
 
 	/**
 	 * This class defines a node of a binary tree;
@@ -15,6 +29,7 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 	class TreeNode {
 		T datum;
 		int height;
+		int size;
 		TreeNode left;
 		TreeNode right;
 		
@@ -26,79 +41,233 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 		TreeNode(T datum) {
 			this.datum = datum;
 			this.height = 0;
+			this.size = 1;
 			this.left = null;
 			this.right = null;
 		}
 	}
 	
+	/**
+	 * This class holds the pieces that result from splitting a tree at a
+	 * key: the tree of smaller elements, the node equal to the key if there
+	 * was one, and the tree of larger elements.
+	 * 
+	 * @author Megan Bird
+	 */
+	class Split {
+		TreeNode left;
+		TreeNode middle;
+		TreeNode right;
+		
+		/**
+		 * Constructs the result of a split.
+		 * 
+		 * @param left tree of the elements less than the key
+		 * @param middle node equal to the key, or {@code null}
+		 * @param right tree of the elements greater than the key
+		 */
+		Split(TreeNode left, TreeNode middle, TreeNode right) {
+			this.left = left;
+			this.middle = middle;
+			this.right = right;
+		}
+	}
+	
+	/**
+	 * The set operations that can be run in parallel.
+	 */
+	enum Operation { UNION, INTERSECTION, DIFFERENCE }
+	
+	/**
+	 * This class defines a fork/join task for a set operation on two trees.
+	 * The task splits the trees by key just like the sequential operation
+	 * and works on the two sides in parallel.  The pieces of the two sides
+	 * share no nodes, so the subtasks never touch the same node, and the
+	 * results are joined once both are done.  Small pieces fall back to the
+	 * sequential operation.
+	 * 
+	 * @author Megan Bird
+	 */
+	class SetTask extends RecursiveTask<TreeNode> {
+		private static final long serialVersionUID = 1L;
+		private Operation operation;
+		private TreeNode first;
+		private TreeNode second;
+		
+		/**
+		 * Creates a task for an operation on two trees.
+		 * 
+		 * @param operation operation to perform
+		 * @param first tree on the left of the operation
+		 * @param second tree on the right of the operation
+		 */
+		SetTask(Operation operation, TreeNode first, TreeNode second) {
+			this.operation = operation;
+			this.first = first;
+			this.second = second;
+		}
+		
+		@Override
+		protected TreeNode compute() {
+			if (first == null || second == null
+					|| size(first) + size(second) <= PARALLEL_GRANULARITY) {
+				return sequential();
+			}
+			if (operation != Operation.UNION) {
+				Split parts = split(first, second.datum);
+				SetTask lower = new SetTask(operation, parts.left, second.left);
+				lower.fork();
+				TreeNode upper = new SetTask(operation, parts.right, second.right).compute();
+				if (operation == Operation.INTERSECTION && parts.middle != null) {
+					return AVLSet.this.join(lower.join(), parts.middle, upper);
+				}
+				else {
+					return AVLSet.this.join(lower.join(), upper);
+				}
+			}
+			TreeNode left = first.left;
+			TreeNode right = first.right;
+			Split parts = split(second, first.datum);
+			SetTask lower = new SetTask(operation, left, parts.left);
+			lower.fork();
+			TreeNode upper = new SetTask(operation, right, parts.right).compute();
+			return AVLSet.this.join(lower.join(), first, upper);
+		}
+		
+		/**
+		 * Performs the operation on the whole of both trees in this thread.
+		 * 
+		 * @return the resulting tree
+		 */
+		private TreeNode sequential() {
+			if (operation == Operation.UNION) {
+				return union(first, second);
+			}
+			else if (operation == Operation.INTERSECTION) {
+				return intersection(first, second);
+			}
+			else {
+				return difference(first, second);
+			}
+		}
+	}
+	
+	/**
+	 * This class defines a fork/join task that builds a balanced tree from
+	 * a sorted range of an array, building the two halves in parallel.
+	 * 
+	 * @author Megan Bird
+	 */
+	class BuildTask extends RecursiveTask<TreeNode> {
+		private static final long serialVersionUID = 1L;
+		private Object[] data;
+		private int lo;
+		private int hi;
+		
+		/**
+		 * Creates a task for the range [lo, hi) of the array.
+		 * 
+		 * @param data elements in strictly ascending order
+		 * @param lo first index of the range
+		 * @param hi index after the last of the range
+		 */
+		BuildTask(Object[] data, int lo, int hi) {
+			this.data = data;
+			this.lo = lo;
+			this.hi = hi;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		protected TreeNode compute() {
+			if (hi - lo <= PARALLEL_GRANULARITY) {
+				return build(data, lo, hi);
+			}
+			int mid = (lo + hi) >>> 1;
+			BuildTask lower = new BuildTask(data, lo, mid);
+			lower.fork();
+			TreeNode current = new TreeNode((T) data[mid]);
+			current.right = new BuildTask(data, mid + 1, hi).compute();
+			current.left = lower.join();
+			return updateHeight(current);
+		}
+	}
+	
 	/**
 	 * This class defines an iterator for a tree.
 	 * 
 	 * @author Megan Bird
 	 */
-	class Iterator {
+	class NodeIterator {
 		
 		/**
 		 * This class defines a stack for TreeNode objects,
-		 * implemented as a linked list.
+		 * implemented as an array that doubles when it fills,
+		 * so pushing does not allocate once it is big enough.
 		 * 
 		 * @author Megan Bird
 		 */
 		class Stack {
 			/**
-			 * This class defines a stack element, which is
-			 * the node of the stack linked list.
-			 * 
-			 * @author Megan Bird
+			 * Stores the elements of the stack, the top at
+			 * index {@code count - 1}.
 			 */
-			class StackElement {
-				TreeNode datum;
-				StackElement next;
-				
-				/**
-				 * Constructs an empty stack element (list node)
-				 * 
-				 * @param datum
-				 */
-				StackElement(TreeNode datum) {
-					this.datum = datum;
-					this.next = null;
-				}
-			}
+			private Object[] data;
 			
 			/**
-			 * Stores the top of the stack (head of linked list).
+			 * Stores the number of elements on the stack.
 			 */
-			private StackElement head;
+			private int count;
 			
 			/**
-			 * Constructs an empty stack (empty linked list).
+			 * Constructs an empty stack.
 			 */
 			public Stack() {
-				head = null;
+				data = new Object[16];
+				count = 0;
+			}
+			
+			/**
+			 * Returns {@code true} if the stack is empty.
+			 * 
+			 * @return {@code true} if the stack is empty
+			 */
+			public boolean isEmpty() {
+				return count == 0;
 			}
 			
 			/**
-			 * Performs a stack push operation by prepending a node
-			 * to the head of the underlying linked list.
+			 * Performs a stack push operation by storing the node
+			 * after the current top, growing the array if needed.
 			 * 
 			 * @param node
 			 */
 			public void push(TreeNode node) {
-				StackElement tmp = new StackElement(node);
-				tmp.next = head;
-				head = tmp;
+				if (count == data.length) {
+					data = Arrays.copyOf(data, 2 * count);
+				}
+				data[count++] = node;
+			}
+			
+			/**
+			 * Returns the top of the stack without removing it.
+			 * 
+			 * @return
+			 */
+			@SuppressWarnings("unchecked")
+			public TreeNode peek() {
+				return (TreeNode) data[count - 1];
 			}
 			
 			/**
 			 * Performs a stack pop operation by removing and returning
-			 * the head of the underlying linked list.
+			 * the top of the stack.
 			 * 
 			 * @return
 			 */
 			public TreeNode pop() {
-				TreeNode tmp = head.datum;
-				head = head.next;
+				TreeNode tmp = peek();
+				data[--count] = null;
 				return tmp;
 			}
 		}
@@ -110,9 +279,48 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 		 * 
 		 * @param root
 		 */
-		public Iterator(TreeNode root) {
+		public NodeIterator(TreeNode root) {
 			pushLeft(root);
 		}
+		
+		/**
+		 * Creates an iterator object for the tree that starts at the least
+		 * node not less than {@code lo}.  Only the path to that node is
+		 * pushed, so starting part way through costs O(log n).
+		 * 
+		 * @param root
+		 * @param lo inclusive lower bound, or {@code null} for none
+		 */
+		public NodeIterator(TreeNode root, T lo) {
+			TreeNode tmp = root;
+			while (tmp != null) {
+				if (lo == null || tmp.datum.compareTo(lo) >= 0) {
+					stack.push(tmp);
+					tmp = tmp.left;
+				}
+				else {
+					tmp = tmp.right;
+				}
+			}
+		}
+		
+		/**
+		 * Returns {@code true} if there are nodes left to visit.
+		 * 
+		 * @return {@code true} if there are nodes left to visit
+		 */
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+		
+		/**
+		 * Returns the next node without moving past it.
+		 * 
+		 * @return The next node in the tree.
+		 */
+		public TreeNode peek() {
+			return stack.peek();
+		}
 
 		/**
 		 * Returns the next node of the tree using the stack.
@@ -140,6 +348,165 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 		}
 	}
 	
+	/**
+	 * This class defines a fail-fast iterator over the elements of the
+	 * tree in order, optionally limited to the range [lo, hi).
+	 * 
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private NodeIterator nodes;
+		private T hi;
+		private int expectedModCount = modCount;
+		
+		/**
+		 * Creates an iterator over every element of the tree.
+		 */
+		SetIterator() {
+			this(null, null);
+		}
+		
+		/**
+		 * Creates an iterator over the elements in the range [lo, hi).
+		 * 
+		 * @param lo inclusive lower bound, or {@code null} for none
+		 * @param hi exclusive upper bound, or {@code null} for none
+		 */
+		SetIterator(T lo, T hi) {
+			this.nodes = new NodeIterator(root, lo);
+			this.hi = hi;
+		}
+		
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 * 
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			if (!nodes.hasNext()) {
+				return false;
+			}
+			return hi == null || nodes.peek().datum.compareTo(hi) < 0;
+		}
+		
+		/**
+		 * Returns the next element of the tree.
+		 * 
+		 * @return the next element of the tree
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the tree was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return nodes.next().datum;
+		}
+	}
+	
+	/**
+	 * This class defines a spliterator over a subtree followed by an optional
+	 * single node.  Splitting hands the left subtree and the root to a new
+	 * spliterator and keeps the right subtree, so the work divides along
+	 * subtree boundaries and the subtree sizes give exact split sizes.
+	 * 
+	 * @author Megan Bird
+	 */
+	class TreeSpliterator implements Spliterator<T> {
+		private TreeNode subtree;
+		private TreeNode after;
+		private NodeIterator nodes;
+		private int remaining;
+		private int expectedModCount;
+		
+		/**
+		 * Creates a spliterator over a subtree followed by a single node.
+		 * 
+		 * @param subtree subtree to visit first
+		 * @param after node to visit last, or {@code null}
+		 * @param expectedModCount modification count the tree must keep
+		 */
+		TreeSpliterator(TreeNode subtree, TreeNode after, int expectedModCount) {
+			this.subtree = subtree;
+			this.after = after;
+			this.remaining = size(subtree) + (after != null ? 1 : 0);
+			this.expectedModCount = expectedModCount;
+		}
+		
+		@Override
+		public Spliterator<T> trySplit() {
+			if (nodes != null || subtree == null) {
+				return null;
+			}
+			TreeNode split = subtree;
+			subtree = split.right;
+			remaining -= size(split.left) + 1;
+			return new TreeSpliterator(split.left, split, expectedModCount);
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nodes == null) {
+				nodes = new NodeIterator(subtree);
+			}
+			TreeNode tmp;
+			if (nodes.hasNext()) {
+				tmp = nodes.next();
+			}
+			else if (after != null) {
+				tmp = after;
+				after = null;
+			}
+			else {
+				return false;
+			}
+			remaining--;
+			action.accept(tmp.datum);
+			return true;
+		}
+		
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+		
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED
+					| Spliterator.SORTED | Spliterator.DISTINCT;
+		}
+		
+		@Override
+		public Comparator<? super T> getComparator() {
+			return null;
+		}
+	}
+	
+	/**
+	 * Holds how many times larger than the batch the set has to be for
+	 * {@code addAll()} to add the batch one element at a time instead of
+	 * rebuilding the tree.
+	 */
+	private static final int INCREMENTAL_RATIO = 16;
+	
+	/**
+	 * Holds the number of elements at or below which the parallel
+	 * operations stop forking and finish sequentially.
+	 */
+	private static final int PARALLEL_GRANULARITY = 1 << 13;
+	
 	/**
 	 * Holds the node designated as the root of the tree;
 	 */
@@ -150,6 +517,18 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 	 */
 	private int size;
 	
+	/**
+	 * Holds the number of structural modifications made to the tree so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+	
+	/**
+	 * Holds the recorder that structural changes are reported to, or
+	 * {@code null} when nothing is recorded.
+	 */
+	private RebalanceRecorder<T> recorder;
+	
 	/**
 	 * Constructs and empty AVLSet
 	 */
@@ -159,402 +538,1600 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
 	}
 	
 	/**
-	 * Returns the affective height of a node which is simple the node
-	 * height value or -1 when a null node.
+	 * Attaches a recorder that is told of every node inserted or removed,
+	 * every rotation and every height change from now on, or detaches the
+	 * current one when given {@code null}.  The tree as it stands is first
+	 * recorded as insertions in preorder, which rebuild it exactly, so the
+	 * log can be replayed from an empty tree.
 	 * 
-	 * @param node to check height of
-	 * @return height of node
+	 * The log follows {@code add()}, {@code remove()} and {@code clear()}
+	 * change by change.  The bulk operations build and join whole subtrees,
+	 * so while one runs the recorder is detached, and afterwards the result
+	 * is recorded as a {@code CLEAR} followed by the tree as it then stands.
+	 * 
+	 * O(n):  To record the current tree, and O(1) per change after that.
+	 * 		A bulk operation costs an extra O(n) while a recorder is
+	 * 		attached.
+	 * 
+	 * @param recorder recorder to attach, or {@code null}
 	 */
-	private int height(TreeNode node) {
-		if (node == null) {
-			return -1;
-		}
-		else {
-			return node.height;
+	public void setRecorder(RebalanceRecorder<T> recorder) {
+		this.recorder = recorder;
+		if (recorder != null) {
+			record(root);
 		}
 	}
 	
 	/**
-	 * Updates the height of given node based on heights of its children.
-	 * Height of children must already be updated as this function does
-	 * not update the children recursively.  It is to be called
-	 * while a recursive function is returning up the tree.
+	 * Recursively records a tree as insertions in preorder along with the
+	 * height of each node.
 	 * 
-	 * @param current Node to update height of
+	 * @param current tree to record
 	 */
-	private TreeNode updateHeight(TreeNode current) {
-		if (isLeaf(current)) {
-			current.height = 0;
-		}
-		else if (current.left != null && current.right == null) {
-			current.height = 1 + current.left.height;
-		}
-		else if (current.left == null && current.right != null) {
-			current.height = 1 + current.right.height;
-		}
-		else {
-			current.height = 1 + Math.max(current.left.height, current.right.height);
+	private void record(TreeNode current) {
+		if (current != null) {
+			recorder.inserted(current.datum);
+			if (current.height != 0) {
+				recorder.heightChanged(current.datum, current.height);
+			}
+			record(current.left);
+			record(current.right);
 		}
-		return current;
 	}
 	
 	/**
-	 * Balances the tree from the perspective of the given node.
-	 * This is done by determining the scenario and performing
-	 * either left or right rotations.
+	 * Detaches the recorder while a bulk operation runs, so the joins and
+	 * rotations of the operation, which may run on several threads, are
+	 * not reported one by one.
 	 * 
-	 * @param current node to balance at
-	 * @return balanced tree
+	 * @return the recorder that was attached, or {@code null}
 	 */
-	private TreeNode balance(TreeNode current) {
-		if (height(current.left) - height(current.right) > 1) { // scenario 1 or 2
-			if (height(current.left.left) >= height(current.left.right)) { // scenario 1 - single right rotation
-				current = rightRotation(current);
-			}
-			else { // scenario 2 - double rotation - left then right
-				current.left = leftRotation(current.left);
-				current = rightRotation(current);
-			}
-		}
-		else if (height(current.right) - height(current.left) > 1){ // scenario 3 or 4
-			if (height(current.right.right) >= height(current.right.left)) { // scenario 4 - single left rotation
-				current = leftRotation(current);
-			}
-			else { // scenario 3 - double rotation - right then left
-				current.right = rightRotation(current.right);
-				current = leftRotation(current);
-			}
-		}
-		return current;
+	private RebalanceRecorder<T> suspendRecorder() {
+		RebalanceRecorder<T> attached = recorder;
+		recorder = null;
+		return attached;
 	}
 	
 	/**
-	 * Performs a right rotation at the current node for balancing
+	 * Attaches a recorder again after a bulk operation and records the
+	 * result as a clear followed by the tree as it now stands.
 	 * 
-	 * @param current node to perform rotation at
-	 * @return resulting node after rotation
+	 * O(n):  To record the tree, or O(1) if no recorder was attached.
+	 * 
+	 * @param attached recorder returned by {@code suspendRecorder()}, or
+	 * 		{@code null}
 	 */
-	private TreeNode rightRotation(TreeNode current) {
-		TreeNode rt = current.left;
-		if (current.left.right != null) {
-			current.left = current.left.right;
-		}
-		else {
-			current.left = null;
+	private void resumeRecorder(RebalanceRecorder<T> attached) {
+		if (attached != null) {
+			recorder = attached;
+			attached.cleared();
+			record(root);
 		}
-		rt.right = current;
-		updateHeight(rt.right);
-		updateHeight(rt);
-		return rt;
 	}
 	
 	/**
-	 * Performs a left rotation at the current node for balancing
+	 * Builds a set from elements that are already in strictly ascending
+	 * order.  The middle element of each range becomes the root of its
+	 * subtree, so the tree comes out perfectly balanced without a single
+	 * comparison or rotation.
 	 * 
-	 * @param current node to perform rotation at
-	 * @return resulting node after rotation
+	 * O(n):  One pass to check the order and one node created per element.
+	 * 
+	 * @param sorted elements in strictly ascending order
+	 * @return a set holding the elements
+	 * @throws IllegalArgumentException if an element is {@code null} or the
+	 * 		elements are not in strictly ascending order
 	 */
-	private TreeNode leftRotation(TreeNode current) {
-		TreeNode rt = current.right;
-		if (current.right.left != null) {
-			current.right = current.right.left;
-		}
-		else {
-			current.right = null;
-		}
-		rt.left = current;
-		updateHeight(rt.left);
-		updateHeight(rt);
-		return rt;
+	public static <T extends Comparable<T>> AVLSet<T> fromSorted(T[] sorted) {
+		checkSorted(sorted);
+		AVLSet<T> set = new AVLSet<T>();
+		set.root = set.build(sorted, 0, sorted.length);
+		set.size = sorted.length;
+		return set;
 	}
 	
 	/**
-	 * Prints the datum of the tree out in order in the console.
+	 * Builds a set from elements that are already in strictly ascending
+	 * order, building the halves of each range in parallel on the given
+	 * pool.
 	 * 
-	 * O(n):  {@code toString()} iterates through entire tree.
+	 * O(n):  Total work, spread over the threads of the pool.
+	 * 
+	 * @param sorted elements in strictly ascending order
+	 * @param pool pool to run the build on
+	 * @return a set holding the elements
+	 * @throws IllegalArgumentException if an element is {@code null} or the
+	 * 		elements are not in strictly ascending order
 	 */
-	public void printTree() {
-		System.out.println(toString());
+	public static <T extends Comparable<T>> AVLSet<T> fromSorted(T[] sorted, ForkJoinPool pool) {
+		checkSorted(sorted);
+		AVLSet<T> set = new AVLSet<T>();
+		set.root = pool.invoke(set.new BuildTask(sorted, 0, sorted.length));
+		set.size = sorted.length;
+		return set;
 	}
 	
 	/**
-	 * Adapted from the provided toString() for a linked list.
-	 * Return a {@code String} representation of the BST.
+	 * Checks that the elements are non null and in strictly ascending order.
+	 * 
+	 * @param sorted elements to check
+	 * @throws IllegalArgumentException if they are not
+	 */
+	private static <T extends Comparable<T>> void checkSorted(T[] sorted) {
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] == null) {
+				throw new IllegalArgumentException("elements must not be null");
+			}
+			if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= 0) {
+				throw new IllegalArgumentException("elements must be in strictly ascending order");
+			}
+		}
+	}
+	
+	/**
+	 * Recursively builds a balanced tree from the sorted range [lo, hi) of
+	 * an array.
+	 * 
+	 * @param data elements in strictly ascending order
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @return root of the tree, with heights and sizes set
+	 */
+	@SuppressWarnings("unchecked")
+	private TreeNode build(Object[] data, int lo, int hi) {
+		if (lo >= hi) {
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		TreeNode current = new TreeNode((T) data[mid]);
+		current.left = build(data, lo, mid);
+		current.right = build(data, mid + 1, hi);
+		return updateHeight(current);
+	}
+	
+	/**
+	 * Writes a binary snapshot of the set at the current position of the
+	 * channel: a versioned header with a checksum, followed by the elements
+	 * in ascending order as encoded by the codec.
+	 * 
+	 * O(n):  One in-order walk, written through a single reused buffer.
+	 * 
+	 * @param channel channel to write at its current position
+	 * @param codec codec to encode the elements with
+	 * @throws IOException if writing to the channel fails
+	 */
+	public void writeSnapshot(FileChannel channel, KeyCodec<T> codec) throws IOException {
+		SnapshotFile.write(channel, iterator(), size, codec);
+	}
+	
+	/**
+	 * Reads a snapshot written by {@code writeSnapshot()} from the current
+	 * position of the channel.  The file is memory-mapped and the balanced
+	 * tree is built directly from the mapped elements, so no array of the
+	 * elements is made along the way, and the order of the elements is
+	 * checked as they are read.
+	 * 
+	 * O(n):  One checksum pass and one node created per element.
+	 * 
+	 * @param channel channel to read at its current position
+	 * @param codec codec the snapshot was written with
+	 * @return a set holding the elements of the snapshot
+	 * @throws IOException if the channel does not hold a valid snapshot for
+	 * 		this codec or its elements are not strictly ascending
+	 */
+	public static <T extends Comparable<T>> AVLSet<T> readSnapshot(FileChannel channel, KeyCodec<T> codec)
+			throws IOException {
+		ByteBuffer keys = SnapshotFile.map(channel, codec, true);
+		int count = keys.limit() / codec.width();
+		AVLSet<T> set = new AVLSet<T>();
+		set.root = set.build(keys, codec, 0, count);
+		set.size = count;
+		return set;
+	}
+	
+	/**
+	 * Recursively builds a balanced tree from the range [lo, hi) of mapped
+	 * elements.  The left subtree is built before the middle element is
+	 * read, so elements are read in ascending order and each one is
+	 * compared with the one before it.
+	 * 
+	 * @param keys mapped elements
+	 * @param codec codec the elements were written with
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @return root of the tree, with heights and sizes set
+	 * @throws IOException if the elements are not strictly ascending
+	 */
+	private TreeNode build(ByteBuffer keys, KeyCodec<T> codec, int lo, int hi) throws IOException {
+		if (lo >= hi) {
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		int width = codec.width();
+		TreeNode left = build(keys, codec, lo, mid);
+		TreeNode current = new TreeNode(codec.read(keys, mid * width));
+		if (mid > 0 && codec.compare(keys, (mid - 1) * width, current.datum) >= 0) {
+			throw new IOException("snapshot elements are not strictly ascending at " + mid);
+		}
+		current.left = left;
+		current.right = build(keys, codec, mid + 1, hi);
+		return updateHeight(current);
+	}
+	
+	/**
+	 * Adds every element of the array to the set.  The array may be in any
+	 * order and may hold duplicates.  A copy of it is sorted, in parallel
+	 * when it is large, merged with the elements already in the set and
+	 * the tree is rebuilt from the result.  When the batch is small next to
+	 * the set the elements are added one at a time instead, since that
+	 * touches only their search paths.
+	 * 
+	 * O(n + m log m):  For a batch of m elements, the sort followed by a
+	 * 		linear merge and rebuild.
+	 * 
+	 * @param objs elements to add to the set
+	 */
+	@SuppressWarnings("unchecked")
+	public void addAll(T[] objs) {
+		if ((long) objs.length * INCREMENTAL_RATIO < size) {
+			for (T obj : objs) {
+				add(obj);
+			}
+			return;
+		}
+		
+		T[] added = Arrays.copyOf(objs, objs.length);
+		Arrays.parallelSort(added);
+		
+		Object[] existing = toArray();
+		Object[] merged = new Object[existing.length + added.length];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+		while (i < existing.length || j < added.length) {
+			T obj;
+			if (j == added.length || (i < existing.length && ((T) existing[i]).compareTo(added[j]) <= 0)) {
+				obj = (T) existing[i++];
+			}
+			else {
+				obj = added[j++];
+			}
+			// an equal element is already in place, the one from the set first
+			if (count == 0 || ((T) merged[count - 1]).compareTo(obj) < 0) {
+				merged[count++] = obj;
+			}
+		}
+		
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = build(merged, 0, count);
+			size = count;
+			modCount++;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Adds every element of a sorted batch to the set in one traversal.
+	 * The batch is split around each node it reaches and both halves are
+	 * merged into the subtrees together, then the node is joined back
+	 * between the new subtrees, so every touched node is rebalanced once.
+	 * A part of the batch that reaches an empty subtree is built directly.
+	 * 
+	 * O(k log(n/k + 1)):  For a batch of k elements, instead of the
+	 * 		O(k log n) of k separate descents.
+	 * 
+	 * @param sorted elements in strictly ascending order
+	 * @throws IllegalArgumentException if an element is {@code null} or the
+	 * 		elements are not in strictly ascending order
+	 */
+	public void addAllSorted(T[] sorted) {
+		checkSorted(sorted);
+		if (sorted.length == 0) {
+			return;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = addAllSorted(root, sorted, 0, sorted.length);
+			size = size(root);
+			modCount++;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Recursively merges the sorted range [lo, hi) of a batch into a tree.
+	 * 
+	 * @param current tree to merge into
+	 * @param sorted batch in strictly ascending order
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @return the merged tree
+	 */
+	private TreeNode addAllSorted(TreeNode current, T[] sorted, int lo, int hi) {
+		if (lo >= hi) {
+			return current;
+		}
+		else if (current == null) {
+			return build(sorted, lo, hi);
+		}
+		int mid = lowerBound(sorted, lo, hi, current.datum);
+		int next = mid;
+		if (mid < hi && sorted[mid].compareTo(current.datum) == 0) {
+			next++;
+		}
+		TreeNode left = addAllSorted(current.left, sorted, lo, mid);
+		TreeNode right = addAllSorted(current.right, sorted, next, hi);
+		return join(left, current, right);
+	}
+	
+	/**
+	 * Removes every element of a sorted batch from the set in one
+	 * traversal, splitting the batch around each node it reaches as
+	 * {@code addAllSorted()} does.  A node in the batch is dropped by
+	 * joining its new subtrees, any other touched node is joined back
+	 * between them.
+	 * 
+	 * O(k log(n/k + 1)):  For a batch of k elements.
+	 * 
+	 * @param sorted elements in strictly ascending order
+	 * @return the number of elements removed
+	 * @throws IllegalArgumentException if an element is {@code null} or the
+	 * 		elements are not in strictly ascending order
+	 */
+	public int removeAllSorted(T[] sorted) {
+		checkSorted(sorted);
+		if (sorted.length == 0 || root == null) {
+			return 0;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = removeAllSorted(root, sorted, 0, sorted.length);
+			int removed = size - size(root);
+			size -= removed;
+			modCount++;
+			return removed;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Recursively removes the sorted range [lo, hi) of a batch from a tree.
+	 * 
+	 * @param current tree to remove from
+	 * @param sorted batch in strictly ascending order
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @return the tree without the elements of the range
+	 */
+	private TreeNode removeAllSorted(TreeNode current, T[] sorted, int lo, int hi) {
+		if (lo >= hi || current == null) {
+			return current;
+		}
+		int mid = lowerBound(sorted, lo, hi, current.datum);
+		boolean found = mid < hi && sorted[mid].compareTo(current.datum) == 0;
+		TreeNode left = removeAllSorted(current.left, sorted, lo, mid);
+		TreeNode right = removeAllSorted(current.right, sorted, found ? mid + 1 : mid, hi);
+		if (found) {
+			return join(left, right);
+		}
+		return join(left, current, right);
+	}
+	
+	/**
+	 * Returns the index of the first element of the sorted range [lo, hi)
+	 * that is not less than the key, or hi if there is none.
+	 * 
+	 * @param sorted elements in ascending order
+	 * @param lo first index of the range
+	 * @param hi index after the last of the range
+	 * @param key key to search for
+	 * @return the index of the first element {@code >= key}
+	 */
+	private int lowerBound(T[] sorted, int lo, int hi, T key) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid].compareTo(key) < 0) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	/**
+	 * Returns the affective height of a node which is simple the node
+	 * height value or -1 when a null node.
+	 * 
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+	
+	/**
+	 * Returns the number of nodes in the subtree rooted at a node, which is
+	 * the node size value or 0 when a null node.
+	 * 
+	 * @param node root of the subtree
+	 * @return size of the subtree
+	 */
+	private int size(TreeNode node) {
+		if (node == null) {
+			return 0;
+		}
+		else {
+			return node.size;
+		}
+	}
+	
+	/**
+	 * Updates the height and subtree size of given node based on its
+	 * children.  Children must already be updated as this function does
+	 * not update the children recursively.  It is to be called
+	 * while a recursive function is returning up the tree.
+	 * 
+	 * @param current Node to update height of
+	 */
+	private TreeNode updateHeight(TreeNode current) {
+		int before = current.height;
+		current.size = 1 + size(current.left) + size(current.right);
+		if (isLeaf(current)) {
+			current.height = 0;
+		}
+		else if (current.left != null && current.right == null) {
+			current.height = 1 + current.left.height;
+		}
+		else if (current.left == null && current.right != null) {
+			current.height = 1 + current.right.height;
+		}
+		else {
+			current.height = 1 + Math.max(current.left.height, current.right.height);
+		}
+		if (recorder != null && current.height != before) {
+			recorder.heightChanged(current.datum, current.height);
+		}
+		return current;
+	}
+	
+	/**
+	 * Balances the tree from the perspective of the given node.
+	 * This is done by determining the scenario and performing
+	 * either left or right rotations.
+	 * 
+	 * @param current node to balance at
+	 * @return balanced tree
+	 */
+	private TreeNode balance(TreeNode current) {
+		if (height(current.left) - height(current.right) > 1) { // scenario 1 or 2
+			if (height(current.left.left) >= height(current.left.right)) { // scenario 1 - single right rotation
+				current = rightRotation(current);
+			}
+			else { // scenario 2 - double rotation - left then right
+				current.left = leftRotation(current.left);
+				current = rightRotation(current);
+			}
+		}
+		else if (height(current.right) - height(current.left) > 1){ // scenario 3 or 4
+			if (height(current.right.right) >= height(current.right.left)) { // scenario 4 - single left rotation
+				current = leftRotation(current);
+			}
+			else { // scenario 3 - double rotation - right then left
+				current.right = rightRotation(current.right);
+				current = leftRotation(current);
+			}
+		}
+		return current;
+	}
+	
+	/**
+	 * Performs a right rotation at the current node for balancing
+	 * 
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode rightRotation(TreeNode current) {
+		if (recorder != null) {
+			recorder.rotatedRight(current.datum);
+		}
+		TreeNode rt = current.left;
+		if (current.left.right != null) {
+			current.left = current.left.right;
+		}
+		else {
+			current.left = null;
+		}
+		rt.right = current;
+		updateHeight(rt.right);
+		updateHeight(rt);
+		return rt;
+	}
+	
+	/**
+	 * Performs a left rotation at the current node for balancing
+	 * 
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode leftRotation(TreeNode current) {
+		if (recorder != null) {
+			recorder.rotatedLeft(current.datum);
+		}
+		TreeNode rt = current.right;
+		if (current.right.left != null) {
+			current.right = current.right.left;
+		}
+		else {
+			current.right = null;
+		}
+		rt.left = current;
+		updateHeight(rt.left);
+		updateHeight(rt);
+		return rt;
+	}
+	
+	/**
+	 * Joins two trees around a middle node.  Every element of {@code left}
+	 * is less than {@code middle} and every element of {@code right} is
+	 * greater than it.
+	 * 
+	 * O(log n):  Descends the taller tree until the heights match, so the
+	 * 		cost is the difference of the heights.
+	 * 
+	 * @param left tree of the elements less than the middle node
+	 * @param middle node to place between the trees
+	 * @param right tree of the elements greater than the middle node
+	 * @return the joined tree
+	 */
+	private TreeNode join(TreeNode left, TreeNode middle, TreeNode right) {
+		if (height(left) > height(right) + 1) {
+			left.right = join(left.right, middle, right);
+			return balance(updateHeight(left));
+		}
+		else if (height(right) > height(left) + 1) {
+			right.left = join(left, middle, right.left);
+			return balance(updateHeight(right));
+		}
+		else {
+			middle.left = left;
+			middle.right = right;
+			return updateHeight(middle);
+		}
+	}
+	
+	/**
+	 * Joins two trees without a middle node by borrowing the least node of
+	 * the right tree.
+	 * 
+	 * O(log n):  One removal and one join.
+	 * 
+	 * @param left tree of the smaller elements
+	 * @param right tree of the larger elements
+	 * @return the joined tree
+	 */
+	private TreeNode join(TreeNode left, TreeNode right) {
+		if (right == null) {
+			return left;
+		}
+		else if (left == null) {
+			return right;
+		}
+		TreeNode first = right;
+		while (first.left != null) {
+			first = first.left;
+		}
+		right = removeFirst(right);
+		return join(left, first, right);
+	}
+	
+	/**
+	 * Recursively unlinks the least node of a tree.
+	 * 
+	 * @param current tree to remove from
+	 * @return the tree without its least node
+	 */
+	private TreeNode removeFirst(TreeNode current) {
+		if (current.left == null) {
+			return current.right;
+		}
+		current.left = removeFirst(current.left);
+		return balance(updateHeight(current));
+	}
+	
+	/**
+	 * Splits a tree at a key into the elements less than the key, the node
+	 * equal to the key and the elements greater than the key.  The nodes
+	 * of the tree are reused.
+	 * 
+	 * O(log n):  Joins at most one subtree per level of the tree.
+	 * 
+	 * @param current tree to split
+	 * @param key key to split at
+	 * @return the pieces of the tree
+	 */
+	private Split split(TreeNode current, T key) {
+		if (current == null) {
+			return new Split(null, null, null);
+		}
+		TreeNode left = current.left;
+		TreeNode right = current.right;
+		int comparison = key.compareTo(current.datum);
+		
+		if (comparison < 0) {
+			Split parts = split(left, key);
+			parts.right = join(parts.right, current, right);
+			return parts;
+		}
+		else if (comparison > 0) {
+			Split parts = split(right, key);
+			parts.left = join(left, current, parts.left);
+			return parts;
+		}
+		else {
+			return new Split(left, current, right);
+		}
+	}
+	
+	/**
+	 * Splits a tree at a key into the elements less than the key and the
+	 * elements greater than or equal to it.
+	 * 
+	 * @param current tree to split
+	 * @param key key to split at
+	 * @return the pieces of the tree, with no middle node
+	 */
+	private Split splitBelow(TreeNode current, T key) {
+		Split parts = split(current, key);
+		if (parts.middle != null) {
+			parts.right = join(null, parts.middle, parts.right);
+			parts.middle = null;
+		}
+		return parts;
+	}
+	
+	/**
+	 * Recursively builds the union of two trees.  The root of the first
+	 * tree splits the second, the halves are merged on each side and joined
+	 * back around the root.  Where both trees hold an equal element the
+	 * one from the first tree is kept.
+	 * 
+	 * O(m log(n/m + 1)):  For trees of sizes m <= n.
+	 * 
+	 * @param first tree whose elements win ties
+	 * @param second tree to merge in
+	 * @return the tree of the elements of either tree
+	 */
+	private TreeNode union(TreeNode first, TreeNode second) {
+		if (first == null) {
+			return second;
+		}
+		else if (second == null) {
+			return first;
+		}
+		TreeNode left = first.left;
+		TreeNode right = first.right;
+		Split parts = split(second, first.datum);
+		return join(union(left, parts.left), first, union(right, parts.right));
+	}
+	
+	/**
+	 * Recursively builds the intersection of two trees.  The root of the
+	 * second tree splits the first, and the node of the first tree equal
+	 * to it, if any, is joined back between the halves.  Only the nodes of
+	 * the first tree are reused, the second tree is only read.
+	 * 
+	 * O(m log(n/m + 1)):  For trees of sizes m <= n.
+	 * 
+	 * @param first tree whose elements are kept
+	 * @param second tree to intersect with, left unchanged
+	 * @return the tree of the elements in both trees
+	 */
+	private TreeNode intersection(TreeNode first, TreeNode second) {
+		if (first == null || second == null) {
+			return null;
+		}
+		Split parts = split(first, second.datum);
+		TreeNode lower = intersection(parts.left, second.left);
+		TreeNode upper = intersection(parts.right, second.right);
+		if (parts.middle != null) {
+			return join(lower, parts.middle, upper);
+		}
+		else {
+			return join(lower, upper);
+		}
+	}
+	
+	/**
+	 * Recursively builds the difference of two trees.  The root of the
+	 * second tree splits the first and is dropped if the first held it.
+	 * The second tree is only read.
+	 * 
+	 * O(m log(n/m + 1)):  For trees of sizes m <= n.
+	 * 
+	 * @param first tree to take elements from
+	 * @param second tree of elements to leave out, left unchanged
+	 * @return the tree of the elements of first that are not in second
+	 */
+	private TreeNode difference(TreeNode first, TreeNode second) {
+		if (first == null || second == null) {
+			return first;
+		}
+		Split parts = split(first, second.datum);
+		TreeNode lower = difference(parts.left, second.left);
+		TreeNode upper = difference(parts.right, second.right);
+		return join(lower, upper);
+	}
+	
+	/**
+	 * Prints the datum of the tree out in order in the console.
+	 * 
+	 * O(n):  {@code toString()} iterates through entire tree.
+	 */
+	public void printTree() {
+		System.out.println(toString());
+	}
+	
+	/**
+	 * Adapted from the provided toString() for a linked list.
+	 * Return a {@code String} representation of the BST.
 	 * 
 	 * O(n):  Iterates through entire tree.
 	 * 
-	 * @return a {@code String} representation of the BST.
-	 * @author Adapted from Canvas source
+	 * @return a {@code String} representation of the BST.
+	 * @author Adapted from Canvas source
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		try {
+			appendTo(repr, Integer.MAX_VALUE);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return repr.toString();
+	}
+	
+	/**
+	 * Writes the elements of the set in order to the given
+	 * {@code Appendable}, as in {@code {1, 2, 3}}.  After {@code limit}
+	 * elements it stops and notes how many were left out, as in
+	 * {@code {1, 2, 3, ... (997 more)}}.  The tree is walked with its
+	 * iterator rather than by recursion and every element goes straight to
+	 * out, so no intermediate strings are built.
+	 * 
+	 * O(log n + limit):  To start the iterator, then one step per element
+	 * 		written.
+	 * 
+	 * @param out destination of the text
+	 * @param limit greatest number of elements to write
+	 * @throws IOException if out throws one
+	 * @throws IllegalArgumentException if limit is negative
+	 */
+	public void appendTo(Appendable out, int limit) throws IOException {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit is negative");
+		}
+		out.append('{');
+		int count = 0;
+		Iterator<T> iter = iterator();
+		while (count < limit && iter.hasNext()) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append(String.valueOf(iter.next()));
+			count++;
+		}
+		if (count < size) {
+			if (count > 0) {
+				out.append(", ");
+			}
+			out.append("... (").append(Integer.toString(size - count)).append(" more)");
+		}
+		out.append('}');
+	}
+	
+	/**
+     * Adds the specified object to the set.
+     * 
+     * O(n):  Would iterate through entirely single branched trees like a list.
+     *
+     * @param obj object to be added to the set
+     */
+	@Override
+	public void add(T obj) {
+		root = add(root, obj);
+	}
+	
+	/**
+	 * Recursively implements the public add operation.
+	 * 
+	 * @param head Tree to be added to
+	 * @param obj Object to add to tree
+	 * @return Tree resulting from the add
+	 */
+	private TreeNode add(TreeNode current, T obj) {
+		if (current == null) {
+			size++;
+			modCount++;
+			if (recorder != null) {
+				recorder.inserted(obj);
+			}
+			return new TreeNode(obj);
+		}
+		else if (current.datum == obj) {
+			return current;
+		}
+		else {
+			int comparison = obj.compareTo(current.datum);
+			
+			if (comparison > 0) {
+				current.right = add(current.right, obj);
+				current = updateHeight(current);
+				current = balance(current);
+				current = updateHeight(current);
+				return current;
+			}
+			else if (comparison < 0) {
+				current.left = add(current.left, obj);
+				current = updateHeight(current);
+				current = balance(current);
+				current = updateHeight(current);
+				return current;
+			}
+		}
+		return current;
+	}
+
+	/**
+     * Removes all of the elements from the set.
+     * 
+     * O(1):  Complexity not dependent on tree size.
+     */
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount++;
+		if (recorder != null) {
+			recorder.cleared();
+		}
+	}
+
+	/**
+     * Returns {@code true} if the set contains the specified object and
+     * {@code false} otherwise.
+     * 
+     * O(n):  Would iterate through entirely single branched trees like a list.
+     *
+     * @param obj the object to find in the set
+     * @return {@code true} if the set contains the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean contains(T obj) {
+		return contains(root, obj);
+	}
+
+	/**
+	 * Recursively implements the public contains function.
+	 * 
+	 * @param current The tree to be searched in.
+	 * @param obj The object to look for.
+	 * @return {@code true} if the set contains the specified object and
+     *         {@code false} otherwise
+     * @author Adapted from Figure 4.18 in the textbook.
+	 */
+	private boolean contains(TreeNode current, T obj) {
+		if (current == null) {
+			return false;
+		}
+		
+		int comparison = obj.compareTo(current.datum);
+		
+		if (comparison < 0) {
+			return contains(current.left, obj);
+		}
+		else if (comparison > 0) {
+			return contains(current.right, obj);
+		}
+		else {
+			return true;
+		}
+	}
+	
+	/**
+     * Returns {@code true} if the set is empty and {@code false} otherwise.
+     * 
+     * O(1):  Complexity not dependent on tree size.
+     *
+     * @return {@code true} if the set is empty and {@code false} otherwise
+     */
+	@Override
+	public boolean isEmpty() {
+		if (size == 0) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+
+	/**
+     * Remove the specified object from the set, if it is present.
+     * 
+     * O(n):  Would iterate through entirely single branched trees like
+     * 		a list to find the node to remove.  In the most complex case
+     * 		of removal it would also have to iterate through the provided
+     * 		sub-tree to remove the swapped value.
+     *
+     * @param obj the object to remove
+     * @return {@code true} if the set contained the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean remove(T obj) {
+		int startSize = size;
+		root = remove(root, obj);
+		if (size != startSize) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Recursively implements the public remove method.
+	 * 
+	 * @param current tree to look in.
+	 * @param obj The object to remove.
+	 * @return Resulting tree after removal.
 	 */
-	public String toString() {
-		StringBuilder repr = new StringBuilder();
-	    repr.append("{");
-
-	    TreeNode tmp = root;
-	    if (root != null) {
-	    	repr.append(toString(tmp).substring(2));
-	    }
+	private TreeNode remove(TreeNode current, T obj) {
+		if (current == null) {
+			return current;
+		}
+		
+		int comparison = obj.compareTo(current.datum);
+		
+		if (comparison < 0) {
+			current.left = remove(current.left, obj);
+			current = updateHeight(current);
+			current = balance(current);
+			current = updateHeight(current);
+		}
+		else if (comparison > 0) {
+			current.right = remove(current.right, obj);
+			current = updateHeight(current);
+			current = balance(current);
+			current = updateHeight(current);
+		}
+		else if (comparison == 0) {
+			if (recorder != null && (current.left == null || current.right == null)) {
+				recorder.removed(obj);
+			}
+			if(isLeaf(current)) {
+				current = null;
+				size--;
+				modCount++;
+			}
+			else if (current.left != null && current.right == null) {
+				current = current.left;
+				size--;
+				modCount++;
+			}
+			else if (current.left == null && current.right != null) {
+				current = current.right;
+				size--;
+				modCount++;
+			}
+			else {
+				TreeNode max = maximum(current.left);
+				if (recorder != null) {
+					recorder.swapped(current.datum, max.datum);
+				}
+				current.datum = max.datum;
+				max.datum = obj;
+				current.left = remove(current.left, obj);
+				current = updateHeight(current);
+				current = balance(current);
+				current = updateHeight(current);
+			}
+		}
+		return current;
+	}
 
-	    repr.append("}");
+	/**
+	 * Determines if a node is a leaf.
+	 * 
+	 * @param tmp Node to analyze
+	 * @return {@code true} if the node has no children
+     *         {@code false} otherwise
+	 */
+	private boolean isLeaf(TreeNode tmp) {
+		if (tmp.left == null && tmp.right == null) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
 
-	    return repr.toString();
-	}	
+	/**
+	 * Return the maximum node in a tree.
+	 * Adapted from Figure 4.20 in the textbook.
+	 * 
+	 * @param current Root of tree to look in.
+	 * @return Node with the maximum value.
+	 * @author Adapted from Figure 4.20 in the textbook.
+	 */
+	private TreeNode maximum(TreeNode current) {
+		if (current != null) {
+			while( current.right != null) {
+				current = current.right;
+			}
+		}
+		return current;
+	}
 	
 	/**
-	 * Return a string of the tree contents.
+	 * Return the minimum node in a tree.
 	 * 
-	 * @param current
-	 * @return a {@code String} representation of the BST contents.
+	 * @param current Root of tree to look in.
+	 * @return Node with the minimum value.
 	 */
-	private String toString(TreeNode current) {
-		StringBuilder repr = new StringBuilder();
-		
-	    if (current != null) {
-	    	repr.append(toString(current.left));
-	    	repr.append(", ").append(current.datum);
-	    	//repr.append("-").append(current.height); // testing
-	    	repr.append(toString(current.right));
-	    }
-	    
-	    return repr.toString();
+	private TreeNode minimum(TreeNode current) {
+		if (current != null) {
+			while (current.left != null) {
+				current = current.left;
+			}
+		}
+		return current;
 	}
 	
 	/**
-     * Adds the specified object to the set.
+     * Returns the number of elements in the set.
      * 
-     * O(n):  Would iterate through entirely single branched trees like a list.
+     * O(1):  Not dependent on tree size.
      *
-     * @param obj object to be added to the set
+     * @return the number of elements in the set
      */
 	@Override
-	public void add(T obj) {
-		root = add(root, obj);
+	public int size() {
+		return size;
 	}
-	
+
 	/**
-	 * Recursively implements the public add operation.
+	 * Returns the element of the given rank, that is the element with
+	 * exactly {@code k} smaller elements in the set.
 	 * 
-	 * @param head Tree to be added to
-	 * @param obj Object to add to tree
-	 * @return Tree resulting from the add
+	 * O(log n):  Follows a single path using the subtree sizes.
+	 * 
+	 * @param k rank of the element, counting from 0
+	 * @return the element with rank k
+	 * @throws IndexOutOfBoundsException if k is out of range
+	 * 		(k < 0 || k >= size())
 	 */
-	private TreeNode add(TreeNode current, T obj) {
-		if (current == null) {
-			size++;
-			return new TreeNode(obj);
+	public T select(int k) throws IndexOutOfBoundsException {
+		if (k < 0 || k >= size) {
+			throw new IndexOutOfBoundsException();
 		}
-		else if (current.datum == obj) {
-			return current;
+		
+		TreeNode current = root;
+		while (true) {
+			int leftSize = size(current.left);
+			if (k < leftSize) {
+				current = current.left;
+			}
+			else if (k > leftSize) {
+				k -= leftSize + 1;
+				current = current.right;
+			}
+			else {
+				return current.datum;
+			}
 		}
-		else {
+	}
+	
+	/**
+	 * Returns the number of elements in the set that are less than the
+	 * given object.  The object does not have to be in the set.
+	 * 
+	 * O(log n):  Follows a single path using the subtree sizes.
+	 * 
+	 * @param obj object to rank
+	 * @return the number of elements less than obj
+	 */
+	public int rank(T obj) {
+		int rank = 0;
+		TreeNode current = root;
+		
+		while (current != null) {
 			int comparison = obj.compareTo(current.datum);
-			
-			if (comparison > 0) {
-				current.right = add(current.right, obj);
-				current = updateHeight(current);
-				current = balance(current);
-				current = updateHeight(current);
-				return current;
+			if (comparison < 0) {
+				current = current.left;
 			}
-			else if (comparison < 0) {
-				current.left = add(current.left, obj);
-				current = updateHeight(current);
-				current = balance(current);
-				current = updateHeight(current);
-				return current;
+			else if (comparison > 0) {
+				rank += size(current.left) + 1;
+				current = current.right;
+			}
+			else {
+				return rank + size(current.left);
 			}
 		}
-		return current;
+		return rank;
 	}
-
+	
 	/**
-     * Removes all of the elements from the set.
-     * 
-     * O(1):  Complexity not dependent on tree size.
-     */
+	 * Returns the number of elements in the set that are at least
+	 * {@code lo} and less than {@code hi}.
+	 * 
+	 * O(log n):  Two calls to {@code rank()}.
+	 * 
+	 * @param lo inclusive lower bound of the range, or {@code null} for none
+	 * @param hi exclusive upper bound of the range, or {@code null} for none
+	 * @return the number of elements in the range
+	 */
 	@Override
-	public void clear() {
-		root = null;
-		size = 0;
+	public int countInRange(T lo, T hi) {
+		if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+			return 0;
+		}
+		int from = lo == null ? 0 : rank(lo);
+		int to = hi == null ? size : rank(hi);
+		return to - from;
+	}
+	
+	/**
+	 * Removes every element in the range [lo, hi).  The tree is split at
+	 * both bounds and the outer pieces are joined back together, so the
+	 * elements of the range are dropped without being visited.
+	 * 
+	 * O(log n):  Two splits and one join.
+	 * 
+	 * @param lo inclusive lower bound of the range, or {@code null} for none
+	 * @param hi exclusive upper bound of the range, or {@code null} for none
+	 * @return the number of elements removed
+	 */
+	@Override
+	public int removeRange(T lo, T hi) {
+		if (countInRange(lo, hi) == 0) {
+			return 0;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			TreeNode below = null;
+			TreeNode rest = root;
+			if (lo != null) {
+				Split parts = splitBelow(rest, lo);
+				below = parts.left;
+				rest = parts.right;
+			}
+			TreeNode above = null;
+			if (hi != null) {
+				Split parts = splitBelow(rest, hi);
+				rest = parts.left;
+				above = parts.right;
+			}
+			root = join(below, above);
+			int removed = size(rest);
+			size -= removed;
+			modCount++;
+			return removed;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Moves the elements greater than or equal to the pivot into a new set
+	 * and returns it.  This set keeps the elements less than the pivot.
+	 * 
+	 * O(log n):  No elements are copied.
+	 * 
+	 * @param pivot least element that moves to the new set
+	 * @return a set of the elements greater than or equal to pivot
+	 */
+	public AVLSet<T> split(T pivot) {
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			Split parts = splitBelow(root, pivot);
+			AVLSet<T> upper = new AVLSet<T>();
+			root = parts.left;
+			size = size(root);
+			upper.root = parts.right;
+			upper.size = size(upper.root);
+			modCount++;
+			return upper;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Moves every element of the other set into this set.  Every element of
+	 * the other set must be greater than every element of this set.  The
+	 * other set is left empty.
+	 * 
+	 * O(log n):  No elements are copied.
+	 * 
+	 * @param other set of larger elements to append
+	 * @throws IllegalArgumentException if other is this set or the ranges
+	 * 		of the two sets overlap
+	 */
+	public void concat(AVLSet<T> other) {
+		if (other == this) {
+			throw new IllegalArgumentException("cannot concatenate a set with itself");
+		}
+		if (!isEmpty() && !other.isEmpty() && last().compareTo(other.first()) >= 0) {
+			throw new IllegalArgumentException("elements of other must be greater than the elements of this set");
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = join(root, other.root);
+			size += other.size;
+			other.root = null;
+			other.size = 0;
+			modCount++;
+			other.modCount++;
+			if (other.recorder != null) {
+				other.recorder.cleared();
+			}
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Adds every element of the other set to this set.  The nodes of the
+	 * other set are reused, so it is left empty.
+	 * 
+	 * O(m log(n/m + 1)):  For sets of sizes m <= n, which is less than
+	 * 		adding the m elements one at a time.
+	 * 
+	 * @param other set to merge into this set
+	 */
+	public void unionWith(AVLSet<T> other) {
+		if (other == this) {
+			return;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = union(root, other.root);
+			size = size(root);
+			other.clear();
+			modCount++;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Removes from this set every element that is not in the other set.
+	 * The other set is left unchanged.
+	 * 
+	 * O(m log(n/m + 1)):  For sets of sizes m <= n.
+	 * 
+	 * @param other set to intersect with
+	 */
+	public void intersectWith(AVLSet<T> other) {
+		if (other == this) {
+			return;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = intersection(root, other.root);
+			size = size(root);
+			modCount++;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Removes from this set every element that is in the other set.  The
+	 * other set is left unchanged.
+	 * 
+	 * O(m log(n/m + 1)):  For sets of sizes m <= n.
+	 * 
+	 * @param other set of elements to remove
+	 */
+	public void differenceWith(AVLSet<T> other) {
+		if (other == this) {
+			clear();
+			return;
+		}
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = difference(root, other.root);
+			size = size(root);
+			modCount++;
+		}
+		finally {
+			resumeRecorder(attached);
+		}
+	}
+	
+	/**
+	 * Adds every element of the other set to this set, working on disjoint
+	 * key ranges of the two sets in parallel on the given pool.  The other
+	 * set is left empty.
+	 * 
+	 * O(m log(n/m + 1)):  Total work for sets of sizes m <= n, spread over
+	 * 		the threads of the pool.
+	 * 
+	 * @param other set to merge into this set
+	 * @param pool pool to run the operation on
+	 */
+	public void unionWith(AVLSet<T> other, ForkJoinPool pool) {
+		parallel(Operation.UNION, other, pool);
+	}
+	
+	/**
+	 * Removes from this set every element that is not in the other set,
+	 * working in parallel on the given pool.  The other set is left
+	 * unchanged.
+	 * 
+	 * O(m log(n/m + 1)):  Total work for sets of sizes m <= n.
+	 * 
+	 * @param other set to intersect with
+	 * @param pool pool to run the operation on
+	 */
+	public void intersectWith(AVLSet<T> other, ForkJoinPool pool) {
+		parallel(Operation.INTERSECTION, other, pool);
 	}
-
+	
 	/**
-     * Returns {@code true} if the set contains the specified object and
-     * {@code false} otherwise.
-     * 
-     * O(n):  Would iterate through entirely single branched trees like a list.
-     *
-     * @param obj the object to find in the set
-     * @return {@code true} if the set contains the specified object and
-     *         {@code false} otherwise
-     */
-	@Override
-	public boolean contains(T obj) {
-		return contains(root, obj);
+	 * Removes from this set every element that is in the other set, working
+	 * in parallel on the given pool.  The other set is left unchanged.
+	 * 
+	 * O(m log(n/m + 1)):  Total work for sets of sizes m <= n.
+	 * 
+	 * @param other set of elements to remove
+	 * @param pool pool to run the operation on
+	 */
+	public void differenceWith(AVLSet<T> other, ForkJoinPool pool) {
+		parallel(Operation.DIFFERENCE, other, pool);
 	}
-
+	
 	/**
-	 * Recursively implements the public contains function.
+	 * Runs a set operation with the other set on the pool and takes the
+	 * result as the new contents of this set.  Only a union takes over the
+	 * nodes of the other set and leaves it empty.
 	 * 
-	 * @param current The tree to be searched in.
-	 * @param obj The object to look for.
-	 * @return {@code true} if the set contains the specified object and
-     *         {@code false} otherwise
-     * @author Adapted from Figure 4.18 in the textbook.
+	 * @param operation operation to perform
+	 * @param other set on the right of the operation
+	 * @param pool pool to run the operation on
 	 */
-	private boolean contains(TreeNode current, T obj) {
-		if (current == null) {
-			return false;
-		}
-		
-		int comparison = obj.compareTo(current.datum);
-		
-		if (comparison < 0) {
-			return contains(current.left, obj);
+	private void parallel(Operation operation, AVLSet<T> other, ForkJoinPool pool) {
+		if (other == this) {
+			if (operation == Operation.DIFFERENCE) {
+				clear();
+			}
+			return;
 		}
-		else if (comparison > 0) {
-			return contains(current.right, obj);
+		RebalanceRecorder<T> attached = suspendRecorder();
+		try {
+			root = pool.invoke(new SetTask(operation, root, other.root));
+			size = size(root);
+			if (operation == Operation.UNION) {
+				other.clear();
+			}
+			modCount++;
 		}
-		else {
-			return true;
+		finally {
+			resumeRecorder(attached);
 		}
 	}
 	
 	/**
-     * Returns {@code true} if the set is empty and {@code false} otherwise.
-     * 
-     * O(1):  Complexity not dependent on tree size.
-     *
-     * @return {@code true} if the set is empty and {@code false} otherwise
-     */
+	 * Returns the least element of the set.
+	 * 
+	 * O(log n):  Follows the left most path of the tree.
+	 * 
+	 * @return the least element of the set
+	 * @throws NoSuchElementException if the set is empty
+	 */
 	@Override
-	public boolean isEmpty() {
-		if (size == 0) {
-			return true;
+	public T first() {
+		if (root == null) {
+			throw new NoSuchElementException();
 		}
-		else {
-			return false;
+		TreeNode current = root;
+		while (current.left != null) {
+			current = current.left;
 		}
+		return current.datum;
 	}
-
+	
 	/**
-     * Remove the specified object from the set, if it is present.
-     * 
-     * O(n):  Would iterate through entirely single branched trees like
-     * 		a list to find the node to remove.  In the most complex case
-     * 		of removal it would also have to iterate through the provided
-     * 		sub-tree to remove the swapped value.
-     *
-     * @param obj the object to remove
-     * @return {@code true} if the set contained the specified object and
-     *         {@code false} otherwise
-     */
+	 * Returns the greatest element of the set.
+	 * 
+	 * O(log n):  Follows the right most path of the tree.
+	 * 
+	 * @return the greatest element of the set
+	 * @throws NoSuchElementException if the set is empty
+	 */
 	@Override
-	public boolean remove(T obj) {
-		int startSize = size;
-		root = remove(root, obj);
-		if (size != startSize) {
-			return true;
-		}
-		else {
-			return false;
+	public T last() {
+		if (root == null) {
+			throw new NoSuchElementException();
 		}
+		return maximum(root).datum;
 	}
 	
 	/**
-	 * Recursively implements the public remove method.
+	 * Returns the greatest element less than or equal to the given object,
+	 * or {@code null} if there is none.
 	 * 
-	 * @param current tree to look in.
-	 * @param obj The object to remove.
-	 * @return Resulting tree after removal.
+	 * O(log n):  Follows a single path of the balanced tree.
+	 * 
+	 * @param obj the object to compare against
+	 * @return the greatest element {@code <= obj}, or {@code null}
 	 */
-	private TreeNode remove(TreeNode current, T obj) {
-		if (current == null) {
-			return current;
-		}
-		
-		int comparison = obj.compareTo(current.datum);
-		
-		if (comparison < 0) {
-			current.left = remove(current.left, obj);
-			current = updateHeight(current);
-			current = balance(current);
-			current = updateHeight(current);
-		}
-		else if (comparison > 0) {
-			current.right = remove(current.right, obj);
-			current = updateHeight(current);
-			current = balance(current);
-			current = updateHeight(current);
-		}
-		else if (comparison == 0) {
-			if(isLeaf(current)) {
-				current = null;
-				size--;
+	@Override
+	public T floor(T obj) {
+		return below(obj, true);
+	}
+	
+	/**
+	 * Returns the greatest element strictly less than the given object, or
+	 * {@code null} if there is none.
+	 * 
+	 * O(log n):  Follows a single path of the balanced tree.
+	 * 
+	 * @param obj the object to compare against
+	 * @return the greatest element {@code < obj}, or {@code null}
+	 */
+	@Override
+	public T lower(T obj) {
+		return below(obj, false);
+	}
+	
+	/**
+	 * Returns the least element greater than or equal to the given object,
+	 * or {@code null} if there is none.
+	 * 
+	 * O(log n):  Follows a single path of the balanced tree.
+	 * 
+	 * @param obj the object to compare against
+	 * @return the least element {@code >= obj}, or {@code null}
+	 */
+	@Override
+	public T ceiling(T obj) {
+		return above(obj, true);
+	}
+	
+	/**
+	 * Returns the least element strictly greater than the given object, or
+	 * {@code null} if there is none.
+	 * 
+	 * O(log n):  Follows a single path of the balanced tree.
+	 * 
+	 * @param obj the object to compare against
+	 * @return the least element {@code > obj}, or {@code null}
+	 */
+	@Override
+	public T higher(T obj) {
+		return above(obj, false);
+	}
+	
+	/**
+	 * Implements {@code floor()} and {@code lower()} by walking down the
+	 * tree and remembering the last node passed on the left of obj.
+	 * 
+	 * @param obj the object to compare against
+	 * @param inclusive {@code true} if an element equal to obj counts
+	 * @return the closest element below obj, or {@code null}
+	 */
+	private T below(T obj, boolean inclusive) {
+		T best = null;
+		TreeNode current = root;
+		while (current != null) {
+			int comparison = obj.compareTo(current.datum);
+			if (comparison > 0 || (comparison == 0 && inclusive)) {
+				best = current.datum;
+				if (comparison == 0) {
+					return best;
+				}
+				current = current.right;
 			}
-			else if (current.left != null && current.right == null) {
+			else {
 				current = current.left;
-				size--;
 			}
-			else if (current.left == null && current.right != null) {
-				current = current.right;
-				size--;
+		}
+		return best;
+	}
+	
+	/**
+	 * Implements {@code ceiling()} and {@code higher()} by walking down the
+	 * tree and remembering the last node passed on the right of obj.
+	 * 
+	 * @param obj the object to compare against
+	 * @param inclusive {@code true} if an element equal to obj counts
+	 * @return the closest element above obj, or {@code null}
+	 */
+	private T above(T obj, boolean inclusive) {
+		T best = null;
+		TreeNode current = root;
+		while (current != null) {
+			int comparison = obj.compareTo(current.datum);
+			if (comparison < 0 || (comparison == 0 && inclusive)) {
+				best = current.datum;
+				if (comparison == 0) {
+					return best;
+				}
+				current = current.left;
 			}
 			else {
-				TreeNode max = maximum(current.left);
-				current.datum = max.datum;
-				max.datum = obj;
-				current.left = remove(current.left, obj);
+				current = current.right;
 			}
 		}
-		return current;
+		return best;
 	}
-
+	
 	/**
-	 * Determines if a node is a leaf.
+	 * Returns a live view of the elements in the range [lo, hi).
 	 * 
-	 * @param tmp Node to analyze
-	 * @return {@code true} if the node has no children
-     *         {@code false} otherwise
+	 * O(1):  The view holds only its bounds, its operations cost the same
+	 * 		as the matching operations on this set.
+	 * 
+	 * @param lo inclusive lower bound of the view, or {@code null} for none
+	 * @param hi exclusive upper bound of the view, or {@code null} for none
+	 * @return a view of the elements in the range
+	 * @throws IllegalArgumentException if lo is greater than hi
 	 */
-	private boolean isLeaf(TreeNode tmp) {
-		if (tmp.left == null && tmp.right == null) {
-			return true;
-		}
-		else {
-			return false;
-		}
+	@Override
+	public OrderedSet<T> subSet(T lo, T hi) {
+		return new SubSetView<T>(this, lo, hi);
 	}
-
+	
 	/**
-	 * Return the maximum node in a tree.
-	 * Adapted from Figure 4.20 in the textbook.
+	 * Returns a live view of the elements less than {@code hi}.
 	 * 
-	 * @param current Root of tree to look in.
-	 * @return Node with the maximum value.
-	 * @author Adapted from Figure 4.20 in the textbook.
+	 * O(1):  See {@code subSet()}.
+	 * 
+	 * @param hi exclusive upper bound of the view, or {@code null} for none
+	 * @return a view of the elements less than hi
 	 */
-	private TreeNode maximum(TreeNode current) {
-		if (current != null) {
-			while( current.right != null) {
-				current = current.right;
-			}
-		}
-		return current;
+	@Override
+	public OrderedSet<T> headSet(T hi) {
+		return new SubSetView<T>(this, null, hi);
 	}
 	
 	/**
-     * Returns the number of elements in the set.
-     * 
-     * O(1):  Not dependent on tree size.
-     *
-     * @return the number of elements in the set
-     */
+	 * Returns a live view of the elements greater than or equal to
+	 * {@code lo}.
+	 * 
+	 * O(1):  See {@code subSet()}.
+	 * 
+	 * @param lo inclusive lower bound of the view, or {@code null} for none
+	 * @return a view of the elements greater than or equal to lo
+	 */
 	@Override
-	public int size() {
-		return size;
+	public OrderedSet<T> tailSet(T lo) {
+		return new SubSetView<T>(this, lo, null);
 	}
-
+	
 	/**
      * Returns an array containing all of the objects in the set in the proper
      * order (from least to greatest).
@@ -567,12 +2144,8 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
      */
 	@Override
 	public Object[] toArray() {
-		if (isEmpty()) {
-	        return null;
-	    }
-
 		Object[] data = new Object[size];
-		Iterator iTree = new Iterator(root);
+		NodeIterator iTree = new NodeIterator(root);
 
 	    for (int i = 0; i < size; i++) {
 	        data[i] = iTree.next().datum;
@@ -595,66 +2168,135 @@ public class AVLSet<T extends Comparable<T>> implements Set<T>, GraphVizWriteabl
      * @author Gregory Gelfond (ggelfond@unomaha.edu)
      */
     public String graphvizForm() {
-        return graphvizForm(root);
+        StringBuilder repr = new StringBuilder();
+        try {
+            graphvizForm(repr);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return repr.toString();
     }
 
     /**
-     * Generates a string containing the GraphVis representation of the tree
-     * 
-     * @author Gregory Gelfond (ggelfond@unomaha.edu)
-     * 
-     * @param t tree to output
-     * @return string of GraphVis format
+     * Writes the GraphViz dot file representation of the tree to the given
+     * {@code Appendable} as it walks the tree, leaving out everything deeper
+     * than {@code maxDepth} and everything after the first {@code maxNodes}
+     * nodes.  Each subtree left out is drawn as a single "..." node.
+     *
+     * The tree is walked by {@code GraphVizWriteable.graphvizTree()},
+     * which keeps its own stack rather than recursing, so a degenerate tree
+     * cannot overflow the call stack.
+     *
+     * O(n):  Visits each written node once, with O(h) extra memory.
+     *
+     * @param out destination of the dot file
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @throws IOException if out throws one
      */
-    private String graphvizForm(TreeNode t) {
-        StringBuilder repr = new StringBuilder();
-
-        repr.append("digraph G {\n");
-        repr.append("graph [ dpi = 70 ]\n");
-        repr.append("nodesep=0.3;\n");
-        repr.append("ranksep=0.2;\n");
-        repr.append("margin=0.1;\n");
-        repr.append("node [shape=circle];\n");
-        repr.append("edge [arrowsize=0.8];\n");
-
-        StringBuilder content = graphvizForm(new StringBuilder(), t, 1);
-
-        repr.append(content);
-        repr.append("}");
+    @Override
+    public void graphvizForm(Appendable out, int maxDepth, long maxNodes) throws IOException {
+        graphvizForm(out, maxDepth, maxNodes, false);
+    }
 
-        return repr.toString();
+    /**
+     * Writes the top {@code levels} levels of the tree node for node and
+     * each subtree below them as a single box labelled with its size, its
+     * height and the range of its elements.  Size and height are kept in
+     * every node and the range is found by walking the two spines of the
+     * subtree, so a box costs O(log n) however large its subtree is.
+     *
+     * O(k log n):  For k nodes and boxes written, independent of the size
+     * 		of the tree.
+     *
+     * @param out destination of the dot file
+     * @param levels number of levels written in full
+     * @throws IOException if out throws one
+     */
+    @Override
+    public void graphvizSummary(Appendable out, int levels) throws IOException {
+        graphvizForm(out, levels - 1, Long.MAX_VALUE, true);
     }
-    
-	/**
-     * @author Gregory Gelfond (ggelfond@unomaha.edu)
+
+    /**
+     * Walks the tree for {@code graphvizForm()} and
+     * {@code graphvizSummary()}.
+     *
+     * @param out destination of the dot file
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @param summarize {@code true} to draw each subtree below maxDepth as
+     *        a box describing it rather than as "..."
+     * @throws IOException if out throws one
      */
-    private StringBuilder graphvizForm(StringBuilder repr, TreeNode t, int base) {
-        // if the given tree is empty, do nothing
-        if (t == null) {
-            return repr;
-        }
+    private void graphvizForm(Appendable out, int maxDepth, long maxNodes, final boolean summarize) throws IOException {
+        GraphVizWriteable.graphvizTree(out, root, new GraphVizWriteable.TreeShape<TreeNode>() {
+            @Override
+            public TreeNode left(TreeNode node) {
+                return node.left;
+            }
 
-        // Add to the representation the datum associated with the given node
-        //repr.append(String.format("node%d [label=\"%s\"];\n", base, t.datum));
-        repr.append(String.format("node%d [label=\"%s-%s\"];\n", base, t.datum, t.height));	// height testing
+            @Override
+            public TreeNode right(TreeNode node) {
+                return node.right;
+            }
 
-        // enumerate the left and right subtrees
-        int left = 2 * base;
-        int right = 2 * base + 1;
+            @Override
+            public String label(TreeNode node) {
+                return node.datum + "-" + node.height;
+            }
 
-        // add the content of the left subtree to our representation
-        if (t.left != null) {
-            repr.append(String.format("node%d -> node%d;\n", base, left));
-            graphvizForm(repr, t.left, left);
-        }
+            @Override
+            public boolean subtree(Appendable out, long id, TreeNode node) throws IOException {
+                if (summarize) {
+                    GraphVizWriteable.graphvizSubtree(out, id, node.size, node.height, minimum(node).datum,
+                            maximum(node).datum);
+                }
+                return summarize;
+            }
+        }, 70, null, maxDepth, maxNodes);
+    }
 
-        // add the content of the right subtree to our representation
-        if (t.right != null) {
-            repr.append(String.format("node%d -> node%d;\n", base, right));
-            graphvizForm(repr, t.right, right);
-        }
+	/**
+	 * Returns a fail-fast iterator over the elements of the tree from
+	 * least to greatest.
+	 * 
+	 * O(1):  Amortized per step, the path to the next node is kept on a
+	 * 		stack.
+	 * 
+	 * @return an iterator over the elements of the tree
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator();
+	}
 
-        return repr;
-    }
+	/**
+	 * Returns a fail-fast iterator over the elements in the range [lo, hi)
+	 * from least to greatest.
+	 * 
+	 * O(log n + k):  The path to the first element of the range is pushed
+	 * 		once, then each of the k elements is amortized O(1).
+	 * 
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @return an iterator over the elements in the range
+	 */
+	@Override
+	public Iterator<T> iterator(T lo, T hi) {
+		return new SetIterator(lo, hi);
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the tree that splits at
+	 * subtree boundaries.
+	 * 
+	 * @return a spliterator over the elements of the tree
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(root, null, modCount);
+	}
 
 }
@@ -0,0 +1,636 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the provided Set interface with an AVL tree whose
+ * nodes live in parallel arrays rather than in {@code TreeNode} objects.
+ * A node is an {@code int} index into {@code datum}, {@code left},
+ * {@code right} and {@code height}, with {@code NIL} standing in for a
+ * missing child.  Removed slots are kept on a free list and reused by later
+ * additions.
+ *
+ * The balancing logic is the same as in {@code AVLSet}.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class ArrayAVLSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Holds the index used for a missing node.
+	 */
+	private static final int NIL = -1;
+
+	/**
+	 * Holds the number of node slots allocated by the default constructor.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * This class defines a fail-fast iterator over the elements of the set
+	 * in order.  The path to the next node is kept on an {@code int} stack.
+	 *
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private int[] stack = new int[height(root) + 2];
+		private int top = 0;
+		private int expectedModCount = modCount;
+
+		/**
+		 * Creates an iterator positioned at the least element.
+		 */
+		SetIterator() {
+			pushLeft(root);
+		}
+
+		/**
+		 * Pushes the left most path of the subtree onto the stack.
+		 *
+		 * @param node subtree to use
+		 */
+		private void pushLeft(int node) {
+			while (node != NIL) {
+				stack[top++] = node;
+				node = left[node];
+			}
+		}
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return top > 0;
+		}
+
+		/**
+		 * Returns the next element of the set.
+		 *
+		 * @return the next element of the set
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the set was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (top == 0) {
+				throw new NoSuchElementException();
+			}
+			int node = stack[--top];
+			pushLeft(right[node]);
+			return datum(node);
+		}
+	}
+
+	/**
+	 * This class defines a spliterator over a subtree followed by an
+	 * optional single node, as {@code AVLSet.TreeSpliterator} does.
+	 * Splitting hands the left subtree and the root to a new spliterator
+	 * and keeps the right subtree, so the work divides along subtree
+	 * boundaries.  Nodes do not keep subtree sizes, so only the spliterator
+	 * over the whole set knows its size exactly and each split halves the
+	 * estimate, as for a {@code TreeMap}.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeSpliterator implements Spliterator<T> {
+		private int subtree;
+		private int after;
+		private int[] stack;
+		private int top;
+		private long estimate;
+		private boolean exact;
+		private int expectedModCount;
+
+		/**
+		 * Creates a spliterator over a subtree followed by a single node.
+		 *
+		 * @param subtree subtree to visit first
+		 * @param after node to visit last, or {@code NIL}
+		 * @param estimate number of elements, exact or estimated
+		 * @param exact {@code true} if estimate is exact
+		 * @param expectedModCount modification count the set must keep
+		 */
+		TreeSpliterator(int subtree, int after, long estimate, boolean exact, int expectedModCount) {
+			this.subtree = subtree;
+			this.after = after;
+			this.estimate = estimate;
+			this.exact = exact;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (stack != null || subtree == NIL) {
+				return null;
+			}
+			int split = subtree;
+			subtree = right[split];
+			estimate >>>= 1;
+			exact = false;
+			return new TreeSpliterator(left[split], split, estimate, false, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (stack == null) {
+				stack = new int[height(subtree) + 2];
+				for (int node = subtree; node != NIL; node = left[node]) {
+					stack[top++] = node;
+				}
+			}
+			int node;
+			if (top > 0) {
+				node = stack[--top];
+				for (int child = right[node]; child != NIL; child = left[child]) {
+					stack[top++] = child;
+				}
+			}
+			else if (after != NIL) {
+				node = after;
+				after = NIL;
+			}
+			else {
+				return false;
+			}
+			if (estimate > 0) {
+				estimate--;
+			}
+			action.accept(datum(node));
+			return true;
+		}
+
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return (exact ? Spliterator.SIZED : 0) | Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT;
+		}
+
+		@Override
+		public Comparator<? super T> getComparator() {
+			return null;
+		}
+	}
+
+	/**
+	 * Holds the element stored in each node.
+	 */
+	private Object[] datum;
+
+	/**
+	 * Holds the left child of each node, or the next free slot for a node
+	 * on the free list.
+	 */
+	private int[] left;
+
+	/**
+	 * Holds the right child of each node.
+	 */
+	private int[] right;
+
+	/**
+	 * Holds the height of each node.
+	 */
+	private int[] height;
+
+	/**
+	 * Holds the index of the root node.
+	 */
+	private int root;
+
+	/**
+	 * Holds the first slot of the free list.
+	 */
+	private int free;
+
+	/**
+	 * Holds the number of slots that have ever been handed out.
+	 */
+	private int used;
+
+	/**
+	 * Holds the number of nodes of the tree;
+	 */
+	private int size;
+
+	/**
+	 * Holds the number of structural modifications made to the set so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	public ArrayAVLSet() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty set with room for the given number of nodes
+	 * before the arrays have to grow.
+	 *
+	 * @param capacity initial number of node slots
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	public ArrayAVLSet(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		datum = new Object[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		height = new int[capacity];
+		root = NIL;
+		free = NIL;
+		used = 0;
+		size = 0;
+	}
+
+	/**
+	 * Returns the element stored in a node.
+	 *
+	 * @param node index of the node
+	 * @return the element of the node
+	 */
+	@SuppressWarnings("unchecked")
+	private T datum(int node) {
+		return (T) datum[node];
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for {@code NIL}.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(int node) {
+		if (node == NIL) {
+			return -1;
+		}
+		else {
+			return height[node];
+		}
+	}
+
+	/**
+	 * Takes a slot from the free list, or from the end of the arrays when
+	 * the free list is empty, and fills it in as a leaf.
+	 *
+	 * @param obj element of the new node
+	 * @return index of the new node
+	 */
+	private int allocate(T obj) {
+		int node;
+		if (free != NIL) {
+			node = free;
+			free = left[node];
+		}
+		else {
+			if (used == datum.length) {
+				int capacity = Math.max(DEFAULT_CAPACITY, datum.length + (datum.length >> 1));
+				datum = Arrays.copyOf(datum, capacity);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				height = Arrays.copyOf(height, capacity);
+			}
+			node = used++;
+		}
+		datum[node] = obj;
+		left[node] = NIL;
+		right[node] = NIL;
+		height[node] = 0;
+		return node;
+	}
+
+	/**
+	 * Returns a slot to the free list.
+	 *
+	 * @param node index of the node to release
+	 */
+	private void release(int node) {
+		datum[node] = null;
+		left[node] = free;
+		free = node;
+	}
+
+	/**
+	 * Updates the height of given node based on heights of its children.
+	 *
+	 * @param current Node to update height of
+	 * @return the updated node
+	 */
+	private int updateHeight(int current) {
+		height[current] = 1 + Math.max(height(left[current]), height(right[current]));
+		return current;
+	}
+
+	/**
+	 * Balances the tree from the perspective of the given node.
+	 * This is done by determining the scenario and performing
+	 * either left or right rotations.
+	 *
+	 * @param current node to balance at
+	 * @return balanced tree
+	 */
+	private int balance(int current) {
+		if (height(left[current]) - height(right[current]) > 1) { // scenario 1 or 2
+			if (height(left[left[current]]) >= height(right[left[current]])) { // scenario 1 - single right rotation
+				current = rightRotation(current);
+			}
+			else { // scenario 2 - double rotation - left then right
+				left[current] = leftRotation(left[current]);
+				current = rightRotation(current);
+			}
+		}
+		else if (height(right[current]) - height(left[current]) > 1) { // scenario 3 or 4
+			if (height(right[right[current]]) >= height(left[right[current]])) { // scenario 4 - single left rotation
+				current = leftRotation(current);
+			}
+			else { // scenario 3 - double rotation - right then left
+				right[current] = rightRotation(right[current]);
+				current = leftRotation(current);
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Performs a right rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private int rightRotation(int current) {
+		int rt = left[current];
+		left[current] = right[rt];
+		right[rt] = current;
+		updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Performs a left rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private int leftRotation(int current) {
+		int rt = right[current];
+		right[current] = left[rt];
+		left[rt] = current;
+		updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Iterates through entire tree.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (T obj : this) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+     * Adds the specified object to the set.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param obj object to be added to the set
+     */
+	@Override
+	public void add(T obj) {
+		root = add(root, obj);
+	}
+
+	/**
+	 * Recursively implements the public add operation.
+	 *
+	 * @param current Tree to be added to
+	 * @param obj Object to add to tree
+	 * @return Tree resulting from the add
+	 */
+	private int add(int current, T obj) {
+		if (current == NIL) {
+			size++;
+			modCount++;
+			return allocate(obj);
+		}
+		int comparison = obj.compareTo(datum(current));
+		// allocate() may replace the arrays, so the child index is stored
+		// only after the recursive call has returned
+		if (comparison < 0) {
+			int child = add(left[current], obj);
+			left[current] = child;
+		}
+		else if (comparison > 0) {
+			int child = add(right[current], obj);
+			right[current] = child;
+		}
+		else {
+			return current;
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+     * Removes all of the elements from the set.
+     *
+     * O(n):  The slots are cleared so their elements can be collected.
+     */
+	@Override
+	public void clear() {
+		Arrays.fill(datum, 0, used, null);
+		root = NIL;
+		free = NIL;
+		used = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+     * Returns {@code true} if the set contains the specified object and
+     * {@code false} otherwise.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param obj the object to find in the set
+     * @return {@code true} if the set contains the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean contains(T obj) {
+		int current = root;
+		while (current != NIL) {
+			int comparison = obj.compareTo(datum(current));
+			if (comparison < 0) {
+				current = left[current];
+			}
+			else if (comparison > 0) {
+				current = right[current];
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+     * Returns {@code true} if the set is empty and {@code false} otherwise.
+     *
+     * O(1):  Complexity not dependent on tree size.
+     *
+     * @return {@code true} if the set is empty and {@code false} otherwise
+     */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+     * Remove the specified object from the set, if it is present.
+     *
+     * O(log n):  Follows a single path of the balanced tree, plus the path
+     * 		to the predecessor when the node has two children.
+     *
+     * @param obj the object to remove
+     * @return {@code true} if the set contained the specified object and
+     *         {@code false} otherwise
+     */
+	@Override
+	public boolean remove(T obj) {
+		int startSize = size;
+		root = remove(root, obj);
+		return size != startSize;
+	}
+
+	/**
+	 * Recursively implements the public remove method.
+	 *
+	 * @param current tree to look in.
+	 * @param obj The object to remove.
+	 * @return Resulting tree after removal.
+	 */
+	private int remove(int current, T obj) {
+		if (current == NIL) {
+			return NIL;
+		}
+		int comparison = obj.compareTo(datum(current));
+		if (comparison < 0) {
+			int child = remove(left[current], obj);
+			left[current] = child;
+		}
+		else if (comparison > 0) {
+			int child = remove(right[current], obj);
+			right[current] = child;
+		}
+		else if (left[current] == NIL || right[current] == NIL) {
+			int child = left[current] != NIL ? left[current] : right[current];
+			release(current);
+			size--;
+			modCount++;
+			return child;
+		}
+		else {
+			int max = left[current];
+			while (right[max] != NIL) {
+				max = right[max];
+			}
+			datum[current] = datum[max];
+			int child = remove(left[current], datum(max));
+			left[current] = child;
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+     * Returns the number of elements in the set.
+     *
+     * O(1):  Not dependent on tree size.
+     *
+     * @return the number of elements in the set
+     */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+     * Returns an array containing all of the objects in the set in the proper
+     * order (from least to greatest).
+     *
+     * O(n):  Visits the entire tree.
+     *
+     * @return an array containing the objects in the set
+     */
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size];
+		int i = 0;
+		for (T obj : this) {
+			data[i++] = obj;
+		}
+		return data;
+	}
+
+	/**
+	 * Returns a fail-fast iterator over the elements of the set from least
+	 * to greatest.
+	 *
+	 * O(1):  Amortized per step, the path to the next node is kept on a
+	 * 		stack.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the set that splits at
+	 * subtree boundaries.
+	 *
+	 * @return a spliterator over the elements of the set
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(root, NIL, size, true, modCount);
+	}
+
+}
@@ -0,0 +1,891 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class times the Set implementations on inputs large enough to
+ * expose their asymptotic behaviour.  Each {@code bench*} method covers one
+ * comparison and prints one line per measurement.
+ *
+ * The timings are wall clock measurements taken with {@code System.nanoTime}
+ * and the memory figures come from the heap usage reported by
+ * {@code Runtime} after a collection, so they are only meant to show trends
+ * rather than precise figures.
+ *
+ * @author Megan Bird
+ */
+public class Benchmark {
+
+	/**
+	 * Accumulates values read during a benchmark so the reads cannot be
+	 * optimized away.
+	 */
+	private static long sink;
+
+	public static void main(String[] args) {
+
+		// IntAVLSet against AVLSet<Integer>
+		benchIntAVLSet();
+
+		// ArrayAVLSet against AVLSet
+		benchArrayAVLSet();
+
+		// bulk loading against one add() per element
+		benchBulkLoad();
+
+		// sorted batches merged in one traversal against add() and remove() loops
+		benchSortedBatch();
+
+		// join based set algebra against add() and remove() loops
+		benchSetAlgebra();
+
+		// parallel set algebra and bulk loading from 1 to all cores
+		benchParallelScaling();
+
+		// lock-free skip list against a locked AVLSet under contention
+		benchConcurrentSets();
+
+		// optimistic AVL tree against the skip list and a locked AVLSet, 95% reads
+		benchReadMostly();
+
+		// range sharded AVLSet against a locked AVLSet, half writes
+		benchShardedWrites();
+
+		// memory of retained persistent snapshots against toArray() copies
+		benchSnapshots();
+
+		// flat combining against a locked AVLSet, mostly adds
+		benchFlatCombining();
+
+		// threaded successor links against the stack walk of AVLSet
+		benchThreadedIteration();
+
+		// dot file of a large tree built in memory against streamed to disk
+		benchGraphViz();
+
+		// recording and exporting rotations against re-rendering every add
+		benchRebalanceRecording();
+
+		// summary of the top levels of a large tree against the whole tree
+		benchGraphVizSummary();
+
+		// toString() of a large set against a limited appendTo()
+		benchToString();
+
+		// restart from a snapshot file against adding every key again
+		benchSnapshotLoad();
+
+	}
+
+	private static void report(String method, int n, int ops, long nanos) {
+		System.out.printf("%-40s n=%-10d %10.2f ms %10.2f ns/op\n",
+				method, n, nanos / 1e6, (double) nanos / ops);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static int[] randomValues(int n) {
+		Random random = new Random(n);
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = random.nextInt();
+		}
+		return values;
+	}
+
+	private static void benchIntAVLSet() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+
+		for (int round = 0; round < 3; round++) {
+			long before = usedMemory();
+			long start = System.nanoTime();
+			IntAVLSet primitive = new IntAVLSet();
+			for (int i = 0; i < n; i++) {
+				primitive.add(values[i]);
+			}
+			long elapsed = System.nanoTime() - start;
+			long bytes = usedMemory() - before;
+			report("IntAVLSet add(int)", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "IntAVLSet", (double) bytes / primitive.size());
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				if (primitive.contains(values[i])) {
+					sink++;
+				}
+			}
+			report("IntAVLSet contains(int)", n, n, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				primitive.remove(values[i]);
+			}
+			report("IntAVLSet remove(int)", n, n, System.nanoTime() - start);
+
+			before = usedMemory();
+			start = System.nanoTime();
+			AVLSet<Integer> boxed = new AVLSet<Integer>();
+			for (int i = 0; i < n; i++) {
+				boxed.add(values[i]);
+			}
+			elapsed = System.nanoTime() - start;
+			bytes = usedMemory() - before;
+			report("AVLSet<Integer> add(T obj)", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "AVLSet<Integer>", (double) bytes / boxed.size());
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				if (boxed.contains(values[i])) {
+					sink++;
+				}
+			}
+			report("AVLSet<Integer> contains(T obj)", n, n, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				boxed.remove(values[i]);
+			}
+			report("AVLSet<Integer> remove(T obj)", n, n, System.nanoTime() - start);
+		}
+	}
+
+	private static void benchArrayAVLSet() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+		Integer[] boxedValues = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			boxedValues[i] = values[i];
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long before = usedMemory();
+			long start = System.nanoTime();
+			ArrayAVLSet<Integer> arrays = new ArrayAVLSet<Integer>();
+			for (int i = 0; i < n; i++) {
+				arrays.add(boxedValues[i]);
+			}
+			long elapsed = System.nanoTime() - start;
+			long bytes = usedMemory() - before;
+			report("ArrayAVLSet add(T obj)", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "ArrayAVLSet", (double) bytes / arrays.size());
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				if (arrays.contains(boxedValues[i])) {
+					sink++;
+				}
+			}
+			report("ArrayAVLSet contains(T obj)", n, n, System.nanoTime() - start);
+
+			before = usedMemory();
+			start = System.nanoTime();
+			AVLSet<Integer> nodes = new AVLSet<Integer>();
+			for (int i = 0; i < n; i++) {
+				nodes.add(boxedValues[i]);
+			}
+			elapsed = System.nanoTime() - start;
+			bytes = usedMemory() - before;
+			report("AVLSet add(T obj)", n, n, elapsed);
+			System.out.printf("%-40s %.1f bytes/element\n", "AVLSet", (double) bytes / nodes.size());
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				if (nodes.contains(boxedValues[i])) {
+					sink++;
+				}
+			}
+			report("AVLSet contains(T obj)", n, n, System.nanoTime() - start);
+		}
+	}
+
+	private static void benchBulkLoad() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+		Integer[] shuffled = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			shuffled[i] = values[i];
+		}
+		Integer[] sorted = shuffled.clone();
+		Arrays.sort(sorted);
+		int unique = 1;
+		for (int i = 1; i < n; i++) {
+			if (!sorted[i].equals(sorted[unique - 1])) {
+				sorted[unique++] = sorted[i];
+			}
+		}
+		sorted = Arrays.copyOf(sorted, unique);
+
+		for (int round = 0; round < 3; round++) {
+			// collect the previous round first so it is not charged to this one
+			usedMemory();
+			long start = System.nanoTime();
+			AVLSet<Integer> added = new AVLSet<Integer>();
+			for (int i = 0; i < sorted.length; i++) {
+				added.add(sorted[i]);
+			}
+			report("AVLSet add(T obj) sorted", sorted.length, sorted.length, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			AVLSet<Integer> built = AVLSet.fromSorted(sorted);
+			report("AVLSet fromSorted(T[] sorted)", sorted.length, sorted.length, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			AVLSet<Integer> loaded = new AVLSet<Integer>();
+			loaded.addAll(shuffled);
+			report("AVLSet addAll(T[] objs) unsorted", n, n, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(sorted);
+			report("BinarySearchTree fromSorted(T[] sorted)", sorted.length, sorted.length, System.nanoTime() - start);
+
+			sink += added.size() + built.size() + loaded.size() + tree.size();
+		}
+	}
+
+	private static void benchSortedBatch() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+		Integer[] large = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			large[i] = values[i];
+		}
+
+		for (int k : new int[] {1000, 100000, 1000000}) {
+			int[] other = randomValues(k + 2);
+			Integer[] batch = new Integer[k];
+			for (int i = 0; i < k; i++) {
+				batch[i] = other[i];
+			}
+			Arrays.sort(batch);
+			int unique = 1;
+			for (int i = 1; i < k; i++) {
+				if (!batch[i].equals(batch[unique - 1])) {
+					batch[unique++] = batch[i];
+				}
+			}
+			batch = Arrays.copyOf(batch, unique);
+
+			for (int round = 0; round < 3; round++) {
+				AVLSet<Integer> target = new AVLSet<Integer>();
+				target.addAll(large);
+				usedMemory();
+				long start = System.nanoTime();
+				for (Integer obj : batch) {
+					target.add(obj);
+				}
+				report("AVLSet add(T obj) loop k=" + k, n, batch.length, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				for (Integer obj : batch) {
+					target.remove(obj);
+				}
+				report("AVLSet remove(T obj) loop k=" + k, n, batch.length, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				target.addAllSorted(batch);
+				report("AVLSet addAllSorted(T[]) k=" + k, n, batch.length, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				target.removeAllSorted(batch);
+				report("AVLSet removeAllSorted(T[]) k=" + k, n, batch.length, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				target.addAll(batch);
+				report("AVLSet addAll(T[]) k=" + k, n, batch.length, System.nanoTime() - start);
+				sink += target.size();
+			}
+		}
+	}
+
+	private static void benchSetAlgebra() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+		Integer[] large = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			large[i] = values[i];
+		}
+
+		for (int m : new int[] {1000, 100000, 1000000}) {
+			Integer[] small = new Integer[m];
+			int[] other = randomValues(m + 1);
+			for (int i = 0; i < m; i++) {
+				small[i] = other[i];
+			}
+
+			for (int round = 0; round < 3; round++) {
+				AVLSet<Integer> target = new AVLSet<Integer>();
+				target.addAll(large);
+				AVLSet<Integer> source = new AVLSet<Integer>();
+				source.addAll(small);
+				usedMemory();
+				long start = System.nanoTime();
+				for (Object obj : source.toArray()) {
+					target.add((Integer) obj);
+				}
+				report("AVLSet add(T obj) loop m=" + m, n, m, System.nanoTime() - start);
+
+				target = new AVLSet<Integer>();
+				target.addAll(large);
+				usedMemory();
+				start = System.nanoTime();
+				target.unionWith(source);
+				report("AVLSet unionWith(AVLSet) m=" + m, n, m, System.nanoTime() - start);
+
+				source.addAll(small);
+				start = System.nanoTime();
+				target.differenceWith(source);
+				report("AVLSet differenceWith(AVLSet) m=" + m, n, m, System.nanoTime() - start);
+				sink += target.size();
+			}
+		}
+	}
+
+	private static void benchParallelScaling() {
+
+		int n = 4000000;
+		Integer[] evens = new Integer[n];
+		Integer[] odds = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			evens[i] = 2 * i;
+			odds[i] = 2 * i + 1;
+		}
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+
+			for (int round = 0; round < 3; round++) {
+				usedMemory();
+				long start = System.nanoTime();
+				AVLSet<Integer> first = AVLSet.fromSorted(evens, pool);
+				report("AVLSet fromSorted(T[], pool) p=" + threads, n, n, System.nanoTime() - start);
+
+				AVLSet<Integer> second = AVLSet.fromSorted(odds, pool);
+				start = System.nanoTime();
+				first.unionWith(second, pool);
+				report("AVLSet unionWith(AVLSet, pool) p=" + threads, 2 * n, 2 * n, System.nanoTime() - start);
+
+				second = AVLSet.fromSorted(odds, pool);
+				start = System.nanoTime();
+				first.intersectWith(second, pool);
+				report("AVLSet intersectWith(AVLSet, pool) p=" + threads, 2 * n, 2 * n, System.nanoTime() - start);
+				sink += first.size();
+			}
+
+			pool.shutdown();
+			// finish on every core when the count is not a power of two
+			if (threads < cores && threads * 2 > cores) {
+				threads = cores / 2;
+			}
+		}
+	}
+
+	private static void benchConcurrentSets() {
+
+		int keys = 100000;
+		int opsPerThread = 200000;
+
+		for (int threads = 1; threads <= 64; threads *= 4) {
+			for (int round = 0; round < 3; round++) {
+				LockFreeSkipListSet<Integer> lockFree = new LockFreeSkipListSet<Integer>();
+				AVLSet<Integer> avl = new AVLSet<Integer>();
+				for (int i = 0; i < keys; i += 2) {
+					lockFree.add(i);
+					avl.add(i);
+				}
+				Object lock = new Object();
+
+				benchMixedOps("LockFreeSkipListSet t=" + threads, threads, keys, opsPerThread, 90, 99, lockFree, null);
+				benchMixedOps("synchronized AVLSet t=" + threads, threads, keys, opsPerThread, 90, 99, avl, lock);
+			}
+		}
+	}
+
+	private static void benchReadMostly() {
+
+		int keys = 100000;
+		int opsPerThread = 200000;
+
+		for (int threads = 1; threads <= 64; threads *= 4) {
+			for (int round = 0; round < 3; round++) {
+				ConcurrentAVLSet<Integer> optimistic = new ConcurrentAVLSet<Integer>();
+				LockFreeSkipListSet<Integer> lockFree = new LockFreeSkipListSet<Integer>();
+				AVLSet<Integer> avl = new AVLSet<Integer>();
+				for (int i = 0; i < keys; i += 2) {
+					optimistic.add(i);
+					lockFree.add(i);
+					avl.add(i);
+				}
+				Object lock = new Object();
+
+				benchMixedOps("ConcurrentAVLSet 95/5 t=" + threads, threads, keys, opsPerThread, 95, 98, optimistic, null);
+				benchMixedOps("LockFreeSkipListSet 95/5 t=" + threads, threads, keys, opsPerThread, 95, 98, lockFree, null);
+				benchMixedOps("synchronized AVLSet 95/5 t=" + threads, threads, keys, opsPerThread, 95, 98, avl, lock);
+			}
+		}
+	}
+
+	private static void benchShardedWrites() {
+
+		int keys = 100000;
+		int opsPerThread = 200000;
+		Integer[] sample = new Integer[1000];
+		Random random = new Random(keys);
+		for (int i = 0; i < sample.length; i++) {
+			sample[i] = random.nextInt(keys);
+		}
+
+		for (int threads = 1; threads <= 64; threads *= 4) {
+			for (int round = 0; round < 3; round++) {
+				ShardedAVLSet<Integer> sharded = ShardedAVLSet.fromSample(sample, 16);
+				AVLSet<Integer> avl = new AVLSet<Integer>();
+				for (int i = 0; i < keys; i += 2) {
+					sharded.add(i);
+					avl.add(i);
+				}
+				Object lock = new Object();
+
+				benchMixedOps("ShardedAVLSet 50/50 t=" + threads, threads, keys, opsPerThread, 50, 75, sharded, null);
+				benchMixedOps("synchronized AVLSet 50/50 t=" + threads, threads, keys, opsPerThread, 50, 75, avl, lock);
+			}
+		}
+	}
+
+	private static void benchSnapshots() {
+
+		int n = 100000;
+		int snapshots = 1000;
+		int changes = 10;
+		int[] values = randomValues(n);
+
+		for (int round = 0; round < 3; round++) {
+			PersistentAVLSet<Integer> persistent = new PersistentAVLSet<Integer>();
+			AVLSet<Integer> avl = new AVLSet<Integer>();
+			for (int i = 0; i < n; i++) {
+				persistent.add(values[i]);
+				avl.add(values[i]);
+			}
+			Random random = new Random(round);
+
+			// retain a snapshot after every few changes and see how much of
+			// each one is new rather than shared with the others
+			Object[] retained = new Object[snapshots];
+			long before = usedMemory();
+			long start = System.nanoTime();
+			for (int i = 0; i < snapshots; i++) {
+				for (int j = 0; j < changes; j++) {
+					persistent.remove(values[random.nextInt(n)]);
+					persistent.add(random.nextInt());
+				}
+				retained[i] = persistent.snapshot();
+			}
+			long elapsed = System.nanoTime() - start;
+			long shared = usedMemory() - before;
+			report("PersistentAVLSet snapshot() + changes", n, snapshots, elapsed);
+
+			Object[] copies = new Object[snapshots / 10];
+			before = usedMemory();
+			start = System.nanoTime();
+			for (int i = 0; i < copies.length; i++) {
+				for (int j = 0; j < changes; j++) {
+					avl.remove(values[random.nextInt(n)]);
+					avl.add(random.nextInt());
+				}
+				copies[i] = avl.toArray();
+			}
+			elapsed = System.nanoTime() - start;
+			long copied = usedMemory() - before;
+			report("AVLSet toArray() + changes", n, copies.length, elapsed);
+
+			System.out.printf("%-40s %.1f bytes/snapshot shared, %.1f bytes/snapshot copied\n",
+					"retained " + snapshots + " snapshots", (double) shared / snapshots, (double) copied / copies.length);
+			sink += retained.length + copies.length;
+		}
+	}
+
+	private static void benchFlatCombining() {
+
+		int keys = 100000;
+		int opsPerThread = 100000;
+
+		for (int threads = 4; threads <= 64; threads *= 2) {
+			for (int round = 0; round < 3; round++) {
+				FlatCombiningAVLSet<Integer> combining = new FlatCombiningAVLSet<Integer>();
+				AVLSet<Integer> avl = new AVLSet<Integer>();
+				for (int i = 0; i < keys; i += 2) {
+					combining.add(i);
+					avl.add(i);
+				}
+				Object lock = new Object();
+
+				benchMixedOps("FlatCombiningAVLSet 10/80/10 t=" + threads, threads, keys, opsPerThread, 10, 90, combining, null);
+				benchMixedOps("synchronized AVLSet 10/80/10 t=" + threads, threads, keys, opsPerThread, 10, 90, avl, lock);
+			}
+		}
+	}
+
+	private static void benchThreadedIteration() {
+
+		int n = 1000000;
+		int scans = 10;
+		int ranges = 100000;
+		int width = 16;
+		int[] values = randomValues(n);
+
+		for (int round = 0; round < 3; round++) {
+			ThreadedAVLSet<Integer> threaded = new ThreadedAVLSet<Integer>();
+			AVLSet<Integer> avl = new AVLSet<Integer>();
+			for (int i = 0; i < n; i++) {
+				threaded.add(values[i]);
+				avl.add(values[i]);
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < scans; i++) {
+				for (int value : threaded) {
+					sink += value;
+				}
+			}
+			report("ThreadedAVLSet iterator()", n, scans * n, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			for (int i = 0; i < scans; i++) {
+				Iterator<Integer> it = threaded.descendingIterator();
+				while (it.hasNext()) {
+					sink += it.next();
+				}
+			}
+			report("ThreadedAVLSet descendingIterator()", n, scans * n, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			for (int i = 0; i < scans; i++) {
+				for (int value : avl) {
+					sink += value;
+				}
+			}
+			report("AVLSet iterator()", n, scans * n, System.nanoTime() - start);
+
+			// short range scans, where finding the start dominates
+			Random random = new Random(round);
+			start = System.nanoTime();
+			for (int i = 0; i < ranges; i++) {
+				int lo = values[random.nextInt(n)];
+				Iterator<Integer> it = threaded.iterator(lo, null);
+				for (int j = 0; j < width && it.hasNext(); j++) {
+					sink += it.next();
+				}
+			}
+			report("ThreadedAVLSet iterator(lo, " + width + ")", n, ranges, System.nanoTime() - start);
+
+			random = new Random(round);
+			start = System.nanoTime();
+			for (int i = 0; i < ranges; i++) {
+				int lo = values[random.nextInt(n)];
+				Iterator<Integer> it = avl.iterator(lo, null);
+				for (int j = 0; j < width && it.hasNext(); j++) {
+					sink += it.next();
+				}
+			}
+			report("AVLSet iterator(lo, " + width + ")", n, ranges, System.nanoTime() - start);
+		}
+	}
+
+	private static void benchGraphViz() {
+
+		int n = 1000000;
+		int[] values = randomValues(n);
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 0; i < n; i++) {
+			avl.add(values[i]);
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long before = usedMemory();
+			long start = System.nanoTime();
+			String dot = avl.graphvizForm();
+			long elapsed = System.nanoTime() - start;
+			long held = usedMemory() - before;
+			report("AVLSet graphvizForm()", n, n, elapsed);
+			System.out.printf("%-40s %.1f MB held\n", "  dot file as a String", held / 1e6);
+			sink += dot.length();
+			dot = null;
+
+			try {
+				Path file = Files.createTempFile("bench", ".dot");
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					start = System.nanoTime();
+					avl.graphvizForm(channel, Integer.MAX_VALUE, Long.MAX_VALUE);
+					elapsed = System.nanoTime() - start;
+					sink += channel.size();
+				}
+				report("AVLSet graphvizForm(FileChannel)", n, n, elapsed);
+				Files.delete(file);
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static void benchRebalanceRecording() {
+
+		int n = 200000;
+		int rendered = 5000;
+		int[] values = randomValues(n);
+
+		for (int round = 0; round < 3; round++) {
+			AVLSet<Integer> plain = new AVLSet<Integer>();
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				plain.add(values[i]);
+			}
+			report("AVLSet add()", n, n, System.nanoTime() - start);
+
+			AVLSet<Integer> recorded = new AVLSet<Integer>();
+			RebalanceRecorder<Integer> recorder = new RebalanceRecorder<Integer>();
+			recorded.setRecorder(recorder);
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				recorded.add(values[i]);
+			}
+			report("AVLSet add() with recorder", n, n, System.nanoTime() - start);
+
+			try {
+				StringBuilder frames = new StringBuilder();
+				start = System.nanoTime();
+				int count = new RebalanceExporter<Integer>(recorder).export(frames, 1);
+				report("RebalanceExporter export() " + count + " frames", n, n, System.nanoTime() - start);
+				sink += frames.length();
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+
+			// the whole tree drawn after every add, on a much smaller run
+			AVLSet<Integer> redrawn = new AVLSet<Integer>();
+			start = System.nanoTime();
+			for (int i = 0; i < rendered; i++) {
+				redrawn.add(values[i]);
+				sink += redrawn.graphvizForm().length();
+			}
+			report("AVLSet add() + graphvizForm()", rendered, rendered, System.nanoTime() - start);
+		}
+	}
+
+	private static void benchGraphVizSummary() {
+
+		int n = 2000000;
+		int levels = 12;
+		int[] values = randomValues(n);
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 0; i < n; i++) {
+			avl.add(values[i]);
+		}
+
+		for (int round = 0; round < 3; round++) {
+			try {
+				StringBuilder summary = new StringBuilder();
+				long start = System.nanoTime();
+				avl.graphvizSummary(summary, levels);
+				report("AVLSet graphvizSummary(" + levels + ")", n, 1, System.nanoTime() - start);
+
+				StringBuilder whole = new StringBuilder();
+				start = System.nanoTime();
+				avl.graphvizForm(whole);
+				report("AVLSet graphvizForm()", n, 1, System.nanoTime() - start);
+
+				System.out.printf("%-40s %d chars summarized, %d chars whole\n",
+						"  output", summary.length(), whole.length());
+				sink += summary.length() + whole.length();
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static void benchToString() {
+
+		int n = 1000000;
+		int limit = 100;
+		int[] values = randomValues(n);
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 0; i < n; i++) {
+			avl.add(values[i]);
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long start = System.nanoTime();
+			String whole = avl.toString();
+			report("AVLSet toString()", n, n, System.nanoTime() - start);
+			sink += whole.length();
+
+			try {
+				StringBuilder limited = new StringBuilder();
+				start = System.nanoTime();
+				avl.appendTo(limited, limit);
+				report("AVLSet appendTo(" + limit + ")", n, limit, System.nanoTime() - start);
+				sink += limited.length();
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static void benchSnapshotLoad() {
+
+		int n = 1000000;
+		int lookups = 1000000;
+		int[] values = randomValues(n);
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 0; i < n; i++) {
+			avl.add(values[i]);
+		}
+
+		for (int round = 0; round < 3; round++) {
+			try {
+				Path file = Files.createTempFile("bench", ".snap");
+				long start = System.nanoTime();
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					avl.writeSnapshot(channel, KeyCodec.INTEGER);
+				}
+				report("AVLSet writeSnapshot()", n, n, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				AVLSet<Integer> added = new AVLSet<Integer>();
+				for (int i = 0; i < n; i++) {
+					added.add(values[i]);
+				}
+				report("AVLSet add() every key", n, n, System.nanoTime() - start);
+
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					start = System.nanoTime();
+					AVLSet<Integer> loaded = AVLSet.readSnapshot(channel, KeyCodec.INTEGER);
+					report("AVLSet readSnapshot()", n, n, System.nanoTime() - start);
+					sink += loaded.size() + added.size();
+
+					channel.position(0);
+					start = System.nanoTime();
+					MappedSnapshotSet<Integer> mapped = MappedSnapshotSet.open(channel, KeyCodec.INTEGER, false);
+					report("MappedSnapshotSet open()", n, 1, System.nanoTime() - start);
+
+					Random random = new Random(round);
+					start = System.nanoTime();
+					for (int i = 0; i < lookups; i++) {
+						if (mapped.contains(values[random.nextInt(n)])) {
+							sink++;
+						}
+					}
+					report("MappedSnapshotSet contains()", n, lookups, System.nanoTime() - start);
+
+					random = new Random(round);
+					start = System.nanoTime();
+					for (int i = 0; i < lookups; i++) {
+						if (loaded.contains(values[random.nextInt(n)])) {
+							sink++;
+						}
+					}
+					report("AVLSet contains()", n, lookups, System.nanoTime() - start);
+				}
+				Files.delete(file);
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * Runs a mix of contains, add and remove on a shared set from several
+	 * threads and reports the throughput and the 99th percentile latency
+	 * of a sample of the operations.  Out of every 100 operations those
+	 * below {@code reads} are contains, those below {@code adds} are add
+	 * and the rest are remove.
+	 *
+	 * @param lock object every operation synchronizes on, or {@code null}
+	 */
+	private static void benchMixedOps(String method, int threads, int keys, int opsPerThread,
+			int reads, int adds, Set<Integer> set, Object lock) {
+		Thread[] workers = new Thread[threads];
+		long[][] latencies = new long[threads][(opsPerThread + 63) / 64];
+		usedMemory();
+		long start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(() -> {
+				Random random = new Random(id);
+				long hits = 0;
+				for (int i = 0; i < opsPerThread; i++) {
+					Integer key = random.nextInt(keys);
+					int op = random.nextInt(100);
+					long opStart = (i & 63) == 0 ? System.nanoTime() : 0;
+					if (lock == null) {
+						hits += mixedOp(set, op, reads, adds, key);
+					}
+					else {
+						synchronized (lock) {
+							hits += mixedOp(set, op, reads, adds, key);
+						}
+					}
+					if ((i & 63) == 0) {
+						latencies[id][i >> 6] = System.nanoTime() - opStart;
+					}
+				}
+				synchronized (Benchmark.class) {
+					sink += hits;
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			try {
+				worker.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+
+		long[] sample = new long[threads * latencies[0].length];
+		for (int t = 0; t < threads; t++) {
+			System.arraycopy(latencies[t], 0, sample, t * latencies[t].length, latencies[t].length);
+		}
+		Arrays.sort(sample);
+		long ops = (long) threads * opsPerThread;
+		System.out.printf("%-40s %12.0f ops/s %10d ns p99\n",
+				method, ops / (elapsed / 1e9), sample[(int) (sample.length * 0.99)]);
+	}
+
+	private static int mixedOp(Set<Integer> set, int op, int reads, int adds, Integer key) {
+		if (op < reads) {
+			return set.contains(key) ? 1 : 0;
+		}
+		else if (op < adds) {
+			set.add(key);
+			return 0;
+		}
+		else {
+			return set.remove(key) ? 1 : 0;
+		}
+	}
+}
@@ -25,15 +25,28 @@
 //import edu.gregory.gelfond.interfaces.GraphVizWriteable;
 //import edu.gregory.gelfond.interfaces.Set;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 /**
- * The {@code BinarySearchTree} class defines an implementation of the {@code Set}
- * abstract data type via a binary search tree.
+ * The {@code BinarySearchTree} class defines an implementation of the
+ * {@code OrderedSet} abstract data type via a binary search tree.
  *
  * @param <T> the type of the objects contained within the {@code BinarySearchTree}
  * @author Gregory Gelfond (ggelfond@unomaha.edu)
  * @version 1.0
  */
-public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphVizWriteable {
+public class BinarySearchTree<T extends Comparable<T>> implements OrderedSet<T>, GraphVizWriteable {
 
     // A binary search tree is defined in terms of nodes, where a node is
     // a simple record comprised of a datum and references to the left and
@@ -54,9 +67,151 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
         }
     }
 
-    // A tree is referred to via its root node.
+    // Iteration walks the tree in order with an explicit stack holding the
+    // path to the next node.
+
+    private class NodeIterator {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        NodeIterator(Node x) {
+            pushLeft(x);
+        }
+
+        // Start at the least node not less than lo by pushing only the nodes
+        // on the search path for lo that are not less than lo.
+        NodeIterator(Node x, T lo) {
+            while (x != null) {
+                if (lo == null || x.datum.compareTo(lo) >= 0) {
+                    stack.push(x);
+                    x = x.left;
+                } else {
+                    x = x.right;
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        Node peek() {
+            return stack.peek();
+        }
+
+        Node next() {
+            Node x = stack.pop();
+            pushLeft(x.right);
+            return x;
+        }
+
+        private void pushLeft(Node x) {
+            while (x != null) {
+                stack.push(x);
+                x = x.left;
+            }
+        }
+    }
+
+    private class SetIterator implements Iterator<T> {
+        private final NodeIterator nodes;
+        private final T hi;
+        private final int expectedModCount = modCount;
+
+        SetIterator(T lo, T hi) {
+            this.nodes = new NodeIterator(root, lo);
+            this.hi = hi;
+        }
+
+        public boolean hasNext() {
+            return nodes.hasNext() && (hi == null || nodes.peek().datum.compareTo(hi) < 0);
+        }
+
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return nodes.next().datum;
+        }
+    }
+
+    // A spliterator covers a subtree followed by at most one extra node.
+    // Splitting hands off the left subtree and the root and keeps the right
+    // subtree, so every spliterator knows its exact size.
+
+    private class TreeSpliterator implements Spliterator<T> {
+        private Node subtree;
+        private Node after;
+        private NodeIterator nodes;
+        private int remaining;
+        private final int expectedModCount;
+
+        TreeSpliterator(Node subtree, Node after, int expectedModCount) {
+            this.subtree = subtree;
+            this.after = after;
+            this.remaining = size(subtree) + (after != null ? 1 : 0);
+            this.expectedModCount = expectedModCount;
+        }
+
+        public Spliterator<T> trySplit() {
+            if (nodes != null || subtree == null) {
+                return null;
+            }
+
+            Node split = subtree;
+            subtree = split.right;
+            remaining -= size(split.left) + 1;
+
+            return new TreeSpliterator(split.left, split, expectedModCount);
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nodes == null) {
+                nodes = new NodeIterator(subtree);
+            }
+
+            Node x;
+            if (nodes.hasNext()) {
+                x = nodes.next();
+            } else if (after != null) {
+                x = after;
+                after = null;
+            } else {
+                return false;
+            }
+
+            remaining--;
+            action.accept(x.datum);
+            return true;
+        }
+
+        public long estimateSize() {
+            return remaining;
+        }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED
+                    | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        public Comparator<? super T> getComparator() {
+            return null;
+        }
+    }
+
+    // A tree is referred to via its root node. The modification count is
+    // bumped on every structural change so that iterators can fail fast.
 
     private Node root;
+    private int modCount;
 
     /**
      * Initialize an empty binary search tree.
@@ -65,6 +220,129 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
         root = null;
     }
 
+    /**
+     * Builds a binary search tree from elements that are already in strictly
+     * ascending order. The middle element of each range becomes the root of
+     * its subtree, so the tree is perfectly balanced.
+     *
+     * @param sorted elements in strictly ascending order
+     * @return a binary search tree holding the elements
+     * @throws IllegalArgumentException if an element is null or the elements
+     * are not in strictly ascending order
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(T[] sorted) {
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] == null) {
+                throw new IllegalArgumentException("argument to fromSorted() contains null");
+            }
+            if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= 0) {
+                throw new IllegalArgumentException("argument to fromSorted() is not strictly ascending");
+            }
+        }
+
+        BinarySearchTree<T> tree = new BinarySearchTree<>();
+        tree.root = tree.build(sorted, 0, sorted.length);
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node build(Object[] xs, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        Node x = new Node((T) xs[mid], hi - lo);
+        x.left = build(xs, lo, mid);
+        x.right = build(xs, mid + 1, hi);
+
+        return x;
+    }
+
+    /**
+     * Writes a binary snapshot of the set at the current position of the
+     * channel, in the format of {@code AVLSet.writeSnapshot()}.
+     *
+     * @param channel channel to write at its current position
+     * @param codec codec to encode the elements with
+     * @throws IOException if writing to the channel fails
+     */
+    public void writeSnapshot(FileChannel channel, KeyCodec<T> codec) throws IOException {
+        SnapshotFile.write(channel, iterator(), size(), codec);
+    }
+
+    /**
+     * Reads a snapshot from the current position of the channel by
+     * memory-mapping it and building a perfectly balanced tree directly from
+     * the mapped elements.
+     *
+     * @param channel channel to read at its current position
+     * @param codec codec the snapshot was written with
+     * @return a binary search tree holding the elements of the snapshot
+     * @throws IOException if the channel does not hold a valid snapshot for
+     * this codec or its elements are not strictly ascending
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> readSnapshot(FileChannel channel, KeyCodec<T> codec)
+            throws IOException {
+        ByteBuffer keys = SnapshotFile.map(channel, codec, true);
+        BinarySearchTree<T> tree = new BinarySearchTree<>();
+        tree.root = tree.build(keys, codec, 0, keys.limit() / codec.width());
+        return tree;
+    }
+
+    private Node build(ByteBuffer keys, KeyCodec<T> codec, int lo, int hi) throws IOException {
+        if (lo >= hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int width = codec.width();
+        Node left = build(keys, codec, lo, mid);
+        Node x = new Node(codec.read(keys, mid * width), hi - lo);
+        if (mid > 0 && codec.compare(keys, (mid - 1) * width, x.datum) >= 0) {
+            throw new IOException("snapshot elements are not strictly ascending at " + mid);
+        }
+        x.left = left;
+        x.right = build(keys, codec, mid + 1, hi);
+
+        return x;
+    }
+
+    /**
+     * Adds every element of the array to the set. The array may be in any
+     * order and may contain duplicates. A sorted copy is merged with the
+     * current contents and the tree is rebuilt balanced from the result;
+     * large arrays are sorted in parallel.
+     *
+     * @param objs the elements to add to the set
+     */
+    @SuppressWarnings("unchecked")
+    public void addAll(T[] objs) {
+        T[] added = Arrays.copyOf(objs, objs.length);
+        Arrays.parallelSort(added);
+
+        Object[] existing = toArray();
+        Object[] merged = new Object[existing.length + added.length];
+        int i = 0, j = 0, n = 0;
+
+        while (i < existing.length || j < added.length) {
+            T obj;
+            if (j == added.length || (i < existing.length && ((T) existing[i]).compareTo(added[j]) <= 0)) {
+                obj = (T) existing[i++];
+            } else {
+                obj = added[j++];
+            }
+
+            // skip anything equal to the element just placed
+            if (n == 0 || ((T) merged[n - 1]).compareTo(obj) < 0) {
+                merged[n++] = obj;
+            }
+        }
+
+        root = build(merged, 0, n);
+        modCount++;
+    }
+
     /**
      * Adds the specified object to the set.
      *
@@ -79,7 +357,10 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
     }
 
     private Node add(Node x, T obj) {
-        if (x == null) return new Node(obj, 1);
+        if (x == null) {
+            modCount++;
+            return new Node(obj, 1);
+        }
 
         int cmp = obj.compareTo(x.datum);
 
@@ -99,6 +380,7 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
      */
     public void clear() {
         root = null;
+        modCount++;
     }
 
     /**
@@ -157,7 +439,12 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
 
         root = remove(root, obj);
 
-        return prior != size(root);
+        if (prior == size(root)) {
+            return false;
+        }
+
+        modCount++;
+        return true;
     }
 
     private Node remove(Node x, T obj) {
@@ -235,6 +522,225 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
         return toArray(x.right, xs, pos);
     }
 
+    /**
+     * Returns the least element of the set.
+     *
+     * @return the least element of the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    public T first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return min(root).datum;
+    }
+
+    /**
+     * Returns the greatest element of the set.
+     *
+     * @return the greatest element of the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    public T last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        Node x = root;
+        while (x.right != null) {
+            x = x.right;
+        }
+        return x.datum;
+    }
+
+    /**
+     * Returns the greatest element less than or equal to the given object,
+     * or {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the greatest element {@code <= obj}, or {@code null}
+     */
+    public T floor(T obj) {
+        return below(obj, true);
+    }
+
+    /**
+     * Returns the greatest element strictly less than the given object, or
+     * {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the greatest element {@code < obj}, or {@code null}
+     */
+    public T lower(T obj) {
+        return below(obj, false);
+    }
+
+    /**
+     * Returns the least element greater than or equal to the given object,
+     * or {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the least element {@code >= obj}, or {@code null}
+     */
+    public T ceiling(T obj) {
+        return above(obj, true);
+    }
+
+    /**
+     * Returns the least element strictly greater than the given object, or
+     * {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the least element {@code > obj}, or {@code null}
+     */
+    public T higher(T obj) {
+        return above(obj, false);
+    }
+
+    // Walk down the tree remembering the last node passed on the near side
+    // of obj; an exact match ends the walk when it counts.
+
+    private T below(T obj, boolean inclusive) {
+        if (obj == null) {
+            throw new IllegalArgumentException("argument to floor() or lower() is null");
+        }
+
+        T best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = obj.compareTo(x.datum);
+            if (cmp == 0 && inclusive) {
+                return x.datum;
+            } else if (cmp > 0) {
+                best = x.datum;
+                x = x.right;
+            } else {
+                x = x.left;
+            }
+        }
+        return best;
+    }
+
+    private T above(T obj, boolean inclusive) {
+        if (obj == null) {
+            throw new IllegalArgumentException("argument to ceiling() or higher() is null");
+        }
+
+        T best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = obj.compareTo(x.datum);
+            if (cmp == 0 && inclusive) {
+                return x.datum;
+            } else if (cmp < 0) {
+                best = x.datum;
+                x = x.left;
+            } else {
+                x = x.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of elements in the range [lo, hi).
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return the number of elements in the range
+     */
+    public int countInRange(T lo, T hi) {
+        if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+            return 0;
+        }
+
+        int from = lo == null ? 0 : rank(lo);
+        int to = hi == null ? size() : rank(hi);
+
+        return to - from;
+    }
+
+    // The number of elements less than obj, read off the subtree sizes along
+    // the search path for obj.
+
+    private int rank(T obj) {
+        int rank = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = obj.compareTo(x.datum);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                rank += size(x.left) + 1;
+                x = x.right;
+            } else {
+                return rank + size(x.left);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Removes every element in the range [lo, hi).
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return the number of elements removed
+     */
+    public int removeRange(T lo, T hi) {
+        Object[] doomed = new Object[countInRange(lo, hi)];
+        if (doomed.length == 0) {
+            return 0;
+        }
+
+        Iterator<T> range = iterator(lo, hi);
+        for (int i = 0; i < doomed.length; i++) {
+            doomed[i] = range.next();
+        }
+
+        for (Object obj : doomed) {
+            @SuppressWarnings("unchecked")
+            T x = (T) obj;
+            remove(x);
+        }
+
+        return doomed.length;
+    }
+
+    /**
+     * Returns a live view of the elements in the range [lo, hi).
+     *
+     * @param lo inclusive lower bound of the view, or {@code null} for none
+     * @param hi exclusive upper bound of the view, or {@code null} for none
+     * @return a view of the elements in the range
+     * @throws IllegalArgumentException if lo is greater than hi
+     */
+    public OrderedSet<T> subSet(T lo, T hi) {
+        return new SubSetView<>(this, lo, hi);
+    }
+
+    /**
+     * Returns a live view of the elements less than {@code hi}.
+     *
+     * @param hi exclusive upper bound of the view, or {@code null} for none
+     * @return a view of the elements less than hi
+     */
+    public OrderedSet<T> headSet(T hi) {
+        return new SubSetView<>(this, null, hi);
+    }
+
+    /**
+     * Returns a live view of the elements greater than or equal to
+     * {@code lo}.
+     *
+     * @param lo inclusive lower bound of the view, or {@code null} for none
+     * @return a view of the elements greater than or equal to lo
+     */
+    public OrderedSet<T> tailSet(T lo) {
+        return new SubSetView<>(this, lo, null);
+    }
+
     /**
      * Return a {@code String} representation of the binary search tree.
      *
@@ -272,54 +778,83 @@ public class BinarySearchTree<T extends Comparable<T>> implements Set<T>, GraphV
      * @return the GraphViz dot file representation of the calling object
      */
     public String graphvizForm() {
-        return graphvizForm(root);
-    }
-
-    private String graphvizForm(Node t) {
         StringBuilder repr = new StringBuilder();
-
-        repr.append("digraph G {\n");
-        repr.append("graph [ dpi = 150 ]\n");
-        repr.append("nodesep=0.3;\n");
-        repr.append("ranksep=0.2;\n");
-        repr.append("margin=0.1;\n");
-        repr.append("node [shape=circle];\n");
-        repr.append("edge [arrowsize=0.8];\n");
-
-        StringBuilder content = graphvizForm(new StringBuilder(), t, 1);
-
-        repr.append(content);
-        repr.append("}");
-
+        try {
+            graphvizForm(repr);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return repr.toString();
     }
 
-    private StringBuilder graphvizForm(StringBuilder repr, Node t, int base) {
-        // if the given tree is empty, do nothing
-        if (t == null) {
-            return repr;
-        }
+    /**
+     * Writes the GraphViz dot file representation of the tree to the given
+     * {@code Appendable} as it walks the tree, leaving out everything deeper
+     * than {@code maxDepth} and everything after the first {@code maxNodes}
+     * nodes.  Each subtree left out is drawn as a single "..." node.
+     *
+     * The tree is walked by {@code GraphVizWriteable.graphvizTree()},
+     * which keeps its own stack rather than recursing, so a degenerate tree
+     * cannot overflow the call stack.
+     *
+     * O(n):  Visits each written node once, with O(h) extra memory.
+     *
+     * @param out destination of the dot file
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @throws IOException if out throws one
+     */
+    @Override
+    public void graphvizForm(Appendable out, int maxDepth, long maxNodes) throws IOException {
+        GraphVizWriteable.graphvizTree(out, root, new GraphVizWriteable.TreeShape<Node>() {
+            @Override
+            public Node left(Node node) {
+                return node.left;
+            }
 
-        // Add to the representation the datum associated with the given node
-        repr.append(String.format("node%d [label=\"%s\"];\n", base, t.datum));
+            @Override
+            public Node right(Node node) {
+                return node.right;
+            }
 
-        // enumerate the left and right subtrees
-        int left = 2 * base;
-        int right = 2 * base + 1;
+            @Override
+            public String label(Node node) {
+                return String.valueOf(node.datum);
+            }
+        }, 150, null, maxDepth, maxNodes);
+    }
 
-        // add the content of the left subtree to our representation
-        if (t.left != null) {
-            repr.append(String.format("node%d -> node%d;\n", base, left));
-            graphvizForm(repr, t.left, left);
-        }
+    /**
+     * Returns a fail-fast iterator over the elements of the set from least to
+     * greatest.
+     *
+     * @return an iterator over the elements of the set
+     */
+    public Iterator<T> iterator() {
+        return new SetIterator(null, null);
+    }
 
-        // add the content of the right subtree to our representation
-        if (t.right != null) {
-            repr.append(String.format("node%d -> node%d;\n", base, right));
-            graphvizForm(repr, t.right, right);
-        }
+    /**
+     * Returns a fail-fast iterator over the elements in the range [lo, hi)
+     * from least to greatest.
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return an iterator over the elements in the range
+     */
+    public Iterator<T> iterator(T lo, T hi) {
+        return new SetIterator(lo, hi);
+    }
 
-        return repr;
+    /**
+     * Returns a spliterator over the elements of the set that splits at
+     * subtree boundaries.
+     *
+     * @return a spliterator over the elements of the set
+     */
+    public Spliterator<T> spliterator() {
+        return new TreeSpliterator(root, null, modCount);
     }
 
     /**
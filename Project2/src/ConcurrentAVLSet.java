@@ -0,0 +1,563 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements the provided Set interface with an AVL tree that
+ * can be shared between threads.  It follows the optimistic concurrency
+ * scheme of Bronson, Casper, Chafi and Olukotun, "A Practical Concurrent
+ * Binary Search Tree".
+ *
+ * Readers take no locks.  Every node carries a version number, and a
+ * reader checks the version of a node again after reading one of its
+ * links.  A rotation marks the node it moves down as shrinking while the
+ * links change and then bumps its version, so a reader that may have been
+ * led the wrong way retries from the last node that is still valid.
+ * Readers never wait on a lock, at worst they spin while a single rotation
+ * finishes.
+ *
+ * Writers are serialized by one lock instead of the per-node locks of the
+ * paper.  The workload this class is meant for is dominated by
+ * {@code contains()}, and with a single writer at a time the rebalancing
+ * can stay the same strict AVL rebalancing as {@code AVLSet}.
+ *
+ * Removing an element with two children only clears its {@code present}
+ * flag and leaves the node in place as a routing node, so a removal never
+ * moves an element to another node.  Routing nodes are unlinked once a
+ * writer passes one that has at most one child.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class ConcurrentAVLSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Version bit set while a rotation is moving the node down.
+	 */
+	private static final long SHRINKING = 1;
+
+	/**
+	 * Version bit set once a node has been unlinked from the tree.
+	 */
+	private static final long UNLINKED = 2;
+
+	/**
+	 * Amount a version grows by after each change.
+	 */
+	private static final long VERSION_STEP = 4;
+
+	/**
+	 * Results of a search attempt.
+	 */
+	private static final Object FOUND = new Object();
+	private static final Object NOT_FOUND = new Object();
+	private static final Object RETRY = new Object();
+
+	/**
+	 * This class defines a node of the tree.  The links, the version and
+	 * the {@code present} flag are read by readers without locking, so they
+	 * are volatile.  The height and parent are only used by writers.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeNode {
+		final T datum;
+		volatile boolean present;
+		volatile long version;
+		volatile TreeNode left;
+		volatile TreeNode right;
+		TreeNode parent;
+		int height;
+
+		/**
+		 * Constructs a new leaf.
+		 *
+		 * @param datum
+		 * @param parent
+		 */
+		TreeNode(T datum, TreeNode parent) {
+			this.datum = datum;
+			this.present = true;
+			this.parent = parent;
+			this.height = 0;
+		}
+
+		/**
+		 * Returns the left child for a negative direction and the right
+		 * child otherwise.
+		 *
+		 * @param dir comparison result leading to the child
+		 * @return the child in that direction
+		 */
+		TreeNode child(int dir) {
+			return dir < 0 ? left : right;
+		}
+	}
+
+	/**
+	 * Holds a sentinel whose right child is the root.  It is never rotated
+	 * or unlinked, so its version never changes.
+	 */
+	private final TreeNode holder = new TreeNode(null, null);
+
+	/**
+	 * Serializes writers.
+	 */
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	/**
+	 * Holds the number of elements, changed only under the write lock.
+	 */
+	private volatile int size;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	public ConcurrentAVLSet() {
+		holder.present = false;
+		size = 0;
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for a null node.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+
+	/**
+	 * Updates the height of given node based on heights of its children.
+	 *
+	 * @param current Node to update height of
+	 */
+	private void updateHeight(TreeNode current) {
+		current.height = 1 + Math.max(height(current.left), height(current.right));
+	}
+
+	/**
+	 * Waits for a rotation that is moving the node down to finish.
+	 *
+	 * @param node node being rotated
+	 */
+	private void waitUntilNotShrinking(TreeNode node) {
+		while ((node.version & SHRINKING) != 0) {
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.  Takes no locks.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree, plus any
+	 * 		retries caused by concurrent rotations.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean contains(T obj) {
+		while (true) {
+			Object result = attemptGet(obj, holder, 1, holder.version);
+			if (result != RETRY) {
+				return result == FOUND;
+			}
+		}
+	}
+
+	/**
+	 * Searches below a node whose version was {@code nodeVersion} when the
+	 * link to it was read.  The link to each child is read, the child's
+	 * version is recorded, and the node's version is checked again before
+	 * moving on, so the search only descends through links that were
+	 * current while the key range of the node was still valid.
+	 *
+	 * @param obj object to look for
+	 * @param node node to search below
+	 * @param dir direction of the child of node to follow
+	 * @param nodeVersion version of node when it was reached
+	 * @return FOUND, NOT_FOUND or RETRY if node changed under the search
+	 */
+	private Object attemptGet(T obj, TreeNode node, int dir, long nodeVersion) {
+		while (true) {
+			TreeNode child = node.child(dir);
+			if (child == null) {
+				if (node.version != nodeVersion) {
+					return RETRY;
+				}
+				return NOT_FOUND;
+			}
+			int comparison = obj.compareTo(child.datum);
+			if (comparison == 0) {
+				// a node keeps its element, so only its presence can change
+				boolean present = child.present;
+				if (node.version != nodeVersion) {
+					return RETRY;
+				}
+				return present ? FOUND : NOT_FOUND;
+			}
+			long childVersion = child.version;
+			if ((childVersion & (SHRINKING | UNLINKED)) != 0) {
+				waitUntilNotShrinking(child);
+				if (node.version != nodeVersion) {
+					return RETRY;
+				}
+			}
+			else if (child != node.child(dir)) {
+				if (node.version != nodeVersion) {
+					return RETRY;
+				}
+			}
+			else {
+				if (node.version != nodeVersion) {
+					return RETRY;
+				}
+				Object result = attemptGet(obj, child, comparison, childVersion);
+				if (result != RETRY) {
+					return result;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  One path down and the rebalancing back up, under the
+	 * 		write lock.
+	 *
+	 * @param obj object to be added to the set
+	 */
+	@Override
+	public void add(T obj) {
+		writeLock.lock();
+		try {
+			TreeNode parent = holder;
+			TreeNode current = holder.right;
+			int comparison = 1;
+			while (current != null) {
+				comparison = obj.compareTo(current.datum);
+				if (comparison == 0) {
+					if (!current.present) {
+						current.present = true;
+						size++;
+					}
+					return;
+				}
+				parent = current;
+				current = current.child(comparison);
+			}
+			TreeNode node = new TreeNode(obj, parent);
+			// the volatile write publishes the finished node to readers
+			if (comparison < 0) {
+				parent.left = node;
+			}
+			else {
+				parent.right = node;
+			}
+			size++;
+			fixUpward(parent);
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all of the elements from the set.  Readers that are part way
+	 * through the old tree finish their search in it.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 */
+	@Override
+	public void clear() {
+		writeLock.lock();
+		try {
+			holder.right = null;
+			size = 0;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.  Clearing
+	 * the {@code present} flag is the point at which the element leaves the
+	 * set, the node is unlinked afterwards only if it has at most one child.
+	 *
+	 * O(log n):  One path down and the rebalancing back up, under the
+	 * 		write lock.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean remove(T obj) {
+		writeLock.lock();
+		try {
+			TreeNode current = holder.right;
+			while (current != null) {
+				int comparison = obj.compareTo(current.datum);
+				if (comparison == 0) {
+					break;
+				}
+				current = current.child(comparison);
+			}
+			if (current == null || !current.present) {
+				return false;
+			}
+			current.present = false;
+			size--;
+			if (current.left == null || current.right == null) {
+				TreeNode parent = current.parent;
+				unlink(current);
+				fixUpward(parent);
+			}
+			return true;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces a node with its only child, or with nothing.  The parent's
+	 * key range covers the child's, so readers on either side of the
+	 * change stay correct, and readers that still hold the node see it
+	 * marked unlinked and retry.
+	 *
+	 * @param node node with at most one child to unlink
+	 */
+	private void unlink(TreeNode node) {
+		TreeNode child = node.left != null ? node.left : node.right;
+		TreeNode parent = node.parent;
+		if (child != null) {
+			child.parent = parent;
+		}
+		replaceChild(parent, node, child);
+		node.version = node.version | UNLINKED;
+	}
+
+	/**
+	 * Points the parent at a new child in place of an old one.
+	 *
+	 * @param parent node whose link changes
+	 * @param oldChild current child
+	 * @param newChild replacement child
+	 */
+	private void replaceChild(TreeNode parent, TreeNode oldChild, TreeNode newChild) {
+		if (parent.left == oldChild) {
+			parent.left = newChild;
+		}
+		else {
+			parent.right = newChild;
+		}
+	}
+
+	/**
+	 * Walks from a changed node up to the root, unlinking routing nodes
+	 * that have at most one child, updating heights and rebalancing.
+	 *
+	 * @param node lowest node whose subtree changed
+	 */
+	private void fixUpward(TreeNode node) {
+		while (node != holder) {
+			TreeNode parent = node.parent;
+			if (!node.present && (node.left == null || node.right == null)) {
+				unlink(node);
+			}
+			else {
+				updateHeight(node);
+				balance(node);
+			}
+			node = parent;
+		}
+	}
+
+	/**
+	 * Balances the tree from the perspective of the given node.
+	 * This is done by determining the scenario and performing
+	 * either left or right rotations.
+	 *
+	 * @param current node to balance at
+	 */
+	private void balance(TreeNode current) {
+		if (height(current.left) - height(current.right) > 1) { // scenario 1 or 2
+			if (height(current.left.left) < height(current.left.right)) { // scenario 2
+				leftRotation(current.left);
+			}
+			rightRotation(current);
+		}
+		else if (height(current.right) - height(current.left) > 1) { // scenario 3 or 4
+			if (height(current.right.right) < height(current.right.left)) { // scenario 3
+				rightRotation(current.right);
+			}
+			leftRotation(current);
+		}
+	}
+
+	/**
+	 * Performs a right rotation at the current node.  The node moves down
+	 * and loses its left subtree, so it is marked shrinking until the links
+	 * are in place, including the link from its parent.
+	 *
+	 * @param current node to perform rotation at
+	 */
+	private void rightRotation(TreeNode current) {
+		TreeNode parent = current.parent;
+		TreeNode rt = current.left;
+		TreeNode moved = rt.right;
+		current.version = current.version | SHRINKING;
+		current.left = moved;
+		if (moved != null) {
+			moved.parent = current;
+		}
+		rt.right = current;
+		current.parent = rt;
+		replaceChild(parent, current, rt);
+		rt.parent = parent;
+		updateHeight(current);
+		updateHeight(rt);
+		current.version = (current.version & ~SHRINKING) + VERSION_STEP;
+	}
+
+	/**
+	 * Performs a left rotation at the current node.  The node moves down
+	 * and loses its right subtree, so it is marked shrinking until the
+	 * links are in place, including the link from its parent.
+	 *
+	 * @param current node to perform rotation at
+	 */
+	private void leftRotation(TreeNode current) {
+		TreeNode parent = current.parent;
+		TreeNode rt = current.right;
+		TreeNode moved = rt.left;
+		current.version = current.version | SHRINKING;
+		current.right = moved;
+		if (moved != null) {
+			moved.parent = current;
+		}
+		rt.left = current;
+		current.parent = rt;
+		replaceChild(parent, current, rt);
+		rt.parent = parent;
+		updateHeight(current);
+		updateHeight(rt);
+		current.version = (current.version & ~SHRINKING) + VERSION_STEP;
+	}
+
+	/**
+	 * Returns the number of elements in the set.
+	 *
+	 * O(1):  Not dependent on tree size.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest).  The write lock is held while the tree
+	 * is copied, so the array is a consistent snapshot; readers are not
+	 * held up.
+	 *
+	 * O(n):  Visits the entire tree.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		writeLock.lock();
+		try {
+			Object[] data = new Object[size];
+			int count = toArray(holder.right, data, 0);
+			return count == data.length ? data : Arrays.copyOf(data, count);
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Copies the present elements of a subtree into the array in order.
+	 *
+	 * @param current subtree to copy
+	 * @param data array to fill
+	 * @param idx position of the first element of the subtree
+	 * @return position after the last element of the subtree
+	 */
+	private int toArray(TreeNode current, Object[] data, int idx) {
+		if (current == null) {
+			return idx;
+		}
+		idx = toArray(current.left, data, idx);
+		if (current.present) {
+			data[idx++] = current.datum;
+		}
+		return toArray(current.right, data, idx);
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Copies the set with {@code toArray()}.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (Object obj : toArray()) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the set taken with
+	 * {@code toArray()}, so it never throws
+	 * {@code ConcurrentModificationException}.
+	 *
+	 * O(n):  To take the snapshot.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<T> iterator() {
+		return ((List<T>) (List<?>) Arrays.asList(toArray())).iterator();
+	}
+
+}
@@ -0,0 +1,430 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements the provided Set interface with an {@code AVLSet}
+ * behind a flat combining front end, after Hendler, Incze, Shavit and
+ * Tzafrir, "Flat Combining and the Synchronization-Parallelism Tradeoff".
+ *
+ * A thread does not queue for the lock to make its change.  It writes the
+ * operation into its own request slot and tries the lock once.  The thread
+ * that gets the lock becomes the combiner: it collects every pending
+ * request, sorts them by key, applies them to the tree in that order and
+ * hands back the results, so one lock hand off serves a whole batch and the
+ * top of the tree stays in cache from one request to the next.  The other
+ * threads spin on their own slot until it is served or the lock comes free,
+ * and block on the lock if that takes more than {@code SPINS} tries.
+ *
+ * A thread takes a free slot when it uses the set and has none.  The
+ * combiner counts its passes, and a slot that has held no request for
+ * {@code IDLE} passes is freed, so the slots of threads that stopped using
+ * the set, or ended, go to other threads; the owner of a freed slot takes
+ * a new one on its next operation.  While all {@code SLOTS} are taken,
+ * further threads take the lock, apply their operations directly and then
+ * make a combining pass.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class FlatCombiningAVLSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Number of request slots.
+	 */
+	static final int SLOTS = 128;
+
+	/**
+	 * Number of times a waiting thread yields before it blocks on the lock
+	 * instead, so waiters do not keep stealing time from a combiner that
+	 * has been descheduled.
+	 */
+	static final int SPINS = 64;
+
+	/**
+	 * Number of combining passes a slot may go without a request before the
+	 * combiner frees it.
+	 */
+	static final int IDLE = 1024;
+
+	/**
+	 * Operations a request can hold.
+	 */
+	private static final int NONE = 0;
+	private static final int ADD = 1;
+	private static final int REMOVE = 2;
+	private static final int CONTAINS = 3;
+
+	/**
+	 * This class defines the request slot of one thread.  Writing
+	 * {@code op} publishes the argument, and setting it back to NONE
+	 * publishes the result.  {@code pass} is the combining pass the slot
+	 * was registered in or last served in, and {@code registered} is
+	 * cleared when the combiner frees the slot.
+	 *
+	 * @author Megan Bird
+	 */
+	class Request {
+		T obj;
+		boolean result;
+		int pass;
+		volatile boolean registered;
+		volatile int op;
+	}
+
+	/**
+	 * Orders pending requests by key for the combiner.
+	 */
+	private final Comparator<Request> byKey = new Comparator<Request>() {
+		@Override
+		public int compare(Request first, Request second) {
+			return first.obj.compareTo(second.obj);
+		}
+	};
+
+	/**
+	 * Holds the elements of the set.  Only used while holding the lock.
+	 */
+	private final AVLSet<T> set = new AVLSet<T>();
+
+	/**
+	 * Held by the combiner, or by a thread using the tree directly.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Holds the registered request slots.
+	 */
+	private final AtomicReferenceArray<Request> slots = new AtomicReferenceArray<Request>(SLOTS);
+
+	/**
+	 * Holds the request of each thread, which is in {@code slots} while it
+	 * is registered.
+	 */
+	private final ThreadLocal<Request> request = new ThreadLocal<Request>() {
+		@Override
+		protected Request initialValue() {
+			return new Request();
+		}
+	};
+
+	/**
+	 * Holds the number of combining passes made, written only under the
+	 * lock.
+	 */
+	private volatile int passes;
+
+	/**
+	 * Requests collected by the combiner, reused between batches.
+	 */
+	private Request[] batch;
+
+	/**
+	 * Holds the number of elements, written only under the lock.
+	 */
+	private volatile int size;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public FlatCombiningAVLSet() {
+		batch = (Request[]) new FlatCombiningAVLSet.Request[SLOTS];
+		size = 0;
+	}
+
+	/**
+	 * Runs an operation through the calling thread's request slot and
+	 * returns its result.
+	 *
+	 * @param op ADD, REMOVE or CONTAINS
+	 * @param obj argument of the operation
+	 * @return the result of the operation
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	private boolean submit(int op, T obj) {
+		if (obj == null) {
+			throw new IllegalArgumentException("argument is null");
+		}
+		Request req = request.get();
+		if (!req.registered && !register(req)) {
+			// the pass also ages the slots, which may all be idle
+			lock.lock();
+			try {
+				boolean result = apply(op, obj);
+				combine();
+				return result;
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		req.obj = obj;
+		req.op = op;
+		int spins = 0;
+		while (req.op != NONE) {
+			if (spins >= SPINS) {
+				lock.lock();
+			}
+			else if (!lock.tryLock()) {
+				while (req.op != NONE && lock.isLocked() && spins++ < SPINS) {
+					Thread.yield();
+				}
+				continue;
+			}
+			try {
+				if (req.op != NONE && !req.registered) {
+					// freed after it was checked, so no combiner will see it
+					req.result = apply(req.op, req.obj);
+					req.op = NONE;
+				}
+				if (req.op != NONE) {
+					combine();
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		req.obj = null;
+		return req.result;
+	}
+
+	/**
+	 * Puts a request in a free slot.  The request counts as served in the
+	 * current pass, so it is not freed before it can be used.
+	 *
+	 * O(SLOTS):  Looks for a free slot from the start.
+	 *
+	 * @param req request of the calling thread
+	 * @return {@code true} if a slot was free
+	 */
+	private boolean register(Request req) {
+		req.pass = passes;
+		req.registered = true;
+		for (int i = 0; i < SLOTS; i++) {
+			if (slots.get(i) == null && slots.compareAndSet(i, null, req)) {
+				return true;
+			}
+		}
+		req.registered = false;
+		return false;
+	}
+
+	/**
+	 * Serves every pending request in key order, and frees the slots that
+	 * have been idle for {@code IDLE} passes.  Freed slots leave gaps, so
+	 * every slot is scanned.  Called with the lock held.
+	 */
+	private void combine() {
+		int pass = passes + 1;
+		passes = pass;
+		int count = 0;
+		for (int i = 0; i < SLOTS; i++) {
+			Request req = slots.get(i);
+			if (req == null) {
+				continue;
+			}
+			if (req.op != NONE) {
+				req.pass = pass;
+				batch[count++] = req;
+			}
+			else if (pass - req.pass > IDLE) {
+				slots.set(i, null);
+				req.registered = false;
+			}
+		}
+		if (count > 1) {
+			Arrays.sort(batch, 0, count, byKey);
+		}
+		for (int i = 0; i < count; i++) {
+			Request req = batch[i];
+			req.result = apply(req.op, req.obj);
+			req.op = NONE;
+			batch[i] = null;
+		}
+	}
+
+	/**
+	 * Returns the number of slots registered.
+	 *
+	 * O(SLOTS):  Checks every slot.
+	 *
+	 * @return the number of slots registered
+	 */
+	int registered() {
+		int count = 0;
+		for (int i = 0; i < SLOTS; i++) {
+			if (slots.get(i) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Applies one operation to the tree.  Called with the lock held.
+	 *
+	 * @param op ADD, REMOVE or CONTAINS
+	 * @param obj argument of the operation
+	 * @return the result of the operation, {@code false} for ADD
+	 */
+	private boolean apply(int op, T obj) {
+		if (op == ADD) {
+			set.add(obj);
+			size = set.size();
+			return false;
+		}
+		else if (op == REMOVE) {
+			boolean removed = set.remove(obj);
+			size = set.size();
+			return removed;
+		}
+		else {
+			return set.contains(obj);
+		}
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  One {@code AVLSet} add, possibly made by another thread.
+	 *
+	 * @param obj object to be added to the set
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public void add(T obj) {
+		submit(ADD, obj);
+	}
+
+	/**
+	 * Removes all of the elements from the set.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 */
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			set.clear();
+			size = 0;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.
+	 *
+	 * O(log n):  One {@code AVLSet} search, possibly made by another thread.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public boolean contains(T obj) {
+		return submit(CONTAINS, obj);
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.
+	 *
+	 * O(log n):  One {@code AVLSet} remove, possibly made by another thread.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public boolean remove(T obj) {
+		return submit(REMOVE, obj);
+	}
+
+	/**
+	 * Returns the number of elements in the set.
+	 *
+	 * O(1):  Not dependent on tree size.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest), copied under the lock.
+	 *
+	 * O(n):  Visits the entire tree.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		lock.lock();
+		try {
+			return set.toArray();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Copies the set with {@code toArray()}.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (Object obj : toArray()) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the set taken with
+	 * {@code toArray()}.
+	 *
+	 * O(n):  To take the snapshot.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<T> iterator() {
+		return ((List<T>) (List<?>) Arrays.asList(toArray())).iterator();
+	}
+
+}
@@ -22,6 +22,13 @@
 
 //package edu.gregory.gelfond.interfaces;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * The {@code GraphVizWriteable} interface defines a common set of functions
  * for converting a data type into a GraphViz dot file representation.
@@ -30,10 +37,290 @@
  * @version 1.0
  */
 public interface GraphVizWriteable {
+    /**
+     * The {@code TreeShape} interface gives {@code graphvizTree()} access to
+     * the nodes of a binary tree: their children, their labels, and how a
+     * subtree below the levels written is drawn.
+     *
+     * @param <N> the type of the nodes
+     */
+    interface TreeShape<N> {
+        /**
+         * Returns the left child of a node.
+         *
+         * @param node node of the tree
+         * @return the left child, or {@code null}
+         */
+        N left(N node);
+
+        /**
+         * Returns the right child of a node.
+         *
+         * @param node node of the tree
+         * @return the right child, or {@code null}
+         */
+        N right(N node);
+
+        /**
+         * Returns the text a node is drawn with.
+         *
+         * @param node node of the tree
+         * @return the label of the node
+         */
+        String label(N node);
+
+        /**
+         * Writes the statement standing for a subtree below the deepest
+         * level written.  The default implementation writes nothing, and
+         * the subtree is drawn as a "..." node.
+         *
+         * @param out destination of the dot file
+         * @param id number of the statement
+         * @param node root of the subtree
+         * @return {@code true} if a statement was written
+         * @throws IOException if out throws one
+         */
+        default boolean subtree(Appendable out, long id, N node) throws IOException {
+            return false;
+        }
+
+        /**
+         * Returns {@code true} if a node is drawn filled.  The default
+         * implementation fills no node.
+         *
+         * @param node node of the tree
+         * @return {@code true} if the node is drawn filled
+         */
+        default boolean filled(N node) {
+            return false;
+        }
+    }
+
     /**
      * Returns the GraphViz dot file representation of the calling object.
      *
      * @return the GraphViz dot file representation of the calling object
      */
     String graphvizForm();
+
+    /**
+     * Writes the GraphViz dot file representation of the calling object to
+     * the given {@code Appendable}.  Implementations should write it as they
+     * go rather than building it in memory first.
+     *
+     * @param out destination of the dot file
+     * @throws IOException if out throws one
+     */
+    default void graphvizForm(Appendable out) throws IOException {
+        graphvizForm(out, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes the GraphViz dot file representation of the calling object to
+     * the given {@code Appendable}, leaving out everything deeper than
+     * {@code maxDepth} and everything after the first {@code maxNodes}
+     * nodes.  Each part that is left out is drawn as a single "..." node.
+     *
+     * The default implementation writes {@code graphvizForm()} and ignores
+     * the limits.
+     *
+     * @param out destination of the dot file
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @throws IOException if out throws one
+     */
+    default void graphvizForm(Appendable out, int maxDepth, long maxNodes) throws IOException {
+        out.append(graphvizForm());
+    }
+
+    /**
+     * Writes the GraphViz dot file representation of the calling object to
+     * the given channel, in UTF-8, starting at its current position.  The
+     * writer from {@code Channels.newWriter()} buffers the output itself, and
+     * the channel is left open.
+     *
+     * @param channel destination of the dot file
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @throws IOException if writing to the channel fails
+     */
+    default void graphvizForm(FileChannel channel, int maxDepth, long maxNodes) throws IOException {
+        Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), 1 << 16);
+        graphvizForm(out, maxDepth, maxNodes);
+        out.flush();
+    }
+
+    /**
+     * Writes a summarized GraphViz dot file representation of the calling
+     * object to the given {@code Appendable}: the top {@code levels} levels
+     * are written node for node and each subtree below them is drawn as a
+     * single box describing it.  The cost should depend on the size of the
+     * output rather than on the size of the object.
+     *
+     * The default implementation writes the top levels with
+     * {@code graphvizForm(out, levels - 1, Long.MAX_VALUE)}, so each
+     * subtree below them is drawn as a "..." node.
+     *
+     * @param out destination of the dot file
+     * @param levels number of levels written in full
+     * @throws IOException if out throws one
+     */
+    default void graphvizSummary(Appendable out, int levels) throws IOException {
+        graphvizForm(out, levels - 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes a binary tree as a dot graph as it walks the tree, leaving out
+     * everything deeper than {@code maxDepth} and everything after the first
+     * {@code maxNodes} nodes.  A subtree below maxDepth is drawn as
+     * {@code shape.subtree()} writes it, or as a single "..." node, and so
+     * is each subtree left out after maxNodes.
+     *
+     * The walk keeps its own stack, one entry per level, rather than
+     * recursing, so a degenerate tree cannot overflow the call stack.  Nodes
+     * are numbered in the order they are reached, in a {@code long}, so the
+     * numbers stay unique at any depth.
+     *
+     * O(n):  Visits each written node once, with O(h) extra memory.
+     *
+     * @param <N> the type of the nodes
+     * @param out destination of the dot file
+     * @param root root of the tree, or {@code null}
+     * @param shape access to the nodes of the tree
+     * @param dpi resolution of the graph
+     * @param caption label of the graph, or {@code null}
+     * @param maxDepth depth of the deepest nodes to write, the root being 0
+     * @param maxNodes greatest number of nodes to write
+     * @throws IOException if out throws one
+     */
+    @SuppressWarnings("unchecked")
+    static <N> void graphvizTree(Appendable out, N root, TreeShape<N> shape, int dpi, String caption,
+            int maxDepth, long maxNodes) throws IOException {
+        out.append("digraph G {\n");
+        out.append("graph [ dpi = ").append(Integer.toString(dpi)).append(" ]\n");
+        if (caption != null) {
+            out.append("label=\"").append(caption).append("\";\n");
+        }
+        out.append("nodesep=0.3;\n");
+        out.append("ranksep=0.2;\n");
+        out.append("margin=0.1;\n");
+        out.append("node [shape=circle];\n");
+        out.append("edge [arrowsize=0.8];\n");
+
+        // pending subtrees, each with its number and depth
+        Object[] nodes = new Object[16];
+        long[] ids = new long[16];
+        int[] depths = new int[16];
+        int count = 0;
+        long next = 1;
+        long written = 0;
+
+        if (root != null) {
+            nodes[count] = root;
+            ids[count] = next++;
+            depths[count++] = 0;
+        }
+
+        while (count > 0) {
+            N t = (N) nodes[--count];
+            long id = ids[count];
+            int depth = depths[count];
+            nodes[count] = null;
+
+            if (depth > maxDepth && shape.subtree(out, id, t)) {
+                continue;
+            }
+            if (depth > maxDepth || written >= maxNodes) {
+                graphvizElision(out, id);
+                continue;
+            }
+            graphvizNode(out, id, shape.label(t));
+            written++;
+            if (shape.filled(t)) {
+                out.append("node").append(Long.toString(id)).append(" [style=filled];\n");
+            }
+
+            // number the children left to right, then push the right one
+            // first so the left subtree is written first
+            N leftChild = shape.left(t);
+            N rightChild = shape.right(t);
+            long left = leftChild == null ? 0 : next++;
+            long right = rightChild == null ? 0 : next++;
+            if (count + 2 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+                ids = Arrays.copyOf(ids, 2 * ids.length);
+                depths = Arrays.copyOf(depths, 2 * depths.length);
+            }
+            if (leftChild != null) {
+                graphvizEdge(out, id, left);
+            }
+            if (rightChild != null) {
+                graphvizEdge(out, id, right);
+                nodes[count] = rightChild;
+                ids[count] = right;
+                depths[count++] = depth + 1;
+            }
+            if (leftChild != null) {
+                nodes[count] = leftChild;
+                ids[count] = left;
+                depths[count++] = depth + 1;
+            }
+        }
+
+        out.append("}");
+    }
+
+    /**
+     * Writes a box statement standing for a whole subtree, labelled with
+     * its size, its height and the range of its elements.
+     *
+     * @param out destination of the dot file
+     * @param id number of the box
+     * @param size number of elements in the subtree
+     * @param height height of the subtree
+     * @param min least element of the subtree
+     * @param max greatest element of the subtree
+     * @throws IOException if out throws one
+     */
+    static void graphvizSubtree(Appendable out, long id, long size, int height, Object min, Object max)
+            throws IOException {
+        out.append("node").append(Long.toString(id)).append(" [shape=box, label=\"n=").append(Long.toString(size))
+                .append(" h=").append(Integer.toString(height)).append("\\n[").append(String.valueOf(min))
+                .append(", ").append(String.valueOf(max)).append("]\"];\n");
+    }
+
+    /**
+     * Writes a node statement, {@code node<id> [label="<label>"];}.
+     *
+     * @param out destination of the dot file
+     * @param id number of the node
+     * @param label text of the node
+     * @throws IOException if out throws one
+     */
+    static void graphvizNode(Appendable out, long id, String label) throws IOException {
+        out.append("node").append(Long.toString(id)).append(" [label=\"").append(label).append("\"];\n");
+    }
+
+    /**
+     * Writes the statement for a part of the tree that was left out.
+     *
+     * @param out destination of the dot file
+     * @param id number of the node standing for the part left out
+     * @throws IOException if out throws one
+     */
+    static void graphvizElision(Appendable out, long id) throws IOException {
+        out.append("node").append(Long.toString(id)).append(" [label=\"...\", shape=none];\n");
+    }
+
+    /**
+     * Writes an edge statement, {@code node<from> -> node<to>;}.
+     *
+     * @param out destination of the dot file
+     * @param from number of the parent node
+     * @param to number of the child node
+     * @throws IOException if out throws one
+     */
+    static void graphvizEdge(Appendable out, long from, long to) throws IOException {
+        out.append("node").append(Long.toString(from)).append(" -> node").append(Long.toString(to)).append(";\n");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,333 @@
+/**
+ * This class is an AVL tree set of {@code int} values.  It follows
+ * {@code AVLSet} but keeps the key of each node in an {@code int} field, so
+ * adding, finding or removing a value never boxes it into an
+ * {@code Integer} and comparisons do not go through {@code compareTo}.
+ *
+ * @author Megan Bird
+ */
+public class IntAVLSet {
+
+	/**
+	 * This class defines a node of a binary tree;
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeNode {
+		int datum;
+		int height;
+		TreeNode left;
+		TreeNode right;
+
+		/**
+		 * Constructs an new TreeNode
+		 *
+		 * @param datum
+		 */
+		TreeNode(int datum) {
+			this.datum = datum;
+			this.height = 0;
+			this.left = null;
+			this.right = null;
+		}
+	}
+
+	/**
+	 * Holds the node designated as the root of the tree;
+	 */
+	private TreeNode root;
+
+	/**
+	 * Holds the number of nodes of the tree;
+	 */
+	private int size;
+
+	/**
+	 * Constructs and empty IntAVLSet
+	 */
+	public IntAVLSet() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for a null node.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+
+	/**
+	 * Updates the height of given node based on heights of its children.
+	 *
+	 * @param current Node to update height of
+	 * @return the updated node
+	 */
+	private TreeNode updateHeight(TreeNode current) {
+		current.height = 1 + Math.max(height(current.left), height(current.right));
+		return current;
+	}
+
+	/**
+	 * Balances the tree from the perspective of the given node.
+	 * This is done by determining the scenario and performing
+	 * either left or right rotations.
+	 *
+	 * @param current node to balance at
+	 * @return balanced tree
+	 */
+	private TreeNode balance(TreeNode current) {
+		if (height(current.left) - height(current.right) > 1) { // scenario 1 or 2
+			if (height(current.left.left) < height(current.left.right)) { // scenario 2
+				current.left = leftRotation(current.left);
+			}
+			current = rightRotation(current);
+		}
+		else if (height(current.right) - height(current.left) > 1) { // scenario 3 or 4
+			if (height(current.right.right) < height(current.right.left)) { // scenario 3
+				current.right = rightRotation(current.right);
+			}
+			current = leftRotation(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Performs a right rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode rightRotation(TreeNode current) {
+		TreeNode rt = current.left;
+		current.left = rt.right;
+		rt.right = updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Performs a left rotation at the current node for balancing
+	 *
+	 * @param current node to perform rotation at
+	 * @return resulting node after rotation
+	 */
+	private TreeNode leftRotation(TreeNode current) {
+		TreeNode rt = current.right;
+		current.right = rt.left;
+		rt.left = updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Iterates through entire tree.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		toString(root, repr);
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Appends the contents of a subtree to the representation.
+	 *
+	 * @param current subtree to append
+	 * @param repr representation being built
+	 */
+	private void toString(TreeNode current, StringBuilder repr) {
+		if (current != null) {
+			toString(current.left, repr);
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(current.datum);
+			toString(current.right, repr);
+		}
+	}
+
+	/**
+     * Adds the specified value to the set.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param value value to be added to the set
+     */
+	public void add(int value) {
+		root = add(root, value);
+	}
+
+	/**
+	 * Recursively implements the public add operation.
+	 *
+	 * @param current Tree to be added to
+	 * @param value value to add to tree
+	 * @return Tree resulting from the add
+	 */
+	private TreeNode add(TreeNode current, int value) {
+		if (current == null) {
+			size++;
+			return new TreeNode(value);
+		}
+		else if (value < current.datum) {
+			current.left = add(current.left, value);
+		}
+		else if (value > current.datum) {
+			current.right = add(current.right, value);
+		}
+		else {
+			return current;
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+     * Removes all of the elements from the set.
+     *
+     * O(1):  Complexity not dependent on tree size.
+     */
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+     * Returns {@code true} if the set contains the specified value and
+     * {@code false} otherwise.
+     *
+     * O(log n):  Follows a single path of the balanced tree.
+     *
+     * @param value the value to find in the set
+     * @return {@code true} if the set contains the specified value and
+     *         {@code false} otherwise
+     */
+	public boolean contains(int value) {
+		TreeNode current = root;
+		while (current != null) {
+			if (value < current.datum) {
+				current = current.left;
+			}
+			else if (value > current.datum) {
+				current = current.right;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+     * Returns {@code true} if the set is empty and {@code false} otherwise.
+     *
+     * O(1):  Complexity not dependent on tree size.
+     *
+     * @return {@code true} if the set is empty and {@code false} otherwise
+     */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+     * Remove the specified value from the set, if it is present.
+     *
+     * O(log n):  Follows a single path of the balanced tree, plus the path
+     * 		to the predecessor when the node has two children.
+     *
+     * @param value the value to remove
+     * @return {@code true} if the set contained the specified value and
+     *         {@code false} otherwise
+     */
+	public boolean remove(int value) {
+		int startSize = size;
+		root = remove(root, value);
+		return size != startSize;
+	}
+
+	/**
+	 * Recursively implements the public remove method.
+	 *
+	 * @param current tree to look in.
+	 * @param value The value to remove.
+	 * @return Resulting tree after removal.
+	 */
+	private TreeNode remove(TreeNode current, int value) {
+		if (current == null) {
+			return null;
+		}
+		else if (value < current.datum) {
+			current.left = remove(current.left, value);
+		}
+		else if (value > current.datum) {
+			current.right = remove(current.right, value);
+		}
+		else if (current.left == null || current.right == null) {
+			size--;
+			return current.left != null ? current.left : current.right;
+		}
+		else {
+			TreeNode max = current.left;
+			while (max.right != null) {
+				max = max.right;
+			}
+			current.datum = max.datum;
+			current.left = remove(current.left, max.datum);
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+     * Returns the number of elements in the set.
+     *
+     * O(1):  Not dependent on tree size.
+     *
+     * @return the number of elements in the set
+     */
+	public int size() {
+		return size;
+	}
+
+	/**
+     * Returns an array containing all of the values in the set in the proper
+     * order (from least to greatest).
+     *
+     * O(n):  Visits the entire tree.
+     *
+     * @return an array containing the values in the set
+     */
+	public int[] toArray() {
+		int[] data = new int[size];
+		toArray(root, data, 0);
+		return data;
+	}
+
+	/**
+	 * Copies a subtree into the array in order.
+	 *
+	 * @param current subtree to copy
+	 * @param data array to fill
+	 * @param idx position of the first value of the subtree
+	 * @return position after the last value of the subtree
+	 */
+	private int toArray(TreeNode current, int[] data, int idx) {
+		if (current == null) {
+			return idx;
+		}
+		idx = toArray(current.left, data, idx);
+		data[idx++] = current.datum;
+		return toArray(current.right, data, idx);
+	}
+
+}
@@ -0,0 +1,106 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code KeyCodec} interface defines how the elements of a set are
+ * stored in a binary snapshot.  Every element takes the same number of
+ * bytes, so the element at index i of a snapshot starts at byte
+ * {@code i * width()} and a snapshot can be searched where it lies without
+ * being decoded first.
+ *
+ * @param <T> the type of the objects encoded
+ * @author Megan Bird
+ */
+public interface KeyCodec<T extends Comparable<T>> {
+
+    /**
+     * Encodes {@code Integer} elements in 4 bytes.
+     */
+    KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+        @Override
+        public int width() {
+            return 4;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Integer key) {
+            buffer.putInt(key);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int position) {
+            return buffer.getInt(position);
+        }
+
+        @Override
+        public int compare(ByteBuffer buffer, int position, Integer key) {
+            return Integer.compare(buffer.getInt(position), key);
+        }
+    };
+
+    /**
+     * Encodes {@code Long} elements in 8 bytes.
+     */
+    KeyCodec<Long> LONG = new KeyCodec<Long>() {
+        @Override
+        public int width() {
+            return 8;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Long key) {
+            buffer.putLong(key);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int position) {
+            return buffer.getLong(position);
+        }
+
+        @Override
+        public int compare(ByteBuffer buffer, int position, Long key) {
+            return Long.compare(buffer.getLong(position), key);
+        }
+    };
+
+    /**
+     * Returns the number of bytes every element takes.
+     *
+     * @return the number of bytes every element takes, at least 1
+     */
+    int width();
+
+    /**
+     * Writes an element at the position of the buffer, advancing it by
+     * {@code width()} bytes.
+     *
+     * @param buffer buffer with at least {@code width()} bytes remaining
+     * @param key element to write
+     */
+    void write(ByteBuffer buffer, T key);
+
+    /**
+     * Reads the element that starts at an absolute position of the buffer,
+     * leaving the position of the buffer unchanged.
+     *
+     * @param buffer buffer to read from
+     * @param position index of the first byte of the element
+     * @return the element, never {@code null}
+     */
+    T read(ByteBuffer buffer, int position);
+
+    /**
+     * Compares the element that starts at an absolute position of the
+     * buffer with the given one.  The default implementation reads the
+     * element first; codecs can override it to compare without creating
+     * one.
+     *
+     * @param buffer buffer to read from
+     * @param position index of the first byte of the element
+     * @param key element to compare against
+     * @return a negative number, zero or a positive number as the stored
+     *         element is less than, equal to or greater than key
+     */
+    default int compare(ByteBuffer buffer, int position, T key) {
+        return read(buffer, position).compareTo(key);
+    }
+}
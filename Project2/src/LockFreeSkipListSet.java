@@ -0,0 +1,446 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements the provided Set interface with a lock-free skip
+ * list that can be shared by any number of threads without locking.
+ *
+ * Every link of a node is an {@code AtomicMarkableReference}.  A node is
+ * removed in two steps: first it is removed logically by setting the mark on
+ * each of its links, top level first, and the thread that marks the bottom
+ * link owns the removal.  Then it is unlinked physically by compare and set
+ * on the links of its predecessors, which any thread passing by may do.  An
+ * addition links the bottom level first, which is the point where the
+ * element becomes part of the set, then the higher levels.
+ *
+ * {@code contains()} never writes and never retries, it simply steps over
+ * marked nodes.  {@code size()}, {@code toArray()} and iteration are weakly
+ * consistent: they reflect the set at some point during the call or
+ * traversal and never throw {@code ConcurrentModificationException}.
+ *
+ * Adapted from the lock-free skip list of Herlihy and Shavit, "The Art of
+ * Multiprocessor Programming", section 14.4.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class LockFreeSkipListSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Holds the number of levels of the skip list, enough for 2^32
+	 * elements.
+	 */
+	private static final int MAX_LEVEL = 32;
+
+	/**
+	 * This class defines a node of the skip list.  The head node is the only
+	 * node with a {@code null} datum and sorts before every element.
+	 *
+	 * @author Megan Bird
+	 */
+	class Node {
+		final T datum;
+		final int topLevel;
+		final AtomicMarkableReference<Node>[] next;
+
+		/**
+		 * Constructs a node linked on levels 0 through topLevel.
+		 *
+		 * @param datum
+		 * @param topLevel highest level the node is linked on
+		 */
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Node(T datum, int topLevel) {
+			this.datum = datum;
+			this.topLevel = topLevel;
+			this.next = (AtomicMarkableReference<Node>[]) new AtomicMarkableReference[topLevel + 1];
+			for (int i = 0; i <= topLevel; i++) {
+				next[i] = new AtomicMarkableReference<Node>(null, false);
+			}
+		}
+	}
+
+	/**
+	 * This class defines a weakly consistent iterator over the bottom level
+	 * of the skip list.  It skips over nodes that are removed logically.
+	 *
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private Node nextNode = firstLive(head);
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			return nextNode != null;
+		}
+
+		/**
+		 * Returns the next element of the set.
+		 *
+		 * @return the next element of the set
+		 * @throws NoSuchElementException if there are no elements left
+		 */
+		@Override
+		public T next() {
+			if (nextNode == null) {
+				throw new NoSuchElementException();
+			}
+			T datum = nextNode.datum;
+			nextNode = firstLive(nextNode);
+			return datum;
+		}
+	}
+
+	/**
+	 * Holds the head node, which is linked on every level.
+	 */
+	private final Node head = new Node(null, MAX_LEVEL - 1);
+
+	/**
+	 * Holds the number of elements, counted when an addition links its
+	 * bottom level or a removal marks it.
+	 */
+	private final LongAdder size = new LongAdder();
+
+	/**
+	 * Returns a random level with probability 1/2^(k+1) of being k, so that
+	 * each level holds about half of the nodes of the level below it.
+	 *
+	 * @return a level from 0 to MAX_LEVEL - 1
+	 */
+	private static int randomLevel() {
+		return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1)));
+	}
+
+	/**
+	 * Finds the predecessor and successor of the object on every level,
+	 * unlinking the marked nodes it passes.  When an unlink fails because
+	 * another thread changed the predecessor, the search starts again from
+	 * the head.
+	 *
+	 * @param obj object to look for
+	 * @param preds filled with the last node before obj on each level
+	 * @param succs filled with the first node not before obj on each level
+	 * @return {@code true} if the bottom level holds an unmarked node equal
+	 * 		to obj
+	 */
+	private boolean find(T obj, Node[] preds, Node[] succs) {
+		boolean[] marked = {false};
+		retry:
+		while (true) {
+			Node pred = head;
+			Node curr = null;
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				curr = pred.next[level].getReference();
+				while (curr != null) {
+					Node succ = curr.next[level].get(marked);
+					if (marked[0]) {
+						if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+							continue retry;
+						}
+						curr = succ;
+					}
+					else if (curr.datum.compareTo(obj) < 0) {
+						pred = curr;
+						curr = succ;
+					}
+					else {
+						break;
+					}
+				}
+				preds[level] = pred;
+				succs[level] = curr;
+			}
+			return curr != null && curr.datum.compareTo(obj) == 0;
+		}
+	}
+
+	/**
+	 * Returns the first node after the given node on the bottom level that
+	 * is not removed logically.
+	 *
+	 * @param node node to start after
+	 * @return the next live node, or {@code null} at the end of the list
+	 */
+	private Node firstLive(Node node) {
+		Node curr = node.next[0].getReference();
+		while (curr != null && curr.next[0].isMarked()) {
+			curr = curr.next[0].getReference();
+		}
+		return curr;
+	}
+
+	/**
+	 * Creates an array of nodes, which cannot be done directly for a class
+	 * nested in a generic one.
+	 *
+	 * @param length length of the array
+	 * @return an array of {@code null} nodes
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Node[] newNodeArray(int length) {
+		return (Node[]) new LockFreeSkipListSet.Node[length];
+	}
+
+	/**
+	 * Checks the argument of an operation.
+	 *
+	 * @param obj argument to check
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	private void checkArgument(T obj) {
+		if (obj == null) {
+			throw new IllegalArgumentException("elements must not be null");
+		}
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  Expected, for the search and the links on each level.
+	 *
+	 * @param obj object to be added to the set
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public void add(T obj) {
+		checkArgument(obj);
+		int topLevel = randomLevel();
+		Node[] preds = newNodeArray(MAX_LEVEL);
+		Node[] succs = newNodeArray(MAX_LEVEL);
+
+		while (true) {
+			if (find(obj, preds, succs)) {
+				return;
+			}
+			Node node = new Node(obj, topLevel);
+			for (int level = 0; level <= topLevel; level++) {
+				node.next[level].set(succs[level], false);
+			}
+			// linking the bottom level adds the element to the set
+			if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+				continue;
+			}
+			size.increment();
+
+			for (int level = 1; level <= topLevel; level++) {
+				while (true) {
+					Node pred = preds[level];
+					Node succ = succs[level];
+					Node current = node.next[level].getReference();
+					if (node.next[level].isMarked()) {
+						// removed already, the higher levels are left unlinked
+						return;
+					}
+					if (current != succ && !node.next[level].compareAndSet(current, succ, false, false)) {
+						continue;
+					}
+					if (pred.next[level].compareAndSet(succ, node, false, false)) {
+						break;
+					}
+					find(obj, preds, succs);
+				}
+			}
+			return;
+		}
+	}
+
+	/**
+	 * Removes all of the elements from the set.  Each element is removed
+	 * separately, so other threads may see some of them removed and not
+	 * others, and elements added during the call may remain.
+	 *
+	 * O(n):  One removal at the front of the list per element.
+	 */
+	@Override
+	public void clear() {
+		Node first = firstLive(head);
+		while (first != null) {
+			remove(first.datum);
+			first = firstLive(head);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.  Never writes to the list and never retries.
+	 *
+	 * O(log n):  Expected, for the search.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public boolean contains(T obj) {
+		checkArgument(obj);
+		boolean[] marked = {false};
+		Node pred = head;
+		Node curr = null;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			curr = pred.next[level].getReference();
+			while (curr != null) {
+				Node succ = curr.next[level].get(marked);
+				if (marked[0]) {
+					curr = succ;
+				}
+				else if (curr.datum.compareTo(obj) < 0) {
+					pred = curr;
+					curr = succ;
+				}
+				else {
+					break;
+				}
+			}
+		}
+		return curr != null && curr.datum.compareTo(obj) == 0;
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Looks for a live node at the front of the bottom level.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return firstLive(head) == null;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.  When
+	 * several threads remove the same object at once exactly one of them
+	 * returns {@code true}.
+	 *
+	 * O(log n):  Expected, for the search and the unlinking.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException if obj is {@code null}
+	 */
+	@Override
+	public boolean remove(T obj) {
+		checkArgument(obj);
+		Node[] preds = newNodeArray(MAX_LEVEL);
+		Node[] succs = newNodeArray(MAX_LEVEL);
+		boolean[] marked = {false};
+
+		if (!find(obj, preds, succs)) {
+			return false;
+		}
+		Node victim = succs[0];
+		for (int level = victim.topLevel; level >= 1; level--) {
+			Node succ = victim.next[level].get(marked);
+			while (!marked[0]) {
+				victim.next[level].compareAndSet(succ, succ, false, true);
+				succ = victim.next[level].get(marked);
+			}
+		}
+		Node succ = victim.next[0].get(marked);
+		while (true) {
+			boolean markedHere = victim.next[0].compareAndSet(succ, succ, false, true);
+			succ = victim.next[0].get(marked);
+			if (markedHere) {
+				size.decrement();
+				// unlinks the victim on every level
+				find(obj, preds, succs);
+				return true;
+			}
+			else if (marked[0]) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the set.  While other threads are
+	 * adding or removing elements the count is only an estimate.
+	 *
+	 * O(p):  Sums one counter cell per contending thread.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return (int) Math.max(0, Math.min(Integer.MAX_VALUE, size.sum()));
+	}
+
+	/**
+	 * Returns an array containing the objects in the set in the proper
+	 * order (from least to greatest).  The array is weakly consistent, it
+	 * holds every element present for the whole traversal and may or may
+	 * not hold elements added or removed during it.
+	 *
+	 * O(n):  Walks the bottom level once.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		ArrayList<T> data = new ArrayList<T>(size());
+		for (T obj : this) {
+			data.add(obj);
+		}
+		return data.toArray();
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Walks the bottom level once.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (T obj : this) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over the elements of the set from
+	 * least to greatest.
+	 *
+	 * O(1):  Per step, apart from stepping over removed nodes.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator();
+	}
+
+	/**
+	 * Returns a weakly consistent spliterator over the elements of the set.
+	 *
+	 * @return a spliterator over the elements of the set
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.SORTED
+				| Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+	}
+
+}
@@ -0,0 +1,241 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the provided Set interface as a read-only view of a
+ * binary snapshot written by {@code AVLSet.writeSnapshot()} or
+ * {@code BinarySearchTree.writeSnapshot()}.  The snapshot is memory-mapped
+ * and never copied: {@code contains()} is a binary search over the mapped
+ * elements, which are in ascending order and all the same width, so the
+ * set answers queries as soon as it is opened and only the pages it
+ * touches are read from disk.
+ *
+ * The mapping stays valid after the channel it came from is closed.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class MappedSnapshotSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Holds the mapped elements, element i starting at byte i * width.
+	 */
+	private final ByteBuffer keys;
+
+	/**
+	 * Holds the codec the elements were written with.
+	 */
+	private final KeyCodec<T> codec;
+
+	/**
+	 * Holds the number of bytes each element takes.
+	 */
+	private final int width;
+
+	/**
+	 * Holds the number of elements.
+	 */
+	private final int size;
+
+	private MappedSnapshotSet(ByteBuffer keys, KeyCodec<T> codec) {
+		this.keys = keys;
+		this.codec = codec;
+		this.width = codec.width();
+		this.size = keys.limit() / width;
+	}
+
+	/**
+	 * Maps the snapshot at the current position of the channel after
+	 * checking its checksum.
+	 *
+	 * O(n):  To checksum the elements.
+	 *
+	 * @param channel channel to read at its current position
+	 * @param codec codec the snapshot was written with
+	 * @return a read-only set over the snapshot
+	 * @throws IOException if the channel does not hold a valid snapshot for
+	 * 		this codec
+	 */
+	public static <T extends Comparable<T>> MappedSnapshotSet<T> open(FileChannel channel, KeyCodec<T> codec)
+			throws IOException {
+		return open(channel, codec, true);
+	}
+
+	/**
+	 * Maps the snapshot at the current position of the channel.  Without
+	 * verification only the header is read, so opening costs the same
+	 * however large the snapshot is, but damage to the elements goes
+	 * unnoticed.
+	 *
+	 * O(1):  Without verification; O(n) with it.
+	 *
+	 * @param channel channel to read at its current position
+	 * @param codec codec the snapshot was written with
+	 * @param verify {@code true} to check the checksum of the elements
+	 * @return a read-only set over the snapshot
+	 * @throws IOException if the channel does not hold a snapshot for this
+	 * 		codec, or verify is set and the checksum does not match
+	 */
+	public static <T extends Comparable<T>> MappedSnapshotSet<T> open(FileChannel channel, KeyCodec<T> codec,
+			boolean verify) throws IOException {
+		return new MappedSnapshotSet<T>(SnapshotFile.map(channel, codec, verify), codec);
+	}
+
+	/**
+	 * Not supported, the snapshot is read only.
+	 *
+	 * @param obj object to be added to the set
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void add(T obj) {
+		throw new UnsupportedOperationException("snapshot is read only");
+	}
+
+	/**
+	 * Not supported, the snapshot is read only.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("snapshot is read only");
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.
+	 *
+	 * O(log n):  A binary search over the mapped elements, comparing them
+	 * 		where they lie.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean contains(T obj) {
+		int lo = 0;
+		int hi = size - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int comparison = codec.compare(keys, mid * width, obj);
+			if (comparison < 0) {
+				lo = mid + 1;
+			}
+			else if (comparison > 0) {
+				hi = mid - 1;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Complexity not dependent on set size.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Not supported, the snapshot is read only.
+	 *
+	 * @param obj the object to remove
+	 * @return never returns
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public boolean remove(T obj) {
+		throw new UnsupportedOperationException("snapshot is read only");
+	}
+
+	/**
+	 * Returns the number of elements in the set.
+	 *
+	 * O(1):  Read from the header when the set was opened.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest).
+	 *
+	 * O(n):  Decodes every element.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size];
+		for (int i = 0; i < size; i++) {
+			data[i] = codec.read(keys, i * width);
+		}
+		return data;
+	}
+
+	/**
+	 * Returns an iterator that decodes the elements from least to greatest
+	 * as it goes.
+	 *
+	 * O(1):  Each step decodes one element.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public T next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return codec.read(keys, width * index++);
+			}
+		};
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Decodes every element.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				repr.append(", ");
+			}
+			repr.append(codec.read(keys, i * width));
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+}
@@ -0,0 +1,138 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code OrderedSet} interface extends {@code Set} with the operations
+ * that depend on the elements being kept in order: navigation to the
+ * nearest element, range counting, range removal and live views of a
+ * range of the set.
+ *
+ * Ranges are half open, from an inclusive lower bound {@code lo} to an
+ * exclusive upper bound {@code hi}.  Where noted a {@code null} bound means
+ * the range is unbounded on that side.
+ *
+ * @param <T> the type of the objects contained within the {@code OrderedSet}
+ * @author Megan Bird
+ */
+public interface OrderedSet<T> extends Set<T> {
+
+    /**
+     * Returns the least element of the set.
+     *
+     * @return the least element of the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    T first();
+
+    /**
+     * Returns the greatest element of the set.
+     *
+     * @return the greatest element of the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    T last();
+
+    /**
+     * Returns the greatest element less than or equal to the given object,
+     * or {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the greatest element {@code <= obj}, or {@code null}
+     */
+    T floor(T obj);
+
+    /**
+     * Returns the least element greater than or equal to the given object,
+     * or {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the least element {@code >= obj}, or {@code null}
+     */
+    T ceiling(T obj);
+
+    /**
+     * Returns the greatest element strictly less than the given object, or
+     * {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the greatest element {@code < obj}, or {@code null}
+     */
+    T lower(T obj);
+
+    /**
+     * Returns the least element strictly greater than the given object, or
+     * {@code null} if there is no such element.
+     *
+     * @param obj the object to compare against
+     * @return the least element {@code > obj}, or {@code null}
+     */
+    T higher(T obj);
+
+    /**
+     * Returns the number of elements in the range [lo, hi).
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return the number of elements in the range
+     */
+    int countInRange(T lo, T hi);
+
+    /**
+     * Removes every element in the range [lo, hi).
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return the number of elements removed
+     */
+    int removeRange(T lo, T hi);
+
+    /**
+     * Returns an iterator over the elements in the range [lo, hi) from least
+     * to greatest.
+     *
+     * @param lo inclusive lower bound, or {@code null} for no lower bound
+     * @param hi exclusive upper bound, or {@code null} for no upper bound
+     * @return an iterator over the elements in the range
+     */
+    Iterator<T> iterator(T lo, T hi);
+
+    /**
+     * Returns a live view of the elements in the range [lo, hi).  Changes to
+     * the view are made to this set and changes to this set within the range
+     * show through the view.  A {@code null} bound leaves the view
+     * unbounded on that side; on a view, it keeps the view's own bound.  On
+     * a view, both bounds must lie in the closed range of the view, so a
+     * bound equal to its exclusive upper bound gives an empty view.
+     *
+     * @param lo inclusive lower bound of the view, or {@code null} for none
+     * @param hi exclusive upper bound of the view, or {@code null} for none
+     * @return a view of the elements in the range
+     * @throws IllegalArgumentException if lo is greater than hi, or on a
+     *         view, if a bound is outside the range of the view
+     */
+    OrderedSet<T> subSet(T lo, T hi);
+
+    /**
+     * Returns a live view of the elements less than {@code hi}.  A
+     * {@code null} bound gives a view of every element, as for
+     * {@code subSet()}.
+     *
+     * @param hi exclusive upper bound of the view, or {@code null} for none
+     * @return a view of the elements less than hi
+     * @throws IllegalArgumentException on a view, if hi is outside the
+     *         range of the view
+     */
+    OrderedSet<T> headSet(T hi);
+
+    /**
+     * Returns a live view of the elements greater than or equal to
+     * {@code lo}.  A {@code null} bound gives a view of every element, as
+     * for {@code subSet()}.
+     *
+     * @param lo inclusive lower bound of the view, or {@code null} for none
+     * @return a view of the elements greater than or equal to lo
+     * @throws IllegalArgumentException on a view, if lo is outside the
+     *         range of the view
+     */
+    OrderedSet<T> tailSet(T lo);
+}
@@ -0,0 +1,543 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the provided Set interface with a persistent AVL
+ * tree.  Nodes are never changed once built: {@code add()} and
+ * {@code remove()} copy only the nodes on the path from the root to the
+ * change, rebalancing the copies on the way back up, and every other node
+ * is shared with the previous version of the tree.
+ *
+ * Because no version is ever changed, {@code snapshot()} only has to hand
+ * out the current root, and the snapshot stays valid however the set
+ * changes afterwards.  Readers of the set and of its snapshots take no
+ * locks; writers to the set are serialized on the set itself.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class PersistentAVLSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * This class defines an immutable node of the tree.  It keeps its
+	 * height for balancing and the size of its subtree, so the size of any
+	 * version of the tree is known without counting.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeNode {
+		final T datum;
+		final TreeNode left;
+		final TreeNode right;
+		final int height;
+		final int size;
+
+		/**
+		 * Constructs a node over the given children.
+		 *
+		 * @param datum element of the node
+		 * @param left left subtree, may be {@code null}
+		 * @param right right subtree, may be {@code null}
+		 */
+		TreeNode(T datum, TreeNode left, TreeNode right) {
+			this.datum = datum;
+			this.left = left;
+			this.right = right;
+			this.height = 1 + Math.max(height(left), height(right));
+			this.size = 1 + size(left) + size(right);
+		}
+	}
+
+	/**
+	 * This class defines an immutable set over one version of the tree.
+	 * Every operation that would change it throws
+	 * {@code UnsupportedOperationException}.
+	 *
+	 * @author Megan Bird
+	 */
+	class Snapshot implements Set<T> {
+		private final TreeNode root;
+
+		/**
+		 * Constructs a snapshot of the tree with the given root.
+		 *
+		 * @param root root of the version to keep
+		 */
+		Snapshot(TreeNode root) {
+			this.root = root;
+		}
+
+		@Override
+		public void add(T obj) {
+			throw new UnsupportedOperationException("snapshot is immutable");
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException("snapshot is immutable");
+		}
+
+		@Override
+		public boolean contains(T obj) {
+			return PersistentAVLSet.this.contains(root, obj);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return root == null;
+		}
+
+		@Override
+		public boolean remove(T obj) {
+			throw new UnsupportedOperationException("snapshot is immutable");
+		}
+
+		@Override
+		public int size() {
+			return PersistentAVLSet.this.size(root);
+		}
+
+		@Override
+		public Object[] toArray() {
+			return PersistentAVLSet.this.toArray(root);
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new SetIterator(root);
+		}
+
+		/**
+		 * Return a {@code String} representation of the snapshot.
+		 *
+		 * @return a {@code String} representation of the snapshot.
+		 */
+		public String toString() {
+			return PersistentAVLSet.this.toString(root);
+		}
+	}
+
+	/**
+	 * This class iterates over one version of the tree in order, keeping
+	 * the path of nodes still to visit on a stack.
+	 *
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private final Object[] stack;
+		private int depth;
+
+		/**
+		 * Constructs an iterator positioned before the least element.
+		 *
+		 * @param root root of the version to iterate over
+		 */
+		SetIterator(TreeNode root) {
+			stack = new Object[height(root) + 1];
+			depth = 0;
+			pushLeft(root);
+		}
+
+		/**
+		 * Pushes the node and its chain of left children.
+		 *
+		 * @param current node to start from
+		 */
+		private void pushLeft(TreeNode current) {
+			while (current != null) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return depth > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (depth == 0) {
+				throw new NoSuchElementException();
+			}
+			TreeNode current = (TreeNode) stack[--depth];
+			stack[depth] = null;
+			pushLeft(current.right);
+			return current.datum;
+		}
+	}
+
+	/**
+	 * Holds the root of the current version of the tree.
+	 */
+	private volatile TreeNode root;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	public PersistentAVLSet() {
+		root = null;
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for a null node.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+
+	/**
+	 * Returns the size of a subtree, or 0 for a null node.
+	 *
+	 * @param node root of the subtree
+	 * @return number of nodes in the subtree
+	 */
+	private int size(TreeNode node) {
+		if (node == null) {
+			return 0;
+		}
+		else {
+			return node.size;
+		}
+	}
+
+	/**
+	 * Returns an immutable view of the set as it is now.  Later changes to
+	 * the set do not show through it.
+	 *
+	 * O(1):  The snapshot shares every node with the set.
+	 *
+	 * @return an immutable set of the current elements
+	 */
+	public Set<T> snapshot() {
+		return new Snapshot(root);
+	}
+
+	/**
+	 * Builds a balanced node from an element and two subtrees whose heights
+	 * differ by at most two, rotating the new nodes where needed.  This is
+	 * the path copying version of {@code AVLSet.balance()}, with each
+	 * rotation building new nodes instead of relinking old ones.
+	 *
+	 * @param datum element of the node
+	 * @param left left subtree
+	 * @param right right subtree
+	 * @return root of the balanced subtree
+	 */
+	private TreeNode balance(T datum, TreeNode left, TreeNode right) {
+		if (height(left) - height(right) > 1) { // scenario 1 or 2
+			if (height(left.left) < height(left.right)) { // scenario 2
+				left = leftRotation(left.datum, left.left, left.right);
+			}
+			return rightRotation(datum, left, right);
+		}
+		else if (height(right) - height(left) > 1) { // scenario 3 or 4
+			if (height(right.right) < height(right.left)) { // scenario 3
+				right = rightRotation(right.datum, right.left, right.right);
+			}
+			return leftRotation(datum, left, right);
+		}
+		return new TreeNode(datum, left, right);
+	}
+
+	/**
+	 * Builds the result of a right rotation at a node with the given
+	 * element and subtrees.
+	 *
+	 * @param datum element of the node rotated down
+	 * @param left left subtree, which becomes the root
+	 * @param right right subtree
+	 * @return root of the rotated subtree
+	 */
+	private TreeNode rightRotation(T datum, TreeNode left, TreeNode right) {
+		return new TreeNode(left.datum, left.left, new TreeNode(datum, left.right, right));
+	}
+
+	/**
+	 * Builds the result of a left rotation at a node with the given
+	 * element and subtrees.
+	 *
+	 * @param datum element of the node rotated down
+	 * @param left left subtree
+	 * @param right right subtree, which becomes the root
+	 * @return root of the rotated subtree
+	 */
+	private TreeNode leftRotation(T datum, TreeNode left, TreeNode right) {
+		return new TreeNode(right.datum, new TreeNode(datum, left, right.left), right.right);
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  Copies one path of the balanced tree.
+	 *
+	 * @param obj object to be added to the set
+	 */
+	@Override
+	public synchronized void add(T obj) {
+		root = add(root, obj);
+	}
+
+	/**
+	 * Recursively implements the public add operation.  A subtree that does
+	 * not change is returned as it is, so nothing is copied when the object
+	 * is already present.
+	 *
+	 * @param current Node currently being examined
+	 * @param obj Object to be added
+	 * @return the root of the new version of the subtree
+	 */
+	private TreeNode add(TreeNode current, T obj) {
+		if (current == null) {
+			return new TreeNode(obj, null, null);
+		}
+		int comparison = obj.compareTo(current.datum);
+		if (comparison < 0) {
+			TreeNode left = add(current.left, obj);
+			if (left == current.left) {
+				return current;
+			}
+			return balance(current.datum, left, current.right);
+		}
+		else if (comparison > 0) {
+			TreeNode right = add(current.right, obj);
+			if (right == current.right) {
+				return current;
+			}
+			return balance(current.datum, current.left, right);
+		}
+		else {
+			return current;
+		}
+	}
+
+	/**
+	 * Removes all of the elements from the set.  Snapshots keep theirs.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 */
+	@Override
+	public synchronized void clear() {
+		root = null;
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean contains(T obj) {
+		return contains(root, obj);
+	}
+
+	/**
+	 * Searches one version of the tree for the object.
+	 *
+	 * @param current root of the version
+	 * @param obj object to find
+	 * @return {@code true} if the version contains obj
+	 */
+	private boolean contains(TreeNode current, T obj) {
+		while (current != null) {
+			int comparison = obj.compareTo(current.datum);
+			if (comparison < 0) {
+				current = current.left;
+			}
+			else if (comparison > 0) {
+				current = current.right;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.
+	 *
+	 * O(log n):  Copies one path of the balanced tree.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public synchronized boolean remove(T obj) {
+		TreeNode updated = remove(root, obj);
+		if (updated == root) {
+			return false;
+		}
+		root = updated;
+		return true;
+	}
+
+	/**
+	 * Recursively implements the public remove method.  A subtree that does
+	 * not change is returned as it is.
+	 *
+	 * @param current Node currently being examined
+	 * @param obj Object to be removed
+	 * @return the root of the new version of the subtree
+	 */
+	private TreeNode remove(TreeNode current, T obj) {
+		if (current == null) {
+			return null;
+		}
+		int comparison = obj.compareTo(current.datum);
+		if (comparison < 0) {
+			TreeNode left = remove(current.left, obj);
+			if (left == current.left) {
+				return current;
+			}
+			return balance(current.datum, left, current.right);
+		}
+		else if (comparison > 0) {
+			TreeNode right = remove(current.right, obj);
+			if (right == current.right) {
+				return current;
+			}
+			return balance(current.datum, current.left, right);
+		}
+		else if (current.left == null) {
+			return current.right;
+		}
+		else if (current.right == null) {
+			return current.left;
+		}
+		else {
+			TreeNode successor = current.right;
+			while (successor.left != null) {
+				successor = successor.left;
+			}
+			return balance(successor.datum, current.left, removeFirst(current.right));
+		}
+	}
+
+	/**
+	 * Returns a new version of the subtree without its least element.
+	 *
+	 * @param current root of a non-empty subtree
+	 * @return the root of the new version of the subtree
+	 */
+	private TreeNode removeFirst(TreeNode current) {
+		if (current.left == null) {
+			return current.right;
+		}
+		return balance(current.datum, removeFirst(current.left), current.right);
+	}
+
+	/**
+	 * Returns the number of elements in the set.
+	 *
+	 * O(1):  Kept in the root.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest).
+	 *
+	 * O(n):  Visits the entire tree.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		return toArray(root);
+	}
+
+	/**
+	 * Copies one version of the tree into an array in order.
+	 *
+	 * @param current root of the version
+	 * @return an array of the elements of the version
+	 */
+	private Object[] toArray(TreeNode current) {
+		Object[] data = new Object[size(current)];
+		int idx = 0;
+		Iterator<T> iter = new SetIterator(current);
+		while (iter.hasNext()) {
+			data[idx++] = iter.next();
+		}
+		return data;
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Visits the entire tree.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		return toString(root);
+	}
+
+	/**
+	 * Builds the {@code String} representation of one version of the tree.
+	 *
+	 * @param current root of the version
+	 * @return a {@code String} representation of the version
+	 */
+	private String toString(TreeNode current) {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		Iterator<T> iter = new SetIterator(current);
+		while (iter.hasNext()) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(iter.next());
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Returns an iterator over the set as it was when the iterator was
+	 * created, so it never throws {@code ConcurrentModificationException}.
+	 *
+	 * O(log n):  To reach the least element.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator(root);
+	}
+
+}
@@ -0,0 +1,308 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.TreeMap;
+
+/**
+ * This class turns the log of a {@code RebalanceRecorder} into GraphViz
+ * frames.  It replays the events on a tree of its own, finding the node of
+ * each event through a map from element to node, and writes a frame after
+ * every rotation.  A frame shows only the part of the tree around the
+ * rotation, so its cost depends on the size of that part rather than on the
+ * size of the tree, and a long recording can be exported in one pass.
+ *
+ * The replayed tree can also be written whole with {@code graphvizForm()},
+ * in the same form as {@code AVLSet.graphvizForm()}.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class RebalanceExporter<T extends Comparable<T>> implements GraphVizWriteable {
+
+	/**
+	 * This class defines a node of the replayed tree.
+	 *
+	 * @author Megan Bird
+	 */
+	class Node {
+		T datum;
+		Node left;
+		Node right;
+		Node parent;
+		int height;
+
+		Node(T datum, Node parent) {
+			this.datum = datum;
+			this.parent = parent;
+			this.height = 0;
+		}
+	}
+
+	/**
+	 * Holds the log being replayed.
+	 */
+	private final RebalanceRecorder<T> log;
+
+	/**
+	 * Holds the node of each element of the replayed tree.
+	 */
+	private final TreeMap<T, Node> nodes = new TreeMap<T, Node>();
+
+	/**
+	 * Holds the root of the replayed tree.
+	 */
+	private Node root;
+
+	/**
+	 * Holds the number of events replayed so far.
+	 */
+	private int replayed;
+
+	/**
+	 * Constructs an exporter for a log, starting from an empty tree.
+	 *
+	 * @param log log to replay
+	 */
+	public RebalanceExporter(RebalanceRecorder<T> log) {
+		this.log = log;
+		this.root = null;
+		this.replayed = 0;
+	}
+
+	/**
+	 * Replays every event not yet replayed, writing a frame to
+	 * {@code out} after each rotation.  A frame is rooted {@code context}
+	 * levels above the node that moved up, or at the root if that is
+	 * nearer, and goes {@code context + 2} levels below that, so it always
+	 * shows the three levels the rotation changed.  The node that moved up
+	 * is filled and the frame is labelled with the rotation.
+	 *
+	 * O(e log n + f):  For e events, where f is the size of the frames.
+	 *
+	 * @param out destination of the frames, or {@code null} to only replay
+	 * @param context number of levels to show above the rotation
+	 * @return the number of frames written
+	 * @throws IOException if out throws one
+	 */
+	public int export(Appendable out, int context) throws IOException {
+		int frames = 0;
+		while (replayed < log.size()) {
+			int event = replayed++;
+			Node moved = apply(event);
+			if (moved != null && out != null) {
+				Node top = moved;
+				for (int i = 0; i < context && top.parent != null; i++) {
+					top = top.parent;
+				}
+				String caption = (log.kind(event) == RebalanceRecorder.ROTATE_LEFT ? "rotate left at " : "rotate right at ")
+						+ log.datum(event) + " (event " + event + ")";
+				if (frames > 0) {
+					out.append("\n\n");
+				}
+				write(out, top, context + 2, Long.MAX_VALUE, moved, caption);
+				frames++;
+			}
+		}
+		return frames;
+	}
+
+	/**
+	 * Applies one event to the replayed tree.
+	 *
+	 * @param event number of the event
+	 * @return the node that moved up if the event was a rotation, and
+	 * 		{@code null} otherwise
+	 */
+	private Node apply(int event) {
+		T datum = log.datum(event);
+		switch (log.kind(event)) {
+		case RebalanceRecorder.INSERT:
+			insert(datum);
+			return null;
+		case RebalanceRecorder.REMOVE:
+			Node removed = nodes.remove(datum);
+			replace(removed, removed.left != null ? removed.left : removed.right);
+			return null;
+		case RebalanceRecorder.SWAP:
+			Node first = nodes.get(datum);
+			Node second = nodes.get(log.other(event));
+			first.datum = second.datum;
+			second.datum = datum;
+			nodes.put(first.datum, first);
+			nodes.put(second.datum, second);
+			return null;
+		case RebalanceRecorder.ROTATE_LEFT:
+			return rotateLeft(nodes.get(datum));
+		case RebalanceRecorder.ROTATE_RIGHT:
+			return rotateRight(nodes.get(datum));
+		case RebalanceRecorder.HEIGHT:
+			nodes.get(datum).height = log.height(event);
+			return null;
+		default:
+			root = null;
+			nodes.clear();
+			return null;
+		}
+	}
+
+	/**
+	 * Adds a leaf below the node found by searching for the element.
+	 *
+	 * @param datum element of the new leaf
+	 */
+	private void insert(T datum) {
+		if (root == null) {
+			root = new Node(datum, null);
+			nodes.put(datum, root);
+			return;
+		}
+		Node current = root;
+		while (true) {
+			if (datum.compareTo(current.datum) < 0) {
+				if (current.left == null) {
+					current.left = new Node(datum, current);
+					nodes.put(datum, current.left);
+					return;
+				}
+				current = current.left;
+			}
+			else {
+				if (current.right == null) {
+					current.right = new Node(datum, current);
+					nodes.put(datum, current.right);
+					return;
+				}
+				current = current.right;
+			}
+		}
+	}
+
+	/**
+	 * Puts a node, or nothing, in the place of another in its parent.
+	 *
+	 * @param old node to replace
+	 * @param node node to put in its place, or {@code null}
+	 */
+	private void replace(Node old, Node node) {
+		if (node != null) {
+			node.parent = old.parent;
+		}
+		if (old.parent == null) {
+			root = node;
+		}
+		else if (old.parent.left == old) {
+			old.parent.left = node;
+		}
+		else {
+			old.parent.right = node;
+		}
+	}
+
+	/**
+	 * Rotates a node down to the left.
+	 *
+	 * @param current node to rotate at
+	 * @return the node that moved up
+	 */
+	private Node rotateLeft(Node current) {
+		Node rt = current.right;
+		current.right = rt.left;
+		if (rt.left != null) {
+			rt.left.parent = current;
+		}
+		replace(current, rt);
+		rt.left = current;
+		current.parent = rt;
+		return rt;
+	}
+
+	/**
+	 * Rotates a node down to the right.
+	 *
+	 * @param current node to rotate at
+	 * @return the node that moved up
+	 */
+	private Node rotateRight(Node current) {
+		Node rt = current.left;
+		current.left = rt.right;
+		if (rt.right != null) {
+			rt.right.parent = current;
+		}
+		replace(current, rt);
+		rt.right = current;
+		current.parent = rt;
+		return rt;
+	}
+
+	/**
+	 * Returns the GraphViz dot file representation of the replayed tree as
+	 * it stands.
+	 *
+	 * @return the GraphViz dot file representation of the replayed tree
+	 */
+	@Override
+	public String graphvizForm() {
+		StringBuilder repr = new StringBuilder();
+		try {
+			graphvizForm(repr);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return repr.toString();
+	}
+
+	/**
+	 * Writes the GraphViz dot file representation of the replayed tree as
+	 * it stands, numbered and labelled as {@code AVLSet} does.
+	 *
+	 * O(n):  Visits each written node once.
+	 *
+	 * @param out destination of the dot file
+	 * @param maxDepth depth of the deepest nodes to write, the root being 0
+	 * @param maxNodes greatest number of nodes to write
+	 * @throws IOException if out throws one
+	 */
+	@Override
+	public void graphvizForm(Appendable out, int maxDepth, long maxNodes) throws IOException {
+		write(out, root, maxDepth, maxNodes, null, null);
+	}
+
+	/**
+	 * Writes a subtree as a dot graph with
+	 * {@code GraphVizWriteable.graphvizTree()}, numbered and labelled as
+	 * {@code AVLSet} does.
+	 *
+	 * @param out destination of the dot file
+	 * @param top root of the subtree
+	 * @param maxDepth depth of the deepest nodes to write
+	 * @param maxNodes greatest number of nodes to write
+	 * @param marked node to fill, or {@code null}
+	 * @param caption label of the graph, or {@code null}
+	 * @throws IOException if out throws one
+	 */
+	private void write(Appendable out, Node top, int maxDepth, long maxNodes, final Node marked, String caption) throws IOException {
+		GraphVizWriteable.graphvizTree(out, top, new GraphVizWriteable.TreeShape<Node>() {
+			@Override
+			public Node left(Node node) {
+				return node.left;
+			}
+
+			@Override
+			public Node right(Node node) {
+				return node.right;
+			}
+
+			@Override
+			public String label(Node node) {
+				return node.datum + "-" + node.height;
+			}
+
+			@Override
+			public boolean filled(Node node) {
+				return node == marked;
+			}
+		}, 70, caption, maxDepth, maxNodes);
+	}
+
+}
@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+/**
+ * This class records the structural changes an {@code AVLSet} makes while
+ * it is attached with {@code AVLSet.setRecorder()}: nodes inserted and
+ * removed, elements swapped between nodes, rotations and height changes.
+ * Each change is one event appended to growable arrays, so recording costs
+ * O(1) amortized per event and nothing is drawn until the log is handed to
+ * a {@code RebalanceExporter}.
+ *
+ * Events are numbered from 0 in the order they happened.  Every event has a
+ * kind and an element; a {@code SWAP} also has a second element and a
+ * {@code HEIGHT} a height.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class RebalanceRecorder<T extends Comparable<T>> {
+
+	/**
+	 * A leaf holding the element was added below the node found by
+	 * searching for it.
+	 */
+	public static final int INSERT = 0;
+
+	/**
+	 * The node holding the element, which had at most one child, was
+	 * replaced by that child.
+	 */
+	public static final int REMOVE = 1;
+
+	/**
+	 * The nodes holding the element and the other element exchanged them.
+	 */
+	public static final int SWAP = 2;
+
+	/**
+	 * The node holding the element was rotated down to the left.
+	 */
+	public static final int ROTATE_LEFT = 3;
+
+	/**
+	 * The node holding the element was rotated down to the right.
+	 */
+	public static final int ROTATE_RIGHT = 4;
+
+	/**
+	 * The height of the node holding the element changed.
+	 */
+	public static final int HEIGHT = 5;
+
+	/**
+	 * Every node was removed.
+	 */
+	public static final int CLEAR = 6;
+
+	/**
+	 * Holds the kind of each event.
+	 */
+	private int[] kinds;
+
+	/**
+	 * Holds the height of each HEIGHT event, 0 for other events.
+	 */
+	private int[] heights;
+
+	/**
+	 * Holds the element of each event, {@code null} for a CLEAR.
+	 */
+	private Object[] data;
+
+	/**
+	 * Holds the second element of each SWAP, {@code null} for other events.
+	 */
+	private Object[] others;
+
+	/**
+	 * Holds the number of events recorded.
+	 */
+	private int count;
+
+	/**
+	 * Constructs an empty log.
+	 */
+	public RebalanceRecorder() {
+		kinds = new int[64];
+		heights = new int[64];
+		data = new Object[64];
+		others = new Object[64];
+		count = 0;
+	}
+
+	/**
+	 * Appends an event, doubling the arrays when they are full.
+	 *
+	 * O(1):  Amortized over the doublings.
+	 *
+	 * @param kind kind of the event
+	 * @param datum element of the event
+	 * @param other second element of a SWAP
+	 * @param height height of a HEIGHT event
+	 */
+	private void record(int kind, T datum, T other, int height) {
+		if (count == kinds.length) {
+			kinds = Arrays.copyOf(kinds, 2 * count);
+			heights = Arrays.copyOf(heights, 2 * count);
+			data = Arrays.copyOf(data, 2 * count);
+			others = Arrays.copyOf(others, 2 * count);
+		}
+		kinds[count] = kind;
+		heights[count] = height;
+		data[count] = datum;
+		others[count] = other;
+		count++;
+	}
+
+	/**
+	 * Records that a leaf was added below the node found by searching for
+	 * its element.
+	 *
+	 * @param datum element of the new leaf
+	 */
+	void inserted(T datum) {
+		record(INSERT, datum, null, 0);
+	}
+
+	/**
+	 * Records that a node with at most one child was replaced by that
+	 * child.
+	 *
+	 * @param datum element of the node removed
+	 */
+	void removed(T datum) {
+		record(REMOVE, datum, null, 0);
+	}
+
+	/**
+	 * Records that two nodes exchanged their elements.
+	 *
+	 * @param datum element of the first node before the exchange
+	 * @param other element of the second node before the exchange
+	 */
+	void swapped(T datum, T other) {
+		record(SWAP, datum, other, 0);
+	}
+
+	/**
+	 * Records that a node was rotated down to the left.
+	 *
+	 * @param datum element of the node rotated down
+	 */
+	void rotatedLeft(T datum) {
+		record(ROTATE_LEFT, datum, null, 0);
+	}
+
+	/**
+	 * Records that a node was rotated down to the right.
+	 *
+	 * @param datum element of the node rotated down
+	 */
+	void rotatedRight(T datum) {
+		record(ROTATE_RIGHT, datum, null, 0);
+	}
+
+	/**
+	 * Records the new height of a node.
+	 *
+	 * @param datum element of the node
+	 * @param height new height of the node
+	 */
+	void heightChanged(T datum, int height) {
+		record(HEIGHT, datum, null, height);
+	}
+
+	/**
+	 * Records that every node was removed.
+	 */
+	void cleared() {
+		record(CLEAR, null, null, 0);
+	}
+
+	/**
+	 * Returns the number of events recorded.
+	 *
+	 * @return the number of events recorded
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the kind of an event.
+	 *
+	 * @param event number of the event
+	 * @return one of INSERT, REMOVE, SWAP, ROTATE_LEFT, ROTATE_RIGHT,
+	 * 		HEIGHT or CLEAR
+	 * @throws IndexOutOfBoundsException if there is no such event
+	 */
+	public int kind(int event) {
+		check(event);
+		return kinds[event];
+	}
+
+	/**
+	 * Returns the element of an event, {@code null} for a CLEAR.
+	 *
+	 * @param event number of the event
+	 * @return the element of the event
+	 * @throws IndexOutOfBoundsException if there is no such event
+	 */
+	@SuppressWarnings("unchecked")
+	public T datum(int event) {
+		check(event);
+		return (T) data[event];
+	}
+
+	/**
+	 * Returns the second element of a SWAP, {@code null} for other events.
+	 *
+	 * @param event number of the event
+	 * @return the second element of the event
+	 * @throws IndexOutOfBoundsException if there is no such event
+	 */
+	@SuppressWarnings("unchecked")
+	public T other(int event) {
+		check(event);
+		return (T) others[event];
+	}
+
+	/**
+	 * Returns the new height of a HEIGHT event, 0 for other events.
+	 *
+	 * @param event number of the event
+	 * @return the height of the event
+	 * @throws IndexOutOfBoundsException if there is no such event
+	 */
+	public int height(int event) {
+		check(event);
+		return heights[event];
+	}
+
+	/**
+	 * Discards every event.  A recorder that is still attached keeps
+	 * recording, but the log no longer starts from the tree it was
+	 * attached to, so it should be attached again.
+	 */
+	public void clear() {
+		Arrays.fill(data, 0, count, null);
+		Arrays.fill(others, 0, count, null);
+		count = 0;
+	}
+
+	/**
+	 * Checks that an event has been recorded.
+	 *
+	 * @param event number of the event
+	 * @throws IndexOutOfBoundsException if there is no such event
+	 */
+	private void check(int event) {
+		if (event < 0 || event >= count) {
+			throw new IndexOutOfBoundsException("event " + event + " of " + count);
+		}
+	}
+
+}
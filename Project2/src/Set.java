@@ -30,7 +30,7 @@
  * @author Gregory Gelfond (ggelfond@unomaha.edu)
  * @version 1.0
  */
-public interface Set<T> {
+public interface Set<T> extends Iterable<T> {
 
     /**
      * Adds the specified object to the set.
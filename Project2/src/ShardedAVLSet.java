@@ -0,0 +1,505 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements the provided Set interface by splitting the key
+ * space into ranges and keeping each range in its own {@code AVLSet} behind
+ * its own lock, so threads working on different ranges do not contend.
+ *
+ * The ranges are described by an array of shards kept in key order, shard
+ * i holding the elements in [lo, hi).  The array and the shards in it are
+ * never changed, only replaced: an operation finds its shard in the current
+ * array, locks it and checks that it has not been retired before using it.
+ *
+ * Each shard counts the operations made on it.  When a shard reaches
+ * {@code REBALANCE_CHECK} operations it is compared with its neighbors, and
+ * if one of them has seen less than a {@code HOT_FACTOR}th of that traffic
+ * the shard is split at its median with {@code split()} and the half next to
+ * the quieter neighbor is joined onto it with {@code concat()}.  Both take
+ * O(log n), so the boundaries move while the set is in use.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class ShardedAVLSet<T extends Comparable<T>> implements Set<T> {
+
+	/**
+	 * Number of operations on a shard between checks for rebalancing.
+	 */
+	static final int REBALANCE_CHECK = 1 << 14;
+
+	/**
+	 * How many times busier than a neighbor a shard must be to give it half
+	 * of its elements.
+	 */
+	static final int HOT_FACTOR = 2;
+
+	/**
+	 * This class defines one range of the set.  The bounds never change, a
+	 * rebalance replaces the shard and marks the old one retired.
+	 *
+	 * @author Megan Bird
+	 */
+	class Shard {
+		final T lo;
+		final T hi;
+		final AVLSet<T> set;
+		final ReentrantLock lock = new ReentrantLock();
+		volatile int operations;
+		boolean retired;
+
+		/**
+		 * Constructs a shard over [lo, hi) holding the given elements.
+		 *
+		 * @param lo inclusive lower bound, or {@code null} for none
+		 * @param hi exclusive upper bound, or {@code null} for none
+		 * @param set elements of the range
+		 */
+		Shard(T lo, T hi, AVLSet<T> set) {
+			this.lo = lo;
+			this.hi = hi;
+			this.set = set;
+		}
+	}
+
+	/**
+	 * Holds the shards in key order.
+	 */
+	private volatile Shard[] shards;
+
+	/**
+	 * Held while the shards are being replaced or while every shard is
+	 * locked at once, so there is only ever one of either.
+	 */
+	private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+	/**
+	 * Constructs an empty set split at the given boundaries, giving
+	 * {@code boundaries.length + 1} shards.
+	 *
+	 * @param boundaries least element of every shard after the first, in
+	 * 		strictly ascending order
+	 * @throws IllegalArgumentException if a boundary is {@code null} or the
+	 * 		boundaries are not strictly ascending
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public ShardedAVLSet(T[] boundaries) {
+		for (int i = 0; i < boundaries.length; i++) {
+			if (boundaries[i] == null) {
+				throw new IllegalArgumentException("boundaries must not be null");
+			}
+			if (i > 0 && boundaries[i - 1].compareTo(boundaries[i]) >= 0) {
+				throw new IllegalArgumentException("boundaries must be in strictly ascending order");
+			}
+		}
+		Shard[] table = (Shard[]) new ShardedAVLSet.Shard[boundaries.length + 1];
+		for (int i = 0; i < table.length; i++) {
+			T lo = i == 0 ? null : boundaries[i - 1];
+			T hi = i == boundaries.length ? null : boundaries[i];
+			table[i] = new Shard(lo, hi, new AVLSet<T>());
+		}
+		shards = table;
+	}
+
+	/**
+	 * Constructs an empty set with up to the given number of shards, split
+	 * at evenly spaced quantiles of a sample of the expected elements.
+	 * Repeated values in the sample can leave fewer shards.
+	 *
+	 * O(s log s):  Sorts a copy of the sample of size s.
+	 *
+	 * @param sample elements representative of the data to be added
+	 * @param count number of shards wanted
+	 * @return an empty set with boundaries taken from the sample
+	 * @throws IllegalArgumentException if count is less than 1 or the sample
+	 * 		contains {@code null}
+	 */
+	public static <T extends Comparable<T>> ShardedAVLSet<T> fromSample(T[] sample, int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("count must be at least 1");
+		}
+		for (T obj : sample) {
+			if (obj == null) {
+				throw new IllegalArgumentException("sample must not contain null");
+			}
+		}
+		T[] sorted = sample.clone();
+		Arrays.sort(sorted);
+		T[] boundaries = Arrays.copyOf(sorted, Math.min(count - 1, sorted.length));
+		int found = 0;
+		for (int i = 1; i < count && sorted.length > 0; i++) {
+			T boundary = sorted[(int) ((long) i * sorted.length / count)];
+			if (boundary.compareTo(sorted[0]) > 0
+					&& (found == 0 || boundaries[found - 1].compareTo(boundary) < 0)) {
+				boundaries[found++] = boundary;
+			}
+		}
+		return new ShardedAVLSet<T>(Arrays.copyOf(boundaries, found));
+	}
+
+	/**
+	 * Returns the index of the shard whose range holds the object.
+	 *
+	 * O(log s):  Binary search over the s shards.
+	 *
+	 * @param table shards to search
+	 * @param obj object to place
+	 * @return index of the shard for obj
+	 */
+	private int indexOf(Shard[] table, T obj) {
+		int lo = 0;
+		int hi = table.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (obj.compareTo(table[mid].hi) < 0) {
+				hi = mid;
+			}
+			else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the shard for the object, locked.  If a rebalance retires the
+	 * shard before the lock is taken, the lookup is repeated.
+	 *
+	 * @param obj object to place
+	 * @return the live shard for obj, locked by the caller's thread
+	 */
+	private Shard lock(T obj) {
+		while (true) {
+			Shard shard = shards[indexOf(shards, obj)];
+			shard.lock.lock();
+			if (!shard.retired) {
+				return shard;
+			}
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Counts an operation on a locked shard and releases it, then checks
+	 * the shard for rebalancing if it is due.
+	 *
+	 * @param shard shard locked by {@code lock()}
+	 */
+	private void unlock(Shard shard) {
+		int operations = shard.operations + 1;
+		shard.operations = operations;
+		shard.lock.unlock();
+		if (operations >= REBALANCE_CHECK) {
+			rebalance(shard);
+		}
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  Finding and locking the shard, then an {@code AVLSet} add.
+	 *
+	 * @param obj object to be added to the set
+	 */
+	@Override
+	public void add(T obj) {
+		Shard shard = lock(obj);
+		try {
+			shard.set.add(obj);
+		}
+		finally {
+			unlock(shard);
+		}
+	}
+
+	/**
+	 * Removes all of the elements from the set.  The boundaries are kept.
+	 *
+	 * O(s):  Every shard is locked and cleared.
+	 */
+	@Override
+	public void clear() {
+		Shard[] table = lockAll();
+		try {
+			for (Shard shard : table) {
+				shard.set.clear();
+			}
+		}
+		finally {
+			unlockAll(table);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.
+	 *
+	 * O(log n):  Finding and locking the shard, then an {@code AVLSet}
+	 * 		search.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean contains(T obj) {
+		Shard shard = lock(obj);
+		try {
+			return shard.set.contains(obj);
+		}
+		finally {
+			unlock(shard);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(s):  Calls {@code size()}.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.
+	 *
+	 * O(log n):  Finding and locking the shard, then an {@code AVLSet}
+	 * 		remove.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean remove(T obj) {
+		Shard shard = lock(obj);
+		try {
+			return shard.set.remove(obj);
+		}
+		finally {
+			unlock(shard);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the set.  Every shard is locked
+	 * while the sizes are added up, so the total is exact.
+	 *
+	 * O(s):  One size per shard.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		Shard[] table = lockAll();
+		try {
+			int size = 0;
+			for (Shard shard : table) {
+				size += shard.set.size();
+			}
+			return size;
+		}
+		finally {
+			unlockAll(table);
+		}
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest).  Every shard is locked while the array
+	 * is filled, so it is a consistent snapshot.
+	 *
+	 * O(n):  Copies every shard in order.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		Shard[] table = lockAll();
+		try {
+			int size = 0;
+			for (Shard shard : table) {
+				size += shard.set.size();
+			}
+			Object[] data = new Object[size];
+			int idx = 0;
+			for (Shard shard : table) {
+				Object[] part = shard.set.toArray();
+				System.arraycopy(part, 0, data, idx, part.length);
+				idx += part.length;
+			}
+			return data;
+		}
+		finally {
+			unlockAll(table);
+		}
+	}
+
+	/**
+	 * Locks every shard in key order, holding off rebalancing so the shards
+	 * stay the same until {@code unlockAll()}.
+	 *
+	 * @return the locked shards
+	 */
+	private Shard[] lockAll() {
+		rebalanceLock.lock();
+		Shard[] table = shards;
+		for (Shard shard : table) {
+			shard.lock.lock();
+		}
+		return table;
+	}
+
+	/**
+	 * Releases the locks taken by {@code lockAll()}.
+	 *
+	 * @param table shards returned by {@code lockAll()}
+	 */
+	private void unlockAll(Shard[] table) {
+		for (int i = table.length - 1; i >= 0; i--) {
+			table[i].lock.unlock();
+		}
+		rebalanceLock.unlock();
+	}
+
+	/**
+	 * Returns the least element of every shard after the first, which are
+	 * the current boundaries between the shards.
+	 *
+	 * O(s):  Copies one bound per shard.
+	 *
+	 * @return the boundaries in ascending order
+	 */
+	public Object[] boundaries() {
+		Shard[] table = shards;
+		Object[] boundaries = new Object[table.length - 1];
+		for (int i = 1; i < table.length; i++) {
+			boundaries[i - 1] = table[i].lo;
+		}
+		return boundaries;
+	}
+
+	/**
+	 * Checks a shard that has reached {@code REBALANCE_CHECK} operations.
+	 * If the quieter of its neighbors has seen less than a
+	 * {@code HOT_FACTOR}th of its operations, half of the shard's elements
+	 * move to that neighbor.  Afterwards the shard's count starts again and
+	 * the neighbors' counts are halved, so old traffic fades out.  The check
+	 * is skipped if another thread is already rebalancing.
+	 *
+	 * O(log n):  One {@code select()}, {@code split()} and {@code concat()}.
+	 *
+	 * @param hot shard to check
+	 */
+	private void rebalance(Shard hot) {
+		if (!rebalanceLock.tryLock()) {
+			return;
+		}
+		try {
+			Shard[] table = shards;
+			int idx = Arrays.asList(table).indexOf(hot);
+			if (idx < 0) {
+				return;
+			}
+			int from = Math.max(idx - 1, 0);
+			int to = Math.min(idx + 1, table.length - 1);
+			for (int i = from; i <= to; i++) {
+				table[i].lock.lock();
+			}
+			try {
+				int neighbor = from;
+				if (from == idx || (to != idx && table[to].operations < table[from].operations)) {
+					neighbor = to;
+				}
+				if (neighbor != idx && hot.set.size() >= 2
+						&& (long) table[neighbor].operations * HOT_FACTOR < hot.operations) {
+					move(table, idx, neighbor);
+				}
+				for (int i = from; i <= to; i++) {
+					table[i].operations = i == idx ? 0 : table[i].operations / 2;
+				}
+			}
+			finally {
+				for (int i = to; i >= from; i--) {
+					table[i].lock.unlock();
+				}
+			}
+		}
+		finally {
+			rebalanceLock.unlock();
+		}
+	}
+
+	/**
+	 * Splits a shard at its median and joins the half next to a neighbor
+	 * onto the neighbor.  The two shards are replaced by new ones over the
+	 * new ranges and retired.  Both shards must be locked.
+	 *
+	 * O(log n):  One {@code select()}, {@code split()} and {@code concat()}.
+	 *
+	 * @param table current shards
+	 * @param idx index of the shard to split
+	 * @param neighbor index of the adjacent shard to receive half
+	 */
+	private void move(Shard[] table, int idx, int neighbor) {
+		Shard hot = table[idx];
+		Shard first = table[Math.min(idx, neighbor)];
+		Shard second = table[Math.max(idx, neighbor)];
+		T median = hot.set.select(hot.set.size() / 2);
+		AVLSet<T> upper = hot.set.split(median);
+		if (first == hot) {
+			upper.concat(second.set);
+		}
+		else {
+			first.set.concat(hot.set);
+		}
+		Shard[] next = table.clone();
+		next[Math.min(idx, neighbor)] = new Shard(first.lo, median, first.set);
+		next[Math.max(idx, neighbor)] = new Shard(median, second.hi, upper);
+		shards = next;
+		first.retired = true;
+		second.retired = true;
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Copies the set with {@code toArray()}.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (Object obj : toArray()) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the set taken with
+	 * {@code toArray()}.
+	 *
+	 * O(n):  To take the snapshot.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<T> iterator() {
+		return ((List<T>) (List<?>) Arrays.asList(toArray())).iterator();
+	}
+
+}
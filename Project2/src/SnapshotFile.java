@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+
+/**
+ * This class reads and writes the binary snapshots of {@code AVLSet},
+ * {@code BinarySearchTree} and {@code MappedSnapshotSet}.  A snapshot is a
+ * header followed by the elements in ascending order, each encoded in
+ * {@code width} bytes by a {@code KeyCodec}.  All numbers are big-endian.
+ *
+ * <pre>
+ *   offset  0  int  MAGIC
+ *   offset  4  int  VERSION
+ *   offset  8  int  width of an element in bytes
+ *   offset 12  int  number of elements
+ *   offset 16  int  CRC-32 of the elements
+ *   offset 20       the elements
+ * </pre>
+ *
+ * A snapshot is written at the current position of a channel and read from
+ * it, and either leaves the position just past the snapshot, so several
+ * can share a file.
+ *
+ * @author Megan Bird
+ */
+final class SnapshotFile {
+
+	/**
+	 * Holds the first four bytes of every snapshot, "AVLS".
+	 */
+	static final int MAGIC = 0x41564C53;
+
+	/**
+	 * Holds the version of the format written.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * Holds the number of bytes in the header.
+	 */
+	static final int HEADER = 20;
+
+	/**
+	 * Holds the size of the buffer elements are gathered in before each
+	 * write to the channel.
+	 */
+	private static final int CHUNK = 1 << 16;
+
+	private SnapshotFile() {
+	}
+
+	/**
+	 * Writes a snapshot of elements given in strictly ascending order.  The
+	 * elements are encoded into one reused direct buffer and written a
+	 * chunk at a time, and the header is filled in last, once the checksum
+	 * is known.
+	 *
+	 * O(n):  Each element is encoded and checksummed once.
+	 *
+	 * @param channel channel to write at its current position
+	 * @param elements the elements in strictly ascending order
+	 * @param count number of elements
+	 * @param codec codec to encode the elements with
+	 * @throws IOException if writing to the channel fails
+	 */
+	static <T extends Comparable<T>> void write(FileChannel channel, Iterator<T> elements, int count,
+			KeyCodec<T> codec) throws IOException {
+		int width = codec.width();
+		long start = channel.position();
+		channel.position(start + HEADER);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(CHUNK / width, 1) * width);
+		CRC32 crc = new CRC32();
+		int written = 0;
+		while (elements.hasNext()) {
+			if (buffer.remaining() < width) {
+				flush(channel, buffer, crc);
+			}
+			codec.write(buffer, elements.next());
+			written++;
+		}
+		flush(channel, buffer, crc);
+		if (written != count) {
+			throw new IllegalStateException("expected " + count + " elements but found " + written);
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(count).putInt((int) crc.getValue());
+		header.flip();
+		long position = start;
+		while (header.hasRemaining()) {
+			position += channel.write(header, position);
+		}
+	}
+
+	/**
+	 * Checksums and writes out what the buffer holds, then empties it.
+	 *
+	 * @param channel channel to write to
+	 * @param buffer buffer being filled
+	 * @param crc checksum of the elements so far
+	 * @throws IOException if writing to the channel fails
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+		buffer.flip();
+		crc.update(buffer);
+		buffer.rewind();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Maps the snapshot at the current position of a channel and returns
+	 * its elements as a read-only buffer, element i starting at byte
+	 * {@code i * codec.width()}.  The mapping stays valid after the channel
+	 * is closed.
+	 *
+	 * O(1):  Without verification, since mapping reads nothing; O(n) with
+	 * 		it, to checksum the elements.
+	 *
+	 * @param channel channel to read at its current position
+	 * @param codec codec the snapshot was written with
+	 * @param verify {@code true} to check the checksum of the elements
+	 * @return the elements of the snapshot
+	 * @throws IOException if the channel does not hold a snapshot of this
+	 * 		version and width, the snapshot is cut short or the checksum
+	 * 		does not match
+	 */
+	static ByteBuffer map(FileChannel channel, KeyCodec<?> codec, boolean verify) throws IOException {
+		long start = channel.position();
+		if (channel.size() - start < HEADER) {
+			throw new IOException("not a snapshot: fewer than " + HEADER + " bytes");
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		long position = start;
+		while (header.hasRemaining()) {
+			int read = channel.read(header, position);
+			if (read < 0) {
+				throw new IOException("not a snapshot: fewer than " + HEADER + " bytes");
+			}
+			position += read;
+		}
+		header.flip();
+
+		if (header.getInt() != MAGIC) {
+			throw new IOException("not a snapshot: bad magic number");
+		}
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException("unsupported snapshot version " + version);
+		}
+		int width = header.getInt();
+		if (width != codec.width()) {
+			throw new IOException("snapshot has " + width + " byte elements but the codec uses " + codec.width());
+		}
+		int count = header.getInt();
+		int checksum = header.getInt();
+		long length = (long) count * width;
+		if (count < 0 || length > Integer.MAX_VALUE) {
+			throw new IOException("snapshot element count " + count + " is out of range");
+		}
+		if (channel.size() - start - HEADER < length) {
+			throw new IOException("snapshot is cut short");
+		}
+
+		MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start + HEADER, length);
+		if (verify) {
+			CRC32 crc = new CRC32();
+			crc.update(mapped.duplicate());
+			if ((int) crc.getValue() != checksum) {
+				throw new IOException("snapshot checksum does not match");
+			}
+		}
+		channel.position(start + HEADER + length);
+		return mapped;
+	}
+
+}
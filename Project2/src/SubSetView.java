@@ -0,0 +1,342 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * This class is a live view of the elements of an {@code OrderedSet} that
+ * fall in the range [lo, hi), where a {@code null} bound leaves that side
+ * unbounded.  The view keeps no elements of its own, every operation is
+ * clamped to the range and forwarded to the backing set, so it costs the
+ * same as the matching operation on the backing set.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+class SubSetView<T extends Comparable<T>> implements OrderedSet<T> {
+
+	/**
+	 * Holds the set this is a view of.
+	 */
+	private final OrderedSet<T> parent;
+
+	/**
+	 * Holds the inclusive lower bound, or {@code null} for none.
+	 */
+	private final T lo;
+
+	/**
+	 * Holds the exclusive upper bound, or {@code null} for none.
+	 */
+	private final T hi;
+
+	/**
+	 * Constructs a view of the range [lo, hi) of the given set.
+	 *
+	 * @param parent set to view
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @throws IllegalArgumentException if lo is greater than hi
+	 */
+	SubSetView(OrderedSet<T> parent, T lo, T hi) {
+		if (lo != null && hi != null && lo.compareTo(hi) > 0) {
+			throw new IllegalArgumentException("lower bound is greater than upper bound");
+		}
+		this.parent = parent;
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	/**
+	 * Returns {@code true} if the object is not below the lower bound.
+	 *
+	 * @param obj object to check
+	 * @return {@code true} if obj is not below the lower bound
+	 */
+	private boolean aboveLo(T obj) {
+		return lo == null || obj.compareTo(lo) >= 0;
+	}
+
+	/**
+	 * Returns {@code true} if the object is below the upper bound.
+	 *
+	 * @param obj object to check
+	 * @return {@code true} if obj is below the upper bound
+	 */
+	private boolean belowHi(T obj) {
+		return hi == null || obj.compareTo(hi) < 0;
+	}
+
+	/**
+	 * Returns {@code true} if a bound given for a view of this view lies
+	 * in the closed range [lo, hi] of this view.  A {@code null} bound
+	 * stands for the matching bound of this view.
+	 *
+	 * @param bound bound to check, or {@code null}
+	 * @return {@code true} if bound is inside or at the ends of the range
+	 */
+	private boolean inBounds(T bound) {
+		return bound == null || (aboveLo(bound) && (hi == null || bound.compareTo(hi) <= 0));
+	}
+
+	/**
+	 * Returns {@code true} if the object falls in the range of the view.
+	 *
+	 * @param obj object to check
+	 * @return {@code true} if obj is in range
+	 */
+	private boolean inRange(T obj) {
+		return aboveLo(obj) && belowHi(obj);
+	}
+
+	/**
+	 * Returns the object if it is in range and {@code null} otherwise.
+	 *
+	 * @param obj object to check, may be {@code null}
+	 * @return obj when it is in range, otherwise {@code null}
+	 */
+	private T clamp(T obj) {
+		if (obj == null || !inRange(obj)) {
+			return null;
+		}
+		return obj;
+	}
+
+	/**
+	 * Returns the larger of two lower bounds, treating {@code null} as no
+	 * bound.
+	 */
+	private T maxLo(T a, T b) {
+		if (a == null) {
+			return b;
+		}
+		else if (b == null) {
+			return a;
+		}
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+	/**
+	 * Returns the smaller of two upper bounds, treating {@code null} as no
+	 * bound.
+	 */
+	private T minHi(T a, T b) {
+		if (a == null) {
+			return b;
+		}
+		else if (b == null) {
+			return a;
+		}
+		return a.compareTo(b) <= 0 ? a : b;
+	}
+
+	/**
+	 * Adds the specified object to the backing set.
+	 *
+	 * @param obj object to be added to the set
+	 * @throws IllegalArgumentException if obj is outside the range of the
+	 * 		view
+	 */
+	@Override
+	public void add(T obj) {
+		if (!inRange(obj)) {
+			throw new IllegalArgumentException("object is outside the range of the view");
+		}
+		parent.add(obj);
+	}
+
+	/**
+	 * Removes every element of the range from the backing set.
+	 */
+	@Override
+	public void clear() {
+		parent.removeRange(lo, hi);
+	}
+
+	@Override
+	public boolean contains(T obj) {
+		return inRange(obj) && parent.contains(obj);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !iterator().hasNext();
+	}
+
+	@Override
+	public boolean remove(T obj) {
+		return inRange(obj) && parent.remove(obj);
+	}
+
+	@Override
+	public int size() {
+		return parent.countInRange(lo, hi);
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size()];
+		int i = 0;
+		for (T obj : this) {
+			data[i++] = obj;
+		}
+		return data;
+	}
+
+	@Override
+	public T first() {
+		T obj = clamp(lo == null ? (parent.isEmpty() ? null : parent.first()) : parent.ceiling(lo));
+		if (obj == null) {
+			throw new NoSuchElementException();
+		}
+		return obj;
+	}
+
+	@Override
+	public T last() {
+		T obj = clamp(hi == null ? (parent.isEmpty() ? null : parent.last()) : parent.lower(hi));
+		if (obj == null) {
+			throw new NoSuchElementException();
+		}
+		return obj;
+	}
+
+	@Override
+	public T floor(T obj) {
+		if (!belowHi(obj)) {
+			return clamp(parent.lower(hi));
+		}
+		return clamp(parent.floor(obj));
+	}
+
+	@Override
+	public T ceiling(T obj) {
+		if (!aboveLo(obj)) {
+			return clamp(parent.ceiling(lo));
+		}
+		return clamp(parent.ceiling(obj));
+	}
+
+	@Override
+	public T lower(T obj) {
+		if (!belowHi(obj)) {
+			return clamp(parent.lower(hi));
+		}
+		return clamp(parent.lower(obj));
+	}
+
+	@Override
+	public T higher(T obj) {
+		if (!aboveLo(obj)) {
+			return clamp(parent.ceiling(lo));
+		}
+		return clamp(parent.higher(obj));
+	}
+
+	@Override
+	public int countInRange(T lo, T hi) {
+		T from = maxLo(this.lo, lo);
+		T to = minHi(this.hi, hi);
+		if (from != null && to != null && from.compareTo(to) >= 0) {
+			return 0;
+		}
+		return parent.countInRange(from, to);
+	}
+
+	@Override
+	public int removeRange(T lo, T hi) {
+		T from = maxLo(this.lo, lo);
+		T to = minHi(this.hi, hi);
+		if (from != null && to != null && from.compareTo(to) >= 0) {
+			return 0;
+		}
+		return parent.removeRange(from, to);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return parent.iterator(lo, hi);
+	}
+
+	@Override
+	public Iterator<T> iterator(T lo, T hi) {
+		T from = maxLo(this.lo, lo);
+		T to = minHi(this.hi, hi);
+		if (from != null && to != null && from.compareTo(to) > 0) {
+			to = from;
+		}
+		return parent.iterator(from, to);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(iterator(), size(),
+				Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT);
+	}
+
+	/**
+	 * Returns a view of the part of this view in the range [lo, hi).  A
+	 * {@code null} bound keeps the bound of this view.  Both bounds must lie
+	 * in the closed range of this view, as for the views of a
+	 * {@code TreeSet}.
+	 *
+	 * @throws IllegalArgumentException if a bound is outside the range of
+	 * 		this view, or lo is greater than hi
+	 */
+	@Override
+	public OrderedSet<T> subSet(T lo, T hi) {
+		if (!inBounds(lo) || !inBounds(hi)) {
+			throw new IllegalArgumentException("range is outside the range of the view");
+		}
+		return new SubSetView<T>(parent, lo == null ? this.lo : lo, hi == null ? this.hi : hi);
+	}
+
+	/**
+	 * Returns a view of the part of this view below {@code hi}.  A
+	 * {@code null} bound keeps the upper bound of this view.
+	 *
+	 * @throws IllegalArgumentException if hi is outside the range of the
+	 * 		view
+	 */
+	@Override
+	public OrderedSet<T> headSet(T hi) {
+		if (!inBounds(hi)) {
+			throw new IllegalArgumentException("bound is outside the range of the view");
+		}
+		return new SubSetView<T>(parent, lo, hi == null ? this.hi : hi);
+	}
+
+	/**
+	 * Returns a view of the part of this view from {@code lo} on.  A
+	 * {@code null} bound keeps the lower bound of this view.
+	 *
+	 * @throws IllegalArgumentException if lo is outside the range of the
+	 * 		view
+	 */
+	@Override
+	public OrderedSet<T> tailSet(T lo) {
+		if (!inBounds(lo)) {
+			throw new IllegalArgumentException("bound is outside the range of the view");
+		}
+		return new SubSetView<T>(parent, lo == null ? this.lo : lo, hi);
+	}
+
+	/**
+	 * Return a {@code String} representation of the view.
+	 *
+	 * @return a {@code String} representation of the view.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (T obj : this) {
+			if (repr.length() > 1) {
+				repr.append(", ");
+			}
+			repr.append(obj);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+}
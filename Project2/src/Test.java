@@ -1,3 +1,24 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.StreamSupport;
+
 /**
  * This class tests each of the Set interface methods.
  * While the tests cover the basic cases, the exception throwing cases
@@ -28,6 +49,82 @@ public class Test {
 		testAVLSetremove();
 		testAVLSetsize();
 		testAVLSettoArray();
+		testAVLSetappendTo();
+		testAVLSetiterator();
+		testAVLSetspliterator();
+		testAVLSetorderStatistics();
+		
+		testAVLSetbulk();
+		
+		testAVLSetsortedBatch();
+		
+		testAVLSetsetAlgebra();
+		
+		testAVLSetparallel();
+		
+		testNavigation(new AVLSet<Integer>());
+		
+		testRangeViews(new AVLSet<Integer>());
+		
+		// IntAVLSet testing
+		
+		testIntAVLSet();
+		
+		// ArrayAVLSet testing
+		
+		testArrayAVLSet();
+		
+		// LockFreeSkipListSet testing
+		
+		testLockFreeSkipListSet();
+		
+		testLockFreeSkipListSetstress();
+		
+		// ConcurrentAVLSet testing
+		
+		testConcurrentAVLSet();
+		
+		testConcurrentAVLSetlinearizability();
+		
+		// ShardedAVLSet testing
+		
+		testShardedAVLSet();
+		
+		testShardedAVLSetrebalance();
+		
+		// PersistentAVLSet testing
+		
+		testPersistentAVLSet();
+		
+		// FlatCombiningAVLSet testing
+		
+		testFlatCombiningAVLSet();
+		
+		// ThreadedAVLSet testing
+		
+		testThreadedAVLSet();
+		
+		testNavigation(new ThreadedAVLSet<Integer>());
+		
+		testRangeViews(new ThreadedAVLSet<Integer>());
+		
+		// BinarySearchTree testing
+		
+		testBSTiterator();
+		
+		testNavigation(new BinarySearchTree<Integer>());
+		
+		testRangeViews(new BinarySearchTree<Integer>());
+		
+		testGraphVizStream();
+		
+		testGraphVizSummary();
+		
+		testRebalanceRecorder();
+		
+		// binary snapshot testing
+		
+		testSnapshotFile();
 		
 		testAVLGraphVizWrite();
 		
@@ -212,6 +309,1537 @@ public class Test {
 		result("AVLSet toArray()",result);	
 	}
 	
+	private static void testAVLSetappendTo() {
+		
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		
+		String result = "passed";
+		
+		for (int i = 1000000; i >= 1; i--) {
+			testSet.add(i);
+		}
+		
+		try {
+			StringBuilder limited = new StringBuilder();
+			testSet.appendTo(limited, 3);
+			if (!limited.toString().equals("{1, 2, 3, ... (999997 more)}")) {
+				result = "failed";
+			}
+			String whole = testSet.toString();
+			if (!whole.startsWith("{1, 2, 3, ") || !whole.endsWith(", 999999, 1000000}")) {
+				result = "failed";
+			}
+			testSet.clear();
+			StringBuilder empty = new StringBuilder();
+			testSet.appendTo(empty, 0);
+			if (!empty.toString().equals("{}")) {
+				result = "failed";
+			}
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		result("AVLSet appendTo(Appendable out, int limit)",result);
+	}
+	
+	private static void testAVLSetiterator() {
+		
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		
+		String result = "passed";
+		int expected = 0;
+		
+		for (int i = 0; i < 100; i++) {
+			testSet.add((i * 37) % 100);
+		}
+		
+		for (int value : testSet) {
+			if (value != expected++) {
+				result = "failed";
+			}
+		}
+		
+		try {
+			for (int value : testSet) {
+				if (value == 50) {
+					testSet.remove(value);
+				}
+			}
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+			// planned, the set was modified during iteration
+		}
+		
+		if (expected != 100 || new AVLSet<Integer>().toArray().length != 0) {
+			result = "failed";
+		}
+		
+		result("AVLSet iterator()",result);
+	}
+	
+	private static void testAVLSetspliterator() {
+		
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		
+		String result;
+		
+		for (int i = 0; i < 10000; i++) {
+			testSet.add(i);
+		}
+		
+		long sum = StreamSupport.stream(testSet.spliterator(), true).mapToLong(Integer::longValue).sum();
+		Object[] ordered = StreamSupport.stream(testSet.spliterator(), true).toArray();
+		Spliterator<Integer> split = testSet.spliterator();
+		
+		if (sum == 49995000L && Arrays.equals(ordered, testSet.toArray())
+				&& split.hasCharacteristics(Spliterator.SORTED | Spliterator.DISTINCT)
+				&& split.getExactSizeIfKnown() == 10000) {
+			result = "passed";
+		}
+		else {
+			result = "failed";
+		}
+		
+		result("AVLSet spliterator()",result);
+	}
+	
+	private static void testAVLSetorderStatistics() {
+		
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 5000; i++) {
+			testSet.add(random.nextInt(3000));
+			testSet.remove(random.nextInt(3000));
+		}
+		
+		Object[] sorted = testSet.toArray();
+		
+		for (int k = 0; k < sorted.length; k++) {
+			if (!testSet.select(k).equals(sorted[k]) || testSet.rank((Integer) sorted[k]) != k) {
+				result = "failed";
+				break;
+			}
+		}
+		
+		int expected = 0;
+		for (Object value : sorted) {
+			if ((int) value >= 1000 && (int) value < 2000) {
+				expected++;
+			}
+		}
+		
+		if (testSet.countInRange(1000, 2000) != expected || testSet.countInRange(2000, 1000) != 0
+				|| testSet.rank(-1) != 0 || testSet.rank(5000) != sorted.length) {
+			result = "failed";
+		}
+		
+		result("AVLSet select(int k), rank(T obj) and countInRange(T lo, T hi)",result);
+	}
+	
+	private static void testAVLSetbulk() {
+		
+		String result = "passed";
+		
+		Integer[] sorted = new Integer[100000];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = 2 * i;
+		}
+		AVLSet<Integer> testSet = AVLSet.fromSorted(sorted);
+		
+		// a balanced tree of 100000 nodes is 17 levels deep
+		if (testSet.size() != sorted.length || !Arrays.equals(testSet.toArray(), sorted)
+				|| testSet.select(500).intValue() != 1000 || testSet.graphvizForm().contains("-17\"")) {
+			result = "failed";
+		}
+		
+		try {
+			AVLSet.fromSorted(new Integer[] {1, 1});
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		// a large batch is merged and rebuilt, a small one added in place
+		Random random = new Random(3320);
+		Integer[] batch = new Integer[50000];
+		TreeSet<Integer> expected = new TreeSet<Integer>(Arrays.asList(sorted));
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = random.nextInt(300000);
+			expected.add(batch[i]);
+		}
+		testSet.addAll(batch);
+		testSet.addAll(new Integer[] {-5, 7, -5});
+		expected.add(-5);
+		expected.add(7);
+		
+		if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.rank(7) != expected.headSet(7).size()) {
+			result = "failed";
+		}
+		
+		BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(sorted);
+		tree.addAll(batch);
+		tree.addAll(new Integer[] {-5, 7, -5});
+		
+		if (!Arrays.equals(tree.toArray(), expected.toArray()) || tree.countInRange(null, 8) != expected.headSet(8).size()) {
+			result = "failed";
+		}
+		
+		result("AVLSet and BinarySearchTree fromSorted(T[] sorted) and addAll(T[] objs)",result);
+	}
+	
+	private static void testAVLSetsortedBatch() {
+		
+		String result = "passed";
+		
+		Random random = new Random(3320);
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(100000);
+			testSet.add(value);
+			expected.add(value);
+		}
+		
+		// batches of every size, some overlapping the set and some not
+		for (int k : new int[] {0, 1, 10, 1000, 30000}) {
+			TreeSet<Integer> batch = new TreeSet<Integer>();
+			while (batch.size() < k) {
+				batch.add(random.nextInt(120000) - 10000);
+			}
+			Integer[] sorted = batch.toArray(new Integer[0]);
+			
+			testSet.addAllSorted(sorted);
+			expected.addAll(batch);
+			if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()
+					|| testSet.rank(50000) != expected.headSet(50000).size()) {
+				result = "failed";
+			}
+			
+			TreeSet<Integer> drop = new TreeSet<Integer>();
+			for (int value : sorted) {
+				if (random.nextBoolean()) {
+					drop.add(value);
+				}
+			}
+			for (int i = 0; i < k / 2; i++) {
+				drop.add(random.nextInt(100000));
+			}
+			int present = 0;
+			for (int value : drop) {
+				if (expected.remove(value)) {
+					present++;
+				}
+			}
+			if (testSet.removeAllSorted(drop.toArray(new Integer[0])) != present
+					|| !Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()) {
+				result = "failed";
+			}
+		}
+		
+		AVLSet<Integer> empty = new AVLSet<Integer>();
+		empty.addAllSorted(new Integer[] {1, 2, 3});
+		if (!empty.toString().equals("{1, 2, 3}") || empty.removeAllSorted(new Integer[] {1, 2, 3}) != 3
+				|| !empty.isEmpty()) {
+			result = "failed";
+		}
+		
+		try {
+			testSet.addAllSorted(new Integer[] {3, 2});
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		result("AVLSet addAllSorted(T[] sorted) and removeAllSorted(T[] sorted)",result);
+	}
+	
+	private static void testAVLSetsetAlgebra() {
+		
+		String result = "passed";
+		
+		Random random = new Random(3320);
+		AVLSet<Integer> evens = new AVLSet<Integer>();
+		AVLSet<Integer> threes = new AVLSet<Integer>();
+		TreeSet<Integer> union = new TreeSet<Integer>();
+		TreeSet<Integer> intersection = new TreeSet<Integer>();
+		TreeSet<Integer> difference = new TreeSet<Integer>();
+		
+		for (int i = 0; i < 3000; i++) {
+			int value = random.nextInt(6000);
+			if (value % 2 == 0) {
+				evens.add(value);
+			}
+			if (value % 3 == 0) {
+				threes.add(value);
+			}
+		}
+		for (Integer value : evens) {
+			union.add(value);
+			difference.add(value);
+			if (threes.contains(value)) {
+				intersection.add(value);
+				difference.remove(value);
+			}
+		}
+		for (Integer value : threes) {
+			union.add(value);
+		}
+		
+		AVLSet<Integer> copy = AVLSet.fromSorted(Arrays.copyOf(evens.toArray(), evens.size(), Integer[].class));
+		AVLSet<Integer> other = AVLSet.fromSorted(Arrays.copyOf(threes.toArray(), threes.size(), Integer[].class));
+		copy.unionWith(other);
+		if (!Arrays.equals(copy.toArray(), union.toArray()) || !other.isEmpty() || copy.size() != union.size()) {
+			result = "failed";
+		}
+		
+		copy = AVLSet.fromSorted(Arrays.copyOf(evens.toArray(), evens.size(), Integer[].class));
+		other = AVLSet.fromSorted(Arrays.copyOf(threes.toArray(), threes.size(), Integer[].class));
+		copy.intersectWith(other);
+		if (!Arrays.equals(copy.toArray(), intersection.toArray()) || copy.size() != intersection.size()
+				|| other.size() != threes.size() || !other.toString().equals(threes.toString())) {
+			result = "failed";
+		}
+		
+		evens.differenceWith(threes);
+		if (!Arrays.equals(evens.toArray(), difference.toArray()) || evens.size() != difference.size()
+				|| !Arrays.equals(threes.toArray(), other.toArray())) {
+			result = "failed";
+		}
+		
+		// split and concat put the set back the way it was
+		copy = AVLSet.fromSorted(union.toArray(new Integer[0]));
+		AVLSet<Integer> upper = copy.split(3000);
+		if (!copy.last().equals(union.lower(3000)) || !upper.first().equals(union.ceiling(3000))
+				|| copy.size() + upper.size() != union.size()) {
+			result = "failed";
+		}
+		try {
+			upper.concat(copy);
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+			// expected, the ranges are in the wrong order
+		}
+		copy.concat(upper);
+		if (!Arrays.equals(copy.toArray(), union.toArray()) || !upper.isEmpty()) {
+			result = "failed";
+		}
+		
+		result("AVLSet unionWith, intersectWith, differenceWith, split and concat",result);
+	}
+	
+	private static void testAVLSetparallel() {
+		
+		String result = "passed";
+		
+		// large enough that the tasks fork before going sequential
+		ForkJoinPool pool = new ForkJoinPool(4);
+		Random random = new Random(3320);
+		TreeSet<Integer> first = new TreeSet<Integer>();
+		TreeSet<Integer> second = new TreeSet<Integer>();
+		for (int i = 0; i < 60000; i++) {
+			first.add(random.nextInt(200000));
+			second.add(random.nextInt(200000));
+		}
+		Integer[] firstValues = first.toArray(new Integer[0]);
+		Integer[] secondValues = second.toArray(new Integer[0]);
+		
+		AVLSet<Integer> testSet = AVLSet.fromSorted(firstValues, pool);
+		if (!Arrays.equals(testSet.toArray(), firstValues)
+				|| !Arrays.equals(AVLSet.fromSorted(firstValues).graphvizForm().getBytes(), testSet.graphvizForm().getBytes())) {
+			result = "failed";
+		}
+		
+		TreeSet<Integer> expected = new TreeSet<Integer>(first);
+		expected.addAll(second);
+		testSet.unionWith(AVLSet.fromSorted(secondValues, pool), pool);
+		if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()) {
+			result = "failed";
+		}
+		
+		expected.retainAll(second);
+		AVLSet<Integer> other = AVLSet.fromSorted(secondValues);
+		testSet.intersectWith(other, pool);
+		if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()
+				|| !Arrays.equals(other.toArray(), secondValues)) {
+			result = "failed";
+		}
+		
+		testSet = AVLSet.fromSorted(firstValues);
+		expected = new TreeSet<Integer>(first);
+		expected.removeAll(second);
+		testSet.differenceWith(other, pool);
+		if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()
+				|| !Arrays.equals(other.toArray(), secondValues) || other.size() != secondValues.length) {
+			result = "failed";
+		}
+		
+		pool.shutdown();
+		
+		result("AVLSet parallel fromSorted, unionWith, intersectWith and differenceWith",result);
+	}
+	
+	private static void testNavigation(OrderedSet<Integer> testSet) {
+		
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 2000; i++) {
+			int value = random.nextInt(4000);
+			testSet.add(value);
+			expected.add(value);
+		}
+		
+		if (!testSet.first().equals(expected.first()) || !testSet.last().equals(expected.last())) {
+			result = "failed";
+		}
+		
+		for (int i = -1; i <= 4000; i++) {
+			if (!Objects.equals(testSet.floor(i), expected.floor(i))
+					|| !Objects.equals(testSet.ceiling(i), expected.ceiling(i))
+					|| !Objects.equals(testSet.lower(i), expected.lower(i))
+					|| !Objects.equals(testSet.higher(i), expected.higher(i))) {
+				result = "failed";
+				break;
+			}
+		}
+		
+		testSet.clear();
+		try {
+			testSet.first();
+			result = "failed";
+		}
+		catch (NoSuchElementException e) {
+			// expected
+		}
+		
+		result(testSet.getClass().getSimpleName() + " floor, ceiling, lower, higher, first and last",result);
+	}
+	
+	private static void testRangeViews(OrderedSet<Integer> testSet) {
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 20; i++) {
+			testSet.add(i);
+		}
+		
+		OrderedSet<Integer> view = testSet.subSet(5, 10);
+		
+		if (!view.toString().equals("{5, 6, 7, 8, 9}") || view.size() != 5
+				|| !view.first().equals(5) || !view.last().equals(9)
+				|| view.contains(10) || !Objects.equals(view.floor(100), 9) || !Objects.equals(view.ceiling(-3), 5)
+				|| view.higher(9) != null || view.lower(5) != null) {
+			result = "failed";
+		}
+		
+		// changes to the set show through the view and the other way around
+		testSet.remove(7);
+		view.add(5);
+		view.remove(8);
+		if (!view.toString().equals("{5, 6, 9}") || testSet.contains(8)) {
+			result = "failed";
+		}
+		
+		try {
+			view.add(12);
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		if (!testSet.headSet(3).toString().equals("{0, 1, 2}")
+				|| !testSet.tailSet(17).toString().equals("{17, 18, 19}")
+				|| view.headSet(9).size() != 2) {
+			result = "failed";
+		}
+
+		// a null bound is unbounded, or the view's own bound on a view
+		if (!testSet.subSet(null, 3).toString().equals("{0, 1, 2}")
+				|| !testSet.subSet(17, null).toString().equals("{17, 18, 19}")
+				|| testSet.headSet(null).size() != testSet.size() || testSet.tailSet(null).size() != testSet.size()
+				|| !view.subSet(null, null).toString().equals(view.toString())
+				|| !view.headSet(null).toString().equals(view.toString())
+				|| !view.tailSet(null).toString().equals(view.toString())
+				|| !view.subSet(6, null).toString().equals("{6, 9}")) {
+			result = "failed";
+		}
+
+		// on a view every bound must lie in the closed range of the view,
+		// and a bound at either end gives an empty view
+		if (!view.subSet(10, 10).isEmpty() || !view.subSet(5, 5).isEmpty()
+				|| !view.tailSet(10).isEmpty() || !view.headSet(5).isEmpty()
+				|| !view.subSet(5, 10).toString().equals(view.toString())) {
+			result = "failed";
+		}
+		int[][] outside = {{4, 8}, {6, 11}, {12, 12}, {3, 3}, {9, 6}};
+		for (int[] bounds : outside) {
+			try {
+				view.subSet(bounds[0], bounds[1]);
+				result = "failed";
+			}
+			catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		for (int bound : new int[] {3, 4, 11, 12}) {
+			try {
+				view.headSet(bound);
+				result = "failed";
+			}
+			catch (IllegalArgumentException e) {
+				// expected
+			}
+			try {
+				view.tailSet(bound);
+				result = "failed";
+			}
+			catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+
+		if (testSet.removeRange(12, 15) != 3 || testSet.contains(12) || !testSet.contains(15)) {
+			result = "failed";
+		}
+		
+		view.clear();
+		if (!view.isEmpty() || testSet.size() != 12
+				|| !testSet.toString().equals("{0, 1, 2, 3, 4, 10, 11, 15, 16, 17, 18, 19}")) {
+			result = "failed";
+		}
+		
+		result(testSet.getClass().getSimpleName() + " subSet, headSet, tailSet and removeRange",result);
+	}
+	
+	private static void testIntAVLSet() {
+		
+		IntAVLSet testSet = new IntAVLSet();
+		AVLSet<Integer> expected = new AVLSet<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(2000);
+			if (random.nextBoolean()) {
+				testSet.add(value);
+				expected.add(value);
+			}
+			else if (testSet.remove(value) != expected.remove(value)) {
+				result = "failed";
+			}
+		}
+		
+		if (!testSet.toString().equals(expected.toString()) || testSet.size() != expected.size()
+				|| testSet.contains(-1) || testSet.isEmpty()) {
+			result = "failed";
+		}
+		
+		result("IntAVLSet",result);
+	}
+	
+	private static void testArrayAVLSet() {
+		
+		ArrayAVLSet<Integer> testSet = new ArrayAVLSet<Integer>(0);
+		AVLSet<Integer> expected = new AVLSet<Integer>();
+		Random random = new Random(3320);
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(2000);
+			if (random.nextBoolean()) {
+				testSet.add(value);
+				expected.add(value);
+			}
+			else if (testSet.remove(value) != expected.remove(value)) {
+				result = "failed";
+			}
+		}
+		
+		if (!testSet.toString().equals(expected.toString()) || testSet.size() != expected.size()
+				|| !Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.contains(-1)) {
+			result = "failed";
+		}
+		
+		// the spliterator knows its size until it splits at a subtree
+		Spliterator<Integer> whole = testSet.spliterator();
+		if (whole.getExactSizeIfKnown() != expected.size()
+				|| !whole.hasCharacteristics(Spliterator.SORTED | Spliterator.DISTINCT)
+				|| whole.trySplit() == null || whole.hasCharacteristics(Spliterator.SIZED)
+				|| !Arrays.equals(StreamSupport.stream(testSet.spliterator(), true).toArray(), expected.toArray())) {
+			result = "failed";
+		}
+		Spliterator<Integer> stale = testSet.spliterator();
+		testSet.add(-1);
+		try {
+			stale.tryAdvance(value -> { });
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+			// expected
+		}
+		
+		testSet.clear();
+		
+		if (!testSet.isEmpty() || testSet.toArray().length != 0) {
+			result = "failed";
+		}
+		
+		result("ArrayAVLSet",result);
+	}
+	
+	private static void testLockFreeSkipListSet() {
+		
+		LockFreeSkipListSet<Integer> testSet = new LockFreeSkipListSet<Integer>();
+		
+		result("LockFreeSkipListSet",checkAgainstTreeSet(testSet, new Random(3320)));
+	}
+	
+	private static void testLockFreeSkipListSetstress() {
+		
+		final LockFreeSkipListSet<Integer> testSet = new LockFreeSkipListSet<Integer>();
+		final int threads = 8;
+		final int keys = 10000;
+		final AtomicInteger removed = new AtomicInteger();
+		final AtomicInteger errors = new AtomicInteger();
+		
+		String result = "passed";
+		
+		// every thread adds every key, then every thread removes every key
+		runThreads(threads, id -> {
+			Random random = new Random(id);
+			int[] order = new int[keys];
+			for (int i = 0; i < keys; i++) {
+				order[i] = i;
+			}
+			for (int i = keys - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int tmp = order[i];
+				order[i] = order[j];
+				order[j] = tmp;
+			}
+			for (int key : order) {
+				testSet.add(key);
+			}
+		});
+		Object[] all = testSet.toArray();
+		for (int i = 0; i < keys; i++) {
+			if (!Integer.valueOf(i).equals(all[i])) {
+				result = "failed";
+			}
+		}
+		if (all.length != keys || testSet.size() != keys) {
+			result = "failed";
+		}
+		
+		runThreads(threads, id -> {
+			for (int key = 0; key < keys; key++) {
+				if (testSet.remove((key + id * 977) % keys)) {
+					removed.incrementAndGet();
+				}
+			}
+		});
+		if (removed.get() != keys || !testSet.isEmpty() || testSet.size() != 0) {
+			result = "failed";
+		}
+		
+		// each thread owns the keys equal to its id modulo the thread count,
+		// so its own view of them must match the set exactly at the end
+		final TreeSet<Integer>[] owned = newTreeSets(threads);
+		runThreads(threads, id -> {
+			Random random = new Random(3320 + id);
+			for (int i = 0; i < 50000; i++) {
+				int key = random.nextInt(keys / threads) * threads + id;
+				int op = random.nextInt(3);
+				if (op == 0) {
+					testSet.add(key);
+					owned[id].add(key);
+				}
+				else if (op == 1) {
+					if (testSet.remove(key) != owned[id].remove(key)) {
+						errors.incrementAndGet();
+					}
+				}
+				else if (testSet.contains(key) != owned[id].contains(key)) {
+					errors.incrementAndGet();
+				}
+			}
+		});
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (TreeSet<Integer> keySet : owned) {
+			expected.addAll(keySet);
+		}
+		if (errors.get() != 0 || !Arrays.equals(testSet.toArray(), expected.toArray())
+				|| testSet.size() != expected.size()) {
+			result = "failed";
+		}
+		
+		result("LockFreeSkipListSet concurrent stress",result);
+	}
+	
+	private static void testConcurrentAVLSet() {
+		
+		ConcurrentAVLSet<Integer> testSet = new ConcurrentAVLSet<Integer>();
+		
+		// an ascending run forces rotations, removals then leave routing nodes
+		for (int i = 0; i < 2000; i++) {
+			testSet.add(i);
+		}
+		
+		result("ConcurrentAVLSet",checkAgainstTreeSet(testSet, new Random(3320)));
+	}
+	
+	private static void testConcurrentAVLSetlinearizability() {
+		
+		final ConcurrentAVLSet<Integer> testSet = new ConcurrentAVLSet<Integer>();
+		final int writers = 4;
+		final int readers = 4;
+		final int keys = 20000;
+		final int stable = 1 << 20;
+		// per writer: how many of its keys have finished being added, have
+		// started being added, have started being removed and have finished
+		// being removed; each writer works through its keys in order
+		final AtomicIntegerArray added = new AtomicIntegerArray(writers);
+		final AtomicIntegerArray adding = new AtomicIntegerArray(writers);
+		final AtomicIntegerArray removing = new AtomicIntegerArray(writers);
+		final AtomicIntegerArray removed = new AtomicIntegerArray(writers);
+		final AtomicInteger errors = new AtomicInteger();
+		final AtomicInteger finished = new AtomicInteger();
+		
+		String result = "passed";
+		
+		// keys that stay in the set the whole time, readers must always find them
+		for (int i = 0; i < 1000; i++) {
+			testSet.add(stable + i);
+		}
+		
+		runThreads(writers + readers, id -> {
+			if (id < writers) {
+				// ascending keys make nearly every add rotate
+				for (int i = 0; i < keys; i++) {
+					adding.set(id, i + 1);
+					testSet.add(id * keys + i);
+					added.set(id, i + 1);
+					if (i >= keys / 2) {
+						int j = i - keys / 2;
+						removing.set(id, j + 1);
+						testSet.remove(id * keys + j);
+						removed.set(id, j + 1);
+					}
+				}
+				finished.incrementAndGet();
+			}
+			else {
+				Random random = new Random(id);
+				while (finished.get() < writers) {
+					int writer = random.nextInt(writers);
+					int i = random.nextInt(keys);
+					// the real-time order of the calls fixes the answer
+					// whenever the key's add or remove did not overlap
+					int addDone = added.get(writer);
+					int removeDone = removed.get(writer);
+					boolean found = testSet.contains(writer * keys + i);
+					int addStarted = adding.get(writer);
+					int removeStarted = removing.get(writer);
+					if (i < addDone && i >= removeStarted && !found) {
+						errors.incrementAndGet();
+					}
+					if ((i >= addStarted || i < removeDone) && found) {
+						errors.incrementAndGet();
+					}
+					if (!testSet.contains(stable + random.nextInt(1000)) || testSet.contains(-1 - i)) {
+						errors.incrementAndGet();
+					}
+				}
+			}
+		});
+		
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int w = 0; w < writers; w++) {
+			for (int i = keys / 2; i < keys; i++) {
+				expected.add(w * keys + i);
+			}
+		}
+		for (int i = 0; i < 1000; i++) {
+			expected.add(stable + i);
+		}
+		if (errors.get() != 0 || !Arrays.equals(testSet.toArray(), expected.toArray())
+				|| testSet.size() != expected.size()) {
+			result = "failed";
+		}
+		
+		result("ConcurrentAVLSet linearizability stress",result);
+	}
+	
+	private static void testShardedAVLSet() {
+		
+		ShardedAVLSet<Integer> testSet = new ShardedAVLSet<Integer>(new Integer[] {500, 1000, 2000});
+		
+		String result = checkAgainstTreeSet(testSet, new Random(3320));
+		
+		if (testSet.boundaries().length != 3) {
+			result = "failed";
+		}
+		
+		Integer[] sample = new Integer[1000];
+		for (int i = 0; i < sample.length; i++) {
+			sample[i] = i % 100;
+		}
+		if (!Arrays.equals(ShardedAVLSet.fromSample(sample, 4).boundaries(), new Object[] {25, 50, 75})
+				|| ShardedAVLSet.fromSample(new Integer[] {7, 7, 7}, 4).boundaries().length != 0
+				|| ShardedAVLSet.fromSample(new Integer[0], 4).boundaries().length != 0) {
+			result = "failed";
+		}
+		
+		try {
+			new ShardedAVLSet<Integer>(new Integer[] {5, 5});
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+		}
+		
+		result("ShardedAVLSet",result);
+	}
+	
+	private static void testShardedAVLSetrebalance() {
+		
+		final ShardedAVLSet<Integer> testSet = new ShardedAVLSet<Integer>(new Integer[] {25000, 50000, 75000});
+		final int threads = 8;
+		final AtomicInteger errors = new AtomicInteger();
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 100000; i += 2) {
+			testSet.add(i);
+		}
+		
+		// every thread works in the first shard, which should push its
+		// boundary down; each owns the odd keys equal to its id modulo the
+		// thread count and checks its own view of them as it goes
+		final TreeSet<Integer>[] owned = newTreeSets(threads);
+		runThreads(threads, id -> {
+			Random random = new Random(3320 + id);
+			for (int i = 0; i < 40000; i++) {
+				int key = (random.nextInt(25000 / threads / 2) * threads + id) * 2 + 1;
+				int op = random.nextInt(3);
+				if (op == 0) {
+					testSet.add(key);
+					owned[id].add(key);
+				}
+				else if (op == 1) {
+					if (testSet.remove(key) != owned[id].remove(key)) {
+						errors.incrementAndGet();
+					}
+				}
+				else if (testSet.contains(key) != owned[id].contains(key)) {
+					errors.incrementAndGet();
+				}
+				if (i % 8 == 0 && !testSet.contains(2 * random.nextInt(50000))) {
+					errors.incrementAndGet();
+				}
+			}
+		});
+		
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (TreeSet<Integer> keySet : owned) {
+			expected.addAll(keySet);
+		}
+		for (int i = 0; i < 100000; i += 2) {
+			expected.add(i);
+		}
+		if (errors.get() != 0 || !Arrays.equals(testSet.toArray(), expected.toArray())
+				|| testSet.size() != expected.size()) {
+			result = "failed";
+		}
+		for (int key : expected) {
+			if (!testSet.contains(key)) {
+				result = "failed";
+			}
+		}
+		if ((Integer) testSet.boundaries()[0] >= 25000) {
+			result = "failed";
+		}
+		
+		result("ShardedAVLSet concurrent rebalance",result);
+	}
+	
+	private static void testPersistentAVLSet() {
+		
+		PersistentAVLSet<Integer> testSet = new PersistentAVLSet<Integer>();
+		Random random = new Random(3320);
+		Set<Integer>[] snapshots = newSnapshots(20);
+		Object[][] contents = new Object[20][];
+		
+		String result = checkAgainstTreeSet(testSet, random);
+		
+		for (int i = 0; i < 20000; i++) {
+			if (i % 1000 == 0) {
+				snapshots[i / 1000] = testSet.snapshot();
+				contents[i / 1000] = testSet.toArray();
+			}
+			int value = random.nextInt(3000);
+			if (random.nextBoolean()) {
+				testSet.add(value);
+			}
+			else {
+				testSet.remove(value);
+			}
+		}
+		
+		// every snapshot still holds what the set held when it was taken
+		for (int i = 0; i < snapshots.length; i++) {
+			if (!Arrays.equals(snapshots[i].toArray(), contents[i]) || snapshots[i].size() != contents[i].length) {
+				result = "failed";
+			}
+			int count = 0;
+			for (int value : snapshots[i]) {
+				if (!contents[i][count++].equals(value)) {
+					result = "failed";
+				}
+			}
+		}
+		
+		Set<Integer> before = testSet.snapshot();
+		int size = testSet.size();
+		testSet.clear();
+		if (!testSet.isEmpty() || testSet.size() != 0 || before.size() != size || before.isEmpty()) {
+			result = "failed";
+		}
+		
+		try {
+			before.add(1);
+			result = "failed";
+		}
+		catch (UnsupportedOperationException e) {
+		}
+		try {
+			before.remove(1);
+			result = "failed";
+		}
+		catch (UnsupportedOperationException e) {
+		}
+		
+		result("PersistentAVLSet snapshot()",result);
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Set<Integer>[] newSnapshots(int count) {
+		return (Set<Integer>[]) new Set[count];
+	}
+	
+	private static void testFlatCombiningAVLSet() {
+		
+		final FlatCombiningAVLSet<Integer> testSet = new FlatCombiningAVLSet<Integer>();
+		final TreeSet<Integer> expected = new TreeSet<Integer>();
+		final int threads = 16;
+		final int keys = 4096;
+		final AtomicInteger removed = new AtomicInteger();
+		final AtomicInteger errors = new AtomicInteger();
+		
+		String result = checkAgainstTreeSet(testSet, new Random(3320));
+		
+		// every thread adds every key, then every thread removes every key,
+		// so each key must be removed by exactly one of them
+		runThreads(threads, id -> {
+			for (int key = 0; key < keys; key++) {
+				testSet.add((key + id * 257) % keys);
+			}
+		});
+		if (testSet.size() != keys) {
+			result = "failed";
+		}
+		runThreads(threads, id -> {
+			for (int key = 0; key < keys; key++) {
+				if (testSet.contains(key) && testSet.remove(key)) {
+					removed.incrementAndGet();
+				}
+			}
+		});
+		if (removed.get() != keys || !testSet.isEmpty()) {
+			result = "failed";
+		}
+		
+		final TreeSet<Integer>[] owned = newTreeSets(threads);
+		runThreads(threads, id -> {
+			Random ownRandom = new Random(3320 + id);
+			for (int i = 0; i < 20000; i++) {
+				int key = ownRandom.nextInt(keys / threads) * threads + id;
+				int op = ownRandom.nextInt(3);
+				if (op == 0) {
+					testSet.add(key);
+					owned[id].add(key);
+				}
+				else if (op == 1) {
+					if (testSet.remove(key) != owned[id].remove(key)) {
+						errors.incrementAndGet();
+					}
+				}
+				else if (testSet.contains(key) != owned[id].contains(key)) {
+					errors.incrementAndGet();
+				}
+			}
+		});
+		expected.clear();
+		for (TreeSet<Integer> keySet : owned) {
+			expected.addAll(keySet);
+		}
+		if (errors.get() != 0 || !Arrays.equals(testSet.toArray(), expected.toArray())
+				|| testSet.size() != expected.size()) {
+			result = "failed";
+		}
+		
+		// the slots of threads that have ended are freed once they have been
+		// idle long enough, and taken again by new threads
+		runThreads(FlatCombiningAVLSet.SLOTS + 16, id -> testSet.add(id));
+		for (int i = 0; i <= FlatCombiningAVLSet.IDLE + 1; i++) {
+			testSet.contains(i);
+		}
+		if (testSet.registered() != 1) {
+			result = "failed";
+		}
+		runThreads(threads, id -> testSet.remove(id));
+		if (testSet.registered() != 1 + threads || testSet.contains(threads - 1)
+				|| !testSet.contains(threads)) {
+			result = "failed";
+		}
+		
+		try {
+			testSet.add(null);
+			result = "failed";
+		}
+		catch (IllegalArgumentException e) {
+		}
+		
+		result("FlatCombiningAVLSet",result);
+	}
+	
+	private static void testThreadedAVLSet() {
+		
+		ThreadedAVLSet<Integer> testSet = new ThreadedAVLSet<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		Random random = new Random(3320);
+		
+		String result = checkAgainstTreeSet(testSet, random);
+		
+		// the ends of the threads follow adds at any place and removes of
+		// the least element
+		for (int i = 0; i < 3000; i++) {
+			int value = random.nextInt(3000);
+			testSet.add(value);
+			expected.add(value);
+			if (i % 3 == 0 && expected.size() > 1) {
+				testSet.remove(expected.pollFirst());
+			}
+			if (!testSet.first().equals(expected.first()) || !testSet.last().equals(expected.last())) {
+				result = "failed";
+			}
+		}
+		
+		// forward and reverse walks along the threads
+		Iterator<Integer> forward = testSet.iterator();
+		for (int value : expected) {
+			if (!forward.hasNext() || forward.next() != value) {
+				result = "failed";
+			}
+		}
+		Iterator<Integer> reverse = testSet.descendingIterator();
+		for (int value : expected.descendingSet()) {
+			if (!reverse.hasNext() || reverse.next() != value) {
+				result = "failed";
+			}
+		}
+		if (forward.hasNext() || reverse.hasNext()) {
+			result = "failed";
+		}
+		
+		// range walks in both directions
+		for (int lo = -10; lo < 3010; lo += 97) {
+			int hi = lo + 150;
+			Iterator<Integer> up = testSet.iterator(lo, hi);
+			for (int value : expected.subSet(lo, hi)) {
+				if (up.next() != value) {
+					result = "failed";
+				}
+			}
+			Iterator<Integer> down = testSet.descendingIterator(lo, hi);
+			for (int value : expected.subSet(lo, true, hi, false).descendingSet()) {
+				if (down.next() != value) {
+					result = "failed";
+				}
+			}
+			if (up.hasNext() || down.hasNext()) {
+				result = "failed";
+			}
+		}
+
+		// the spliterator splits at subtree boundaries with exact sizes
+		Spliterator<Integer> whole = testSet.spliterator();
+		Spliterator<Integer> half = whole.trySplit();
+		if (half == null || !whole.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED)
+				|| half.estimateSize() + whole.estimateSize() != expected.size()
+				|| half.estimateSize() < expected.size() / 4 || whole.estimateSize() < expected.size() / 4
+				|| !Arrays.equals(StreamSupport.stream(testSet.spliterator(), true).toArray(), expected.toArray())) {
+			result = "failed";
+		}
+
+		Iterator<Integer> stale = testSet.iterator();
+		testSet.add(-1);
+		try {
+			stale.next();
+			result = "failed";
+		}
+		catch (ConcurrentModificationException e) {
+		}
+		
+		testSet.clear();
+		if (!testSet.isEmpty() || testSet.iterator().hasNext() || testSet.descendingIterator().hasNext()) {
+			result = "failed";
+		}
+		try {
+			testSet.first();
+			result = "failed";
+		}
+		catch (NoSuchElementException e) {
+		}
+		
+		result("ThreadedAVLSet iterator()",result);
+	}
+	
+	/**
+	 * Runs random adds, removes and searches on a set and a {@code TreeSet}
+	 * side by side, compares {@code toArray()}, {@code size()},
+	 * {@code toString()} and the iterator of the set with the
+	 * {@code TreeSet}, then clears the set.  Elements already in the set
+	 * are copied into the {@code TreeSet} first.
+	 * 
+	 * @param testSet set to check
+	 * @param random source of the operations
+	 * @return "passed" or "failed"
+	 */
+	private static String checkAgainstTreeSet(Set<Integer> testSet, Random random) {
+		
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int value : testSet) {
+			expected.add(value);
+		}
+		
+		String result = "passed";
+		
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(3000);
+			if (random.nextBoolean()) {
+				testSet.add(value);
+				expected.add(value);
+			}
+			else if (testSet.remove(value) != expected.remove(value)) {
+				result = "failed";
+			}
+			if (testSet.contains(i % 3000) != expected.contains(i % 3000)) {
+				result = "failed";
+			}
+		}
+		
+		if (!Arrays.equals(testSet.toArray(), expected.toArray()) || testSet.size() != expected.size()
+				|| !testSet.toString().equals(expected.toString().replace('[', '{').replace(']', '}'))) {
+			result = "failed";
+		}
+		
+		Iterator<Integer> walk = expected.iterator();
+		for (int value : testSet) {
+			if (!walk.hasNext() || walk.next() != value) {
+				result = "failed";
+			}
+		}
+		if (walk.hasNext()) {
+			result = "failed";
+		}
+		
+		testSet.clear();
+		if (!testSet.isEmpty() || testSet.size() != 0 || testSet.toArray().length != 0 || testSet.contains(0)) {
+			result = "failed";
+		}
+		
+		return result;
+	}
+	
+	private static void runThreads(int count, IntConsumer task) {
+		Thread[] workers = new Thread[count];
+		for (int i = 0; i < count; i++) {
+			final int id = i;
+			workers[i] = new Thread(() -> task.accept(id));
+			workers[i].start();
+		}
+		for (Thread worker : workers) {
+			try {
+				worker.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static TreeSet<Integer>[] newTreeSets(int count) {
+		TreeSet<Integer>[] sets = (TreeSet<Integer>[]) new TreeSet[count];
+		for (int i = 0; i < count; i++) {
+			sets[i] = new TreeSet<Integer>();
+		}
+		return sets;
+	}
+	
+	private static void testBSTiterator() {
+		
+		BinarySearchTree<Integer> testSet = new BinarySearchTree<Integer>();
+		
+		String result = "passed";
+		int expected = 0;
+		
+		for (int i = 0; i < 1000; i++) {
+			testSet.add((i * 37) % 1000);
+		}
+		
+		for (int value : testSet) {
+			if (value != expected++) {
+				result = "failed";
+			}
+		}
+		
+		Spliterator<Integer> split = testSet.spliterator();
+		Spliterator<Integer> prefix = split.trySplit();
+		Object[] ordered = StreamSupport.stream(testSet.spliterator(), true).toArray();
+		
+		if (expected != 1000 || !Arrays.equals(ordered, testSet.toArray())
+				|| prefix.getExactSizeIfKnown() + split.getExactSizeIfKnown() != 1000) {
+			result = "failed";
+		}
+		
+		result("BinarySearchTree iterator()",result);
+	}
+	
+	private static void testGraphVizStream() {
+		
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 1; i <= 1023; i++) {
+			avl.add(i);
+		}
+		
+		// a chain far deeper than the 31 levels that heap numbering allows
+		BinarySearchTree<Integer> chain = new BinarySearchTree<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			chain.add(i);
+		}
+		
+		String result = "passed";
+		
+		try {
+			String whole = avl.graphvizForm();
+			StringBuilder streamed = new StringBuilder();
+			avl.graphvizForm(streamed);
+			if (!whole.equals(streamed.toString()) || count(whole, "[label=") != 1023 || count(whole, " -> ") != 1022) {
+				result = "failed";
+			}
+			
+			// a perfect tree cut below depth 3 has 15 nodes and 16 elisions
+			StringBuilder shallow = new StringBuilder();
+			avl.graphvizForm(shallow, 3, Long.MAX_VALUE);
+			if (count(shallow.toString(), "[label=\"...\"") != 16 || count(shallow.toString(), "[label=") != 31) {
+				result = "failed";
+			}
+			
+			StringBuilder capped = new StringBuilder();
+			avl.graphvizForm(capped, Integer.MAX_VALUE, 100);
+			if (count(capped.toString(), "[label=") - count(capped.toString(), "[label=\"...\"") != 100) {
+				result = "failed";
+			}
+			
+			StringBuilder deep = new StringBuilder();
+			chain.graphvizForm(deep);
+			if (!deep.toString().contains("node4999 -> node5000;") || count(deep.toString(), " -> ") != 4999) {
+				result = "failed";
+			}
+			
+			Path file = Files.createTempFile("avl", ".dot");
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				avl.graphvizForm(channel, Integer.MAX_VALUE, Long.MAX_VALUE);
+			}
+			if (!new String(Files.readAllBytes(file), StandardCharsets.UTF_8).equals(whole)) {
+				result = "failed";
+			}
+			Files.delete(file);
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		result("GraphVizWriteable graphvizForm(Appendable)",result);
+	}
+	
+	private static void testGraphVizSummary() {
+		
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		for (int i = 1; i <= 1023; i++) {
+			avl.add(i);
+		}
+		BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+		for (int i = 1; i <= 100; i++) {
+			bst.add(i);
+		}
+		
+		String result = "passed";
+		
+		try {
+			// a perfect tree of height 9 summarized below three levels
+			StringBuilder summary = new StringBuilder();
+			avl.graphvizSummary(summary, 3);
+			String dot = summary.toString();
+			if (count(dot, "shape=box") != 8 || count(dot, "[label=") != 7 || count(dot, "n=127 h=6") != 8
+					|| !dot.contains("[1, 127]") || !dot.contains("[897, 1023]")) {
+				result = "failed";
+			}
+			
+			StringBuilder whole = new StringBuilder();
+			avl.graphvizSummary(whole, 10);
+			if (!whole.toString().equals(avl.graphvizForm())) {
+				result = "failed";
+			}
+			
+			// without an override the levels below are left out
+			StringBuilder fallback = new StringBuilder();
+			bst.graphvizSummary(fallback, 5);
+			if (count(fallback.toString(), "[label=") != 6 || count(fallback.toString(), "[label=\"...\"") != 1) {
+				result = "failed";
+			}
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		result("GraphVizWriteable graphvizSummary()",result);
+	}
+	
+	private static void testRebalanceRecorder() {
+		
+		AVLSet<Integer> testSet = new AVLSet<Integer>();
+		RebalanceRecorder<Integer> recorder = new RebalanceRecorder<Integer>();
+		RebalanceExporter<Integer> exporter = new RebalanceExporter<Integer>(recorder);
+		Random random = new Random(3320);
+		
+		for (int i = 0; i < 500; i++) {
+			testSet.add(random.nextInt(2000));
+		}
+		
+		String result = "passed";
+		
+		try {
+			// attached to a tree that is already built, then replayed in steps
+			testSet.setRecorder(recorder);
+			int rotations = 0;
+			int frames = 0;
+			int counted = 0;
+			for (int i = 0; i < 20000; i++) {
+				int value = random.nextInt(2000);
+				if (random.nextBoolean()) {
+					testSet.add(value);
+				}
+				else {
+					testSet.remove(value);
+				}
+				if (i == 10000) {
+					testSet.clear();
+				}
+				if (i % 1000 == 999) {
+					for (; counted < recorder.size(); counted++) {
+						int kind = recorder.kind(counted);
+						if (kind == RebalanceRecorder.ROTATE_LEFT || kind == RebalanceRecorder.ROTATE_RIGHT) {
+							rotations++;
+						}
+					}
+					StringBuilder out = new StringBuilder();
+					frames += exporter.export(out, 1);
+					if (!exporter.graphvizForm().equals(testSet.graphvizForm())) {
+						result = "failed";
+					}
+					if (i == 999 && (count(out.toString(), "digraph") != frames || count(out.toString(), "[style=filled]") != frames)) {
+						result = "failed";
+					}
+				}
+			}
+			if (frames == 0 || frames != rotations) {
+				result = "failed";
+			}
+
+			// the bulk operations are recorded as their result
+			for (int i = 0; i < 2000; i += 3) {
+				testSet.add(i);
+			}
+			Integer[] batch = new Integer[100];
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = 2000 + 2 * i;
+			}
+			ForkJoinPool pool = new ForkJoinPool(2);
+			for (int step = 0; step < 8; step++) {
+				if (step == 0) {
+					testSet.removeRange(300, 700);
+				}
+				else if (step == 1) {
+					AVLSet<Integer> upper = testSet.split(1200);
+					upper.add(5000);
+					testSet.concat(upper);
+				}
+				else if (step == 2) {
+					testSet.addAllSorted(batch);
+				}
+				else if (step == 3) {
+					testSet.removeAllSorted(Arrays.copyOfRange(batch, 0, 50));
+				}
+				else if (step == 4) {
+					testSet.headSet(100).clear();
+				}
+				else if (step == 5) {
+					AVLSet<Integer> other = AVLSet.fromSorted(batch);
+					testSet.unionWith(other, pool);
+				}
+				else if (step == 6) {
+					AVLSet<Integer> other = AVLSet.fromSorted(Arrays.copyOfRange(batch, 20, 80));
+					testSet.differenceWith(other, pool);
+				}
+				else {
+					AVLSet<Integer> other = AVLSet.fromSorted(Arrays.copyOfRange(batch, 60, 100));
+					testSet.intersectWith(other);
+				}
+				exporter.export(null, 1);
+				if (!exporter.graphvizForm().equals(testSet.graphvizForm())) {
+					result = "failed";
+				}
+			}
+			pool.shutdown();
+			if (testSet.size() != 20) {
+				result = "failed";
+			}
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		testSet.setRecorder(null);
+		int events = recorder.size();
+		testSet.add(-1);
+		if (recorder.size() != events) {
+			result = "failed";
+		}
+		
+		result("RebalanceRecorder replay",result);
+	}
+	
+	private static void testSnapshotFile() {
+		
+		AVLSet<Integer> avl = new AVLSet<Integer>();
+		BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+		Random random = new Random(3320);
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt();
+			avl.add(value);
+			bst.add(value);
+		}
+		
+		String result = "passed";
+		
+		try {
+			Path file = Files.createTempFile("avl", ".snap");
+			
+			// two snapshots back to back in one file, then an empty one
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				avl.writeSnapshot(channel, KeyCodec.INTEGER);
+				bst.writeSnapshot(channel, KeyCodec.INTEGER);
+				new AVLSet<Integer>().writeSnapshot(channel, KeyCodec.INTEGER);
+			}
+			
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				AVLSet<Integer> loaded = AVLSet.readSnapshot(channel, KeyCodec.INTEGER);
+				BinarySearchTree<Integer> loadedTree = BinarySearchTree.readSnapshot(channel, KeyCodec.INTEGER);
+				AVLSet<Integer> empty = AVLSet.readSnapshot(channel, KeyCodec.INTEGER);
+				if (!Arrays.equals(loaded.toArray(), avl.toArray()) || loaded.size() != avl.size()
+						|| !Arrays.equals(loadedTree.toArray(), avl.toArray()) || loadedTree.size() != avl.size()
+						|| !empty.isEmpty() || channel.position() != channel.size()) {
+					result = "failed";
+				}
+				// a bulk-built tree still takes ordinary updates
+				Object[] data = avl.toArray();
+				loaded.add(1);
+				loaded.remove((Integer) data[0]);
+				avl.add(1);
+				avl.remove((Integer) data[0]);
+				if (!Arrays.equals(loaded.toArray(), avl.toArray())) {
+					result = "failed";
+				}
+				
+				channel.position(0);
+				MappedSnapshotSet<Integer> mapped = MappedSnapshotSet.open(channel, KeyCodec.INTEGER, false);
+				for (int i = 0; i < 20000; i++) {
+					int value = i % 2 == 0 ? random.nextInt() : (Integer) data[i % data.length];
+					if (mapped.contains(value) != loadedTree.contains(value)) {
+						result = "failed";
+					}
+				}
+				if (mapped.size() != loadedTree.size() || !mapped.toString().equals(loadedTree.toString())) {
+					result = "failed";
+				}
+				try {
+					mapped.add(1);
+					result = "failed";
+				}
+				catch (UnsupportedOperationException e) {
+				}
+				
+				// the wrong codec is refused
+				try {
+					channel.position(0);
+					AVLSet.readSnapshot(channel, KeyCodec.LONG);
+					result = "failed";
+				}
+				catch (IOException e) {
+				}
+			}
+			
+			// a damaged element fails the checksum
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				channel.write(ByteBuffer.wrap(new byte[] {1}), SnapshotFile.HEADER + 1000);
+				channel.position(0);
+				AVLSet.readSnapshot(channel, KeyCodec.INTEGER);
+				result = "failed";
+			}
+			catch (IOException e) {
+			}
+			Files.delete(file);
+		}
+		catch (IOException e) {
+			result = "failed";
+		}
+		
+		result("AVLSet writeSnapshot() readSnapshot()",result);
+	}
+	
+	private static int count(String text, String pattern) {
+		int count = 0;
+		for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+	
 	private static void testAVLGraphVizWrite() {
 		
 		AVLSet<Integer> testSet = new AVLSet<Integer>();
@@ -0,0 +1,909 @@
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the {@code OrderedSet} interface with an AVL tree
+ * whose nodes are also threaded into a list in order.  Each node carries
+ * links to its in-order predecessor and successor, and the list is closed
+ * into a ring through a header node that holds no element, so the header's
+ * successor is the least element and its predecessor the greatest.
+ *
+ * Iterating, forwards or backwards, follows the list links, so every step
+ * is O(1) and a scan allocates nothing beyond the iterator itself.
+ * Rotations do not change the order of the elements and so leave the links
+ * alone; only {@code add()} and {@code remove()} relink them.  A node with
+ * two children is removed by putting its successor node in its place
+ * rather than copying the successor's element, so a node always keeps the
+ * element it was created for.
+ *
+ * @author Megan Bird
+ *
+ * @param <T>
+ */
+public class ThreadedAVLSet<T extends Comparable<T>> implements OrderedSet<T> {
+
+	/**
+	 * This class defines a node of the tree.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeNode {
+		T datum;
+		TreeNode left;
+		TreeNode right;
+		TreeNode prev;
+		TreeNode next;
+		int height;
+		int size;
+
+		/**
+		 * Constructs a new leaf.
+		 *
+		 * @param datum
+		 */
+		TreeNode(T datum) {
+			this.datum = datum;
+			this.left = null;
+			this.right = null;
+			this.prev = this;
+			this.next = this;
+			this.height = 0;
+			this.size = 1;
+		}
+	}
+
+	/**
+	 * This class defines a fail-fast iterator that walks the list links,
+	 * forwards or backwards, until it reaches a bound.
+	 *
+	 * @author Megan Bird
+	 */
+	class SetIterator implements Iterator<T> {
+		private TreeNode cursor;
+		private final T bound;
+		private final boolean forward;
+		private int expectedModCount = modCount;
+
+		/**
+		 * Creates an iterator starting at a node.
+		 *
+		 * @param start first node to return, the header if there is none
+		 * @param bound exclusive bound to stop at, or {@code null} for none;
+		 * 		an upper bound going forwards and a lower one going backwards
+		 * @param forward {@code true} to follow successor links
+		 */
+		SetIterator(TreeNode start, T bound, boolean forward) {
+			this.cursor = start;
+			this.bound = bound;
+			this.forward = forward;
+		}
+
+		/**
+		 * Returns {@code true} if there are elements left to visit.
+		 *
+		 * @return {@code true} if there are elements left to visit
+		 */
+		@Override
+		public boolean hasNext() {
+			if (cursor == header) {
+				return false;
+			}
+			else if (bound == null) {
+				return true;
+			}
+			else if (forward) {
+				return cursor.datum.compareTo(bound) < 0;
+			}
+			else {
+				return cursor.datum.compareTo(bound) > 0;
+			}
+		}
+
+		/**
+		 * Returns the next element.
+		 *
+		 * @return the next element
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the tree was
+		 * 		structurally modified since the iterator was created
+		 */
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			T datum = cursor.datum;
+			cursor = forward ? cursor.next : cursor.prev;
+			return datum;
+		}
+	}
+
+	/**
+	 * This class defines a spliterator over a subtree followed by an
+	 * optional single node, as {@code AVLSet.TreeSpliterator} does.
+	 * Splitting hands the left subtree and the root to a new spliterator
+	 * and keeps the right subtree, so the work divides along subtree
+	 * boundaries and the subtree sizes give exact split sizes.  The node
+	 * after a subtree is the successor of its greatest node, so traversal
+	 * starts at the least node of the subtree and follows the successor
+	 * links, with no stack.
+	 *
+	 * @author Megan Bird
+	 */
+	class TreeSpliterator implements Spliterator<T> {
+		private TreeNode subtree;
+		private TreeNode after;
+		private TreeNode cursor;
+		private int remaining;
+		private int expectedModCount;
+
+		/**
+		 * Creates a spliterator over a subtree followed by a single node.
+		 *
+		 * @param subtree subtree to visit first
+		 * @param after node to visit last, or {@code null}
+		 * @param expectedModCount modification count the tree must keep
+		 */
+		TreeSpliterator(TreeNode subtree, TreeNode after, int expectedModCount) {
+			this.subtree = subtree;
+			this.after = after;
+			this.remaining = size(subtree) + (after != null ? 1 : 0);
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (cursor != null || subtree == null) {
+				return null;
+			}
+			TreeNode split = subtree;
+			subtree = split.right;
+			remaining -= size(split.left) + 1;
+			return new TreeSpliterator(split.left, split, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0) {
+				return false;
+			}
+			if (cursor == null && subtree == null) {
+				cursor = after;
+			}
+			else if (cursor == null) {
+				cursor = subtree;
+				while (cursor.left != null) {
+					cursor = cursor.left;
+				}
+			}
+			T datum = cursor.datum;
+			cursor = cursor.next;
+			remaining--;
+			action.accept(datum);
+			return true;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED
+					| Spliterator.SORTED | Spliterator.DISTINCT;
+		}
+
+		@Override
+		public Comparator<? super T> getComparator() {
+			return null;
+		}
+	}
+
+	/**
+	 * Holds the node designated as the root of the tree.
+	 */
+	private TreeNode root;
+
+	/**
+	 * Holds the ring of nodes in order.  Its successor is the least node
+	 * and its predecessor the greatest, or itself when the set is empty.
+	 */
+	private final TreeNode header = new TreeNode(null);
+
+	/**
+	 * Holds the number of structural modifications made to the tree so that
+	 * iterators can detect concurrent modification.
+	 */
+	private int modCount;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	public ThreadedAVLSet() {
+		root = null;
+		modCount = 0;
+	}
+
+	/**
+	 * Returns the height of a node, or -1 for a null node.
+	 *
+	 * @param node to check height of
+	 * @return height of node
+	 */
+	private int height(TreeNode node) {
+		if (node == null) {
+			return -1;
+		}
+		else {
+			return node.height;
+		}
+	}
+
+	/**
+	 * Returns the size of a subtree, or 0 for a null node.
+	 *
+	 * @param node root of the subtree
+	 * @return number of nodes in the subtree
+	 */
+	private int size(TreeNode node) {
+		if (node == null) {
+			return 0;
+		}
+		else {
+			return node.size;
+		}
+	}
+
+	/**
+	 * Updates the height and size of given node based on its children.
+	 *
+	 * @param current Node to update
+	 * @return the node
+	 */
+	private TreeNode updateHeight(TreeNode current) {
+		current.height = 1 + Math.max(height(current.left), height(current.right));
+		current.size = 1 + size(current.left) + size(current.right);
+		return current;
+	}
+
+	/**
+	 * Balances the tree from the perspective of the given node.
+	 * This is done by determining the scenario and performing
+	 * either left or right rotations.
+	 *
+	 * @param current node to balance at
+	 * @return the root of the balanced subtree
+	 */
+	private TreeNode balance(TreeNode current) {
+		if (height(current.left) - height(current.right) > 1) { // scenario 1 or 2
+			if (height(current.left.left) < height(current.left.right)) { // scenario 2
+				current.left = leftRotation(current.left);
+			}
+			return rightRotation(current);
+		}
+		else if (height(current.right) - height(current.left) > 1) { // scenario 3 or 4
+			if (height(current.right.right) < height(current.right.left)) { // scenario 3
+				current.right = rightRotation(current.right);
+			}
+			return leftRotation(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Performs a right rotation at the current node.  The order of the
+	 * nodes is unchanged, so the list links are left as they are.
+	 *
+	 * @param current node to perform rotation at
+	 * @return the new root of the subtree
+	 */
+	private TreeNode rightRotation(TreeNode current) {
+		TreeNode rt = current.left;
+		current.left = rt.right;
+		rt.right = current;
+		updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Performs a left rotation at the current node.  The order of the
+	 * nodes is unchanged, so the list links are left as they are.
+	 *
+	 * @param current node to perform rotation at
+	 * @return the new root of the subtree
+	 */
+	private TreeNode leftRotation(TreeNode current) {
+		TreeNode rt = current.right;
+		current.right = rt.left;
+		rt.left = current;
+		updateHeight(current);
+		return updateHeight(rt);
+	}
+
+	/**
+	 * Links a node into the list just before another.
+	 *
+	 * @param node node to link
+	 * @param before node that will follow it
+	 */
+	private void linkBefore(TreeNode node, TreeNode before) {
+		node.prev = before.prev;
+		node.next = before;
+		before.prev.next = node;
+		before.prev = node;
+	}
+
+	/**
+	 * Unlinks a node from the list.
+	 *
+	 * @param node node to unlink
+	 */
+	private void unlink(TreeNode node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = node;
+		node.next = node;
+	}
+
+	/**
+	 * Adds the specified object to the set.
+	 *
+	 * O(log n):  One path of the balanced tree, and O(1) to link the new
+	 * 		node next to its parent in the list.
+	 *
+	 * @param obj object to be added to the set
+	 */
+	@Override
+	public void add(T obj) {
+		if (root == null) {
+			root = new TreeNode(obj);
+			linkBefore(root, header);
+			modCount++;
+		}
+		else {
+			root = add(root, obj);
+		}
+	}
+
+	/**
+	 * Recursively implements the public add operation.  A new left child
+	 * comes just before its parent in order and a new right child just
+	 * after it.
+	 *
+	 * @param current Node currently being examined
+	 * @param obj Object to be added
+	 * @return the root of the subtree
+	 */
+	private TreeNode add(TreeNode current, T obj) {
+		int comparison = obj.compareTo(current.datum);
+		if (comparison < 0) {
+			if (current.left == null) {
+				current.left = new TreeNode(obj);
+				linkBefore(current.left, current);
+				modCount++;
+			}
+			else {
+				current.left = add(current.left, obj);
+			}
+		}
+		else if (comparison > 0) {
+			if (current.right == null) {
+				current.right = new TreeNode(obj);
+				linkBefore(current.right, current.next);
+				modCount++;
+			}
+			else {
+				current.right = add(current.right, obj);
+			}
+		}
+		else {
+			return current;
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+	 * Removes all of the elements from the set.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		header.prev = header;
+		header.next = header;
+		modCount++;
+	}
+
+	/**
+	 * Returns {@code true} if the set contains the specified object and
+	 * {@code false} otherwise.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to find in the set
+	 * @return {@code true} if the set contains the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean contains(T obj) {
+		TreeNode current = root;
+		while (current != null) {
+			int comparison = obj.compareTo(current.datum);
+			if (comparison < 0) {
+				current = current.left;
+			}
+			else if (comparison > 0) {
+				current = current.right;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if the set is empty and {@code false} otherwise.
+	 *
+	 * O(1):  Complexity not dependent on tree size.
+	 *
+	 * @return {@code true} if the set is empty and {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Remove the specified object from the set, if it is present.
+	 *
+	 * O(log n):  One path of the balanced tree, and O(1) to unlink the node
+	 * 		from the list.
+	 *
+	 * @param obj the object to remove
+	 * @return {@code true} if the set contained the specified object and
+	 *         {@code false} otherwise
+	 */
+	@Override
+	public boolean remove(T obj) {
+		int before = size();
+		root = remove(root, obj);
+		return size() != before;
+	}
+
+	/**
+	 * Recursively implements the public remove method.  A node with two
+	 * children is replaced by its successor node, which is the next node in
+	 * the list, so unlinking the removed node is all the list needs.
+	 *
+	 * @param current Node currently being examined
+	 * @param obj Object to be removed
+	 * @return the root of the subtree
+	 */
+	private TreeNode remove(TreeNode current, T obj) {
+		if (current == null) {
+			return null;
+		}
+		int comparison = obj.compareTo(current.datum);
+		if (comparison < 0) {
+			current.left = remove(current.left, obj);
+		}
+		else if (comparison > 0) {
+			current.right = remove(current.right, obj);
+		}
+		else {
+			TreeNode replacement;
+			if (current.left == null) {
+				replacement = current.right;
+			}
+			else if (current.right == null) {
+				replacement = current.left;
+			}
+			else {
+				replacement = current.next;
+				replacement.right = removeFirst(current.right);
+				replacement.left = current.left;
+				replacement = balance(updateHeight(replacement));
+			}
+			unlink(current);
+			current.left = null;
+			current.right = null;
+			modCount++;
+			return replacement;
+		}
+		return balance(updateHeight(current));
+	}
+
+	/**
+	 * Recursively detaches the least node of a tree.
+	 *
+	 * @param current tree to remove from
+	 * @return the tree without its least node
+	 */
+	private TreeNode removeFirst(TreeNode current) {
+		if (current.left == null) {
+			return current.right;
+		}
+		current.left = removeFirst(current.left);
+		return balance(updateHeight(current));
+	}
+
+	/**
+	 * Returns the number of elements in the set.
+	 *
+	 * O(1):  Kept in the root.
+	 *
+	 * @return the number of elements in the set
+	 */
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns an array containing all of the objects in the set in the proper
+	 * order (from least to greatest).
+	 *
+	 * O(n):  Walks the list once.
+	 *
+	 * @return an array containing the objects in the set
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] data = new Object[size()];
+		int idx = 0;
+		for (TreeNode current = header.next; current != header; current = current.next) {
+			data[idx++] = current.datum;
+		}
+		return data;
+	}
+
+	/**
+	 * Returns the least element of the set.
+	 *
+	 * O(1):  The successor of the header.
+	 *
+	 * @return the least element of the set
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	@Override
+	public T first() {
+		if (header.next == header) {
+			throw new NoSuchElementException();
+		}
+		return header.next.datum;
+	}
+
+	/**
+	 * Returns the greatest element of the set.
+	 *
+	 * O(1):  The predecessor of the header.
+	 *
+	 * @return the greatest element of the set
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	@Override
+	public T last() {
+		if (header.prev == header) {
+			throw new NoSuchElementException();
+		}
+		return header.prev.datum;
+	}
+
+	/**
+	 * Returns the node of the least element not less than the object, or
+	 * strictly greater when {@code strict} is set, and the header if there
+	 * is none.  The search ends at the last node it visits, and the answer
+	 * is that node or its successor.
+	 *
+	 * @param obj object to compare against
+	 * @param strict {@code true} to skip an element equal to obj
+	 * @return the node found, or the header
+	 */
+	private TreeNode ceilingNode(T obj, boolean strict) {
+		TreeNode current = root;
+		TreeNode last = header;
+		while (current != null) {
+			last = current;
+			int comparison = obj.compareTo(current.datum);
+			if (comparison < 0) {
+				current = current.left;
+			}
+			else if (comparison > 0 || strict) {
+				current = current.right;
+			}
+			else {
+				return current;
+			}
+		}
+		if (last != header && obj.compareTo(last.datum) < 0) {
+			return last;
+		}
+		return last.next;
+	}
+
+	/**
+	 * Returns the predecessor of the node found by {@code ceilingNode()},
+	 * which is the node of the greatest element below the object, or not
+	 * above it when {@code inclusive} is set.
+	 *
+	 * @param obj object to compare against
+	 * @param inclusive {@code true} to allow an element equal to obj
+	 * @return the node found, or the header
+	 */
+	private TreeNode floorNode(T obj, boolean inclusive) {
+		return ceilingNode(obj, inclusive).prev;
+	}
+
+	/**
+	 * Returns the greatest element less than or equal to the given object,
+	 * or {@code null} if there is none.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to compare against
+	 * @return the greatest element {@code <= obj}, or {@code null}
+	 */
+	@Override
+	public T floor(T obj) {
+		return floorNode(obj, true).datum;
+	}
+
+	/**
+	 * Returns the greatest element strictly less than the given object,
+	 * or {@code null} if there is none.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to compare against
+	 * @return the greatest element {@code < obj}, or {@code null}
+	 */
+	@Override
+	public T lower(T obj) {
+		return floorNode(obj, false).datum;
+	}
+
+	/**
+	 * Returns the least element greater than or equal to the given object,
+	 * or {@code null} if there is none.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to compare against
+	 * @return the least element {@code >= obj}, or {@code null}
+	 */
+	@Override
+	public T ceiling(T obj) {
+		return ceilingNode(obj, false).datum;
+	}
+
+	/**
+	 * Returns the least element strictly greater than the given object,
+	 * or {@code null} if there is none.
+	 *
+	 * O(log n):  Follows a single path of the balanced tree.
+	 *
+	 * @param obj the object to compare against
+	 * @return the least element {@code > obj}, or {@code null}
+	 */
+	@Override
+	public T higher(T obj) {
+		return ceilingNode(obj, true).datum;
+	}
+
+	/**
+	 * Returns the number of elements in the set that are less than the
+	 * given object.
+	 *
+	 * O(log n):  Follows a single path using the subtree sizes.
+	 *
+	 * @param obj object to rank
+	 * @return the number of elements less than obj
+	 */
+	private int rank(T obj) {
+		int rank = 0;
+		TreeNode current = root;
+		while (current != null) {
+			int comparison = obj.compareTo(current.datum);
+			if (comparison < 0) {
+				current = current.left;
+			}
+			else if (comparison > 0) {
+				rank += size(current.left) + 1;
+				current = current.right;
+			}
+			else {
+				return rank + size(current.left);
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the number of elements in the range [lo, hi).
+	 *
+	 * O(log n):  Two calls to {@code rank()}.
+	 *
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @return the number of elements in the range
+	 */
+	@Override
+	public int countInRange(T lo, T hi) {
+		if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+			return 0;
+		}
+		int from = lo == null ? 0 : rank(lo);
+		int to = hi == null ? size() : rank(hi);
+		return to - from;
+	}
+
+	/**
+	 * Removes every element in the range [lo, hi), walking the list from
+	 * the first of them.
+	 *
+	 * O(k log n):  One removal for each of the k elements of the range.
+	 *
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @return the number of elements removed
+	 */
+	@Override
+	public int removeRange(T lo, T hi) {
+		int removed = 0;
+		TreeNode current = lo == null ? header.next : ceilingNode(lo, false);
+		while (current != header && (hi == null || current.datum.compareTo(hi) < 0)) {
+			TreeNode next = current.next;
+			remove(current.datum);
+			current = next;
+			removed++;
+		}
+		return removed;
+	}
+
+	/**
+	 * Returns an iterator over the elements in ascending order.
+	 *
+	 * O(1):  Starts at the successor of the header.
+	 *
+	 * @return an iterator over the elements of the set
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new SetIterator(header.next, null, true);
+	}
+
+	/**
+	 * Returns an iterator over the elements in the range [lo, hi) in
+	 * ascending order.
+	 *
+	 * O(log n):  To find the first element, then O(1) per step.
+	 *
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @return an iterator over the elements in the range
+	 */
+	@Override
+	public Iterator<T> iterator(T lo, T hi) {
+		return new SetIterator(lo == null ? header.next : ceilingNode(lo, false), hi, true);
+	}
+
+	/**
+	 * Returns an iterator over the elements in descending order.
+	 *
+	 * O(1):  Starts at the predecessor of the header.
+	 *
+	 * @return an iterator over the elements from greatest to least
+	 */
+	public Iterator<T> descendingIterator() {
+		return new SetIterator(header.prev, null, false);
+	}
+
+	/**
+	 * Returns an iterator over the elements in the range [lo, hi) in
+	 * descending order.
+	 *
+	 * O(log n):  To find the last element, then O(1) per step.
+	 *
+	 * @param lo inclusive lower bound, or {@code null} for none
+	 * @param hi exclusive upper bound, or {@code null} for none
+	 * @return an iterator over the elements in the range from greatest to
+	 * 		least
+	 */
+	public Iterator<T> descendingIterator(T lo, T hi) {
+		TreeNode start = hi == null ? header.prev : floorNode(hi, false);
+		if (lo != null && start != header && start.datum.compareTo(lo) < 0) {
+			start = header;
+		}
+		return new SetIterator(start, lo == null ? null : lower(lo), false);
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the set that splits at
+	 * subtree boundaries.
+	 *
+	 * @return a spliterator over the elements of the set
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(root, null, modCount);
+	}
+
+	/**
+	 * Returns a live view of the elements in the range [lo, hi).
+	 *
+	 * O(1):  The view holds only its bounds.
+	 *
+	 * @param lo inclusive lower bound of the view, or {@code null} for none
+	 * @param hi exclusive upper bound of the view, or {@code null} for none
+	 * @return a view of the elements in the range
+	 * @throws IllegalArgumentException if lo is greater than hi
+	 */
+	@Override
+	public OrderedSet<T> subSet(T lo, T hi) {
+		return new SubSetView<T>(this, lo, hi);
+	}
+
+	/**
+	 * Returns a live view of the elements less than {@code hi}.
+	 *
+	 * O(1):  See {@code subSet()}.
+	 *
+	 * @param hi exclusive upper bound of the view, or {@code null} for none
+	 * @return a view of the elements less than hi
+	 */
+	@Override
+	public OrderedSet<T> headSet(T hi) {
+		return new SubSetView<T>(this, null, hi);
+	}
+
+	/**
+	 * Returns a live view of the elements greater than or equal to
+	 * {@code lo}.
+	 *
+	 * O(1):  See {@code subSet()}.
+	 *
+	 * @param lo inclusive lower bound of the view, or {@code null} for none
+	 * @return a view of the elements greater than or equal to lo
+	 */
+	@Override
+	public OrderedSet<T> tailSet(T lo) {
+		return new SubSetView<T>(this, lo, null);
+	}
+
+	/**
+	 * Return a {@code String} representation of the set.
+	 *
+	 * O(n):  Walks the list once.
+	 *
+	 * @return a {@code String} representation of the set.
+	 */
+	public String toString() {
+		StringBuilder repr = new StringBuilder();
+		repr.append("{");
+		for (TreeNode current = header.next; current != header; current = current.next) {
+			if (current != header.next) {
+				repr.append(", ");
+			}
+			repr.append(current.datum);
+		}
+		repr.append("}");
+		return repr.toString();
+	}
+
+}